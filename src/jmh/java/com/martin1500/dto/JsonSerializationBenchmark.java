@@ -0,0 +1,83 @@
+package com.martin1500.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.martin1500.model.util.Priority;
+import com.martin1500.model.util.Status;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response serialization with an {@link ObjectMapper} configured the way Spring Boot configures
+ * the one used by the controllers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JsonSerializationBenchmark {
+
+    @Param({"10", "1000"})
+    private int size;
+
+    private ObjectWriter taskListWriter;
+    private ObjectWriter projectWriter;
+    private ObjectWriter memberPageWriter;
+    private List<TaskDTO> tasks;
+    private ProjectDTO project;
+    private MemberPage memberPage;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        taskListWriter = objectMapper.writerFor(TypeFactory.defaultInstance()
+                .constructCollectionType(List.class, TaskDTO.class));
+        projectWriter = objectMapper.writerFor(ProjectDTO.class);
+        memberPageWriter = objectMapper.writerFor(MemberPage.class);
+
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 9, 0);
+        tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            tasks.add(TaskDTO.builder()
+                    .id((long) i)
+                    .title("Task " + i)
+                    .description("Description of task " + i)
+                    .status(Status.values()[i % Status.values().length])
+                    .priority(Priority.values()[i % Priority.values().length])
+                    .dueDate(LocalDate.of(2030, 1, 1).plusDays(i % 365))
+                    .createdAt(createdAt)
+                    .projectId(1L)
+                    .comments("Comment " + i)
+                    .build());
+        }
+
+        List<MemberDTO> members = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            members.add(new MemberDTO((long) i, "member" + i));
+        }
+        project = ProjectDTO.builder().id(1L).name("Benchmark")
+                .memberCount((long) size).memberPreview(members.subList(0, Math.min(5, size))).build();
+        memberPage = new MemberPage(members, "cursor");
+    }
+
+    @Benchmark
+    public byte[] serializeTaskList() throws Exception {
+        return taskListWriter.writeValueAsBytes(tasks);
+    }
+
+    @Benchmark
+    public byte[] serializeProject() throws Exception {
+        return projectWriter.writeValueAsBytes(project);
+    }
+
+    @Benchmark
+    public byte[] serializeMemberPage() throws Exception {
+        return memberPageWriter.writeValueAsBytes(memberPage);
+    }
+}
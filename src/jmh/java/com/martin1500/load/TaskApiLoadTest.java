@@ -0,0 +1,226 @@
+package com.martin1500.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop HTTP load against a running instance: each simulated client sends its next request
+ * as soon as the previous one is answered, cycling through read endpoints that spend most of
+ * their time in JDBC. For every client count it reports throughput, median and p99 latency and
+ * failed requests, labelled with the server's threading mode as read from the {@code threads}
+ * meter tag.
+ * <p>
+ * To compare platform with virtual threads, start the application on Java 21 or newer, once as is
+ * and once with {@code spring.threads.virtual.enabled=true}, and run against each with the same
+ * database:
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec@load-test -Dload.args="--url http://localhost:8080 --clients 200,1000,5000"
+ * </pre>
+ * Options: {@code --url}, {@code --clients} (comma separated), {@code --warmup} and
+ * {@code --duration} (seconds per client count), {@code --tasks} (tasks seeded for the load user)
+ * and {@code --paths} (comma separated). Each client holds a connection open, so 5000 clients
+ * need {@code ulimit -n} above that on both ends, and a client machine other than the server's
+ * for numbers worth comparing.
+ */
+public final class TaskApiLoadTest {
+
+    private static final Pattern THREADS_TAG = Pattern.compile("threads=\"(\\w+)\"");
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String url;
+    private final HttpClient client;
+    private final List<String> paths;
+    private String accessToken;
+
+    private TaskApiLoadTest(String url, HttpClient client, List<String> paths) {
+        this.url = url;
+        this.client = client;
+        this.paths = paths;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>(Map.of(
+                "url", "http://localhost:8080",
+                "clients", "200,1000,5000",
+                "warmup", "10",
+                "duration", "30",
+                "tasks", "200",
+                "paths", "/api/tasks?size=50,/api/projects,/api/tasks/status/PENDING?size=50"));
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(executor)
+                .build();
+        TaskApiLoadTest loadTest = new TaskApiLoadTest(options.get("url"), client,
+                Arrays.asList(options.get("paths").split(",")));
+        try {
+            loadTest.seed(Integer.parseInt(options.get("tasks")));
+            String mode = loadTest.threadingMode();
+            System.out.printf("%-8s %7s %10s %9s %9s %8s%n", "threads", "clients", "req/s", "p50 ms", "p99 ms", "errors");
+            for (String clients : options.get("clients").split(",")) {
+                int count = Integer.parseInt(clients.trim());
+                loadTest.run(count, Duration.ofSeconds(Long.parseLong(options.get("warmup"))));
+                Result result = loadTest.run(count, Duration.ofSeconds(Long.parseLong(options.get("duration"))));
+                System.out.printf("%-8s %7d %10.0f %9.1f %9.1f %8d%n", mode, count, result.throughput(),
+                        result.percentile(0.50), result.percentile(0.99), result.errors());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /** Registers a user of its own, with one project holding {@code tasks} tasks. */
+    private void seed(int tasks) throws Exception {
+        String username = "load" + System.currentTimeMillis();
+        JsonNode auth = post("/api/auth/register", Map.of("username", username,
+                "email", username + "@example.com", "password", "load-test-password"));
+        accessToken = auth.get("accessToken").asText();
+        long projectId = post("/api/projects", Map.of("name", "Load test")).get("id").asLong();
+
+        List<Map<String, Object>> batch = new ArrayList<>();
+        for (int i = 0; i < tasks; i++) {
+            batch.add(Map.of("title", "Load task " + i, "priority", i % 2 == 0 ? "LOW" : "HIGH",
+                    "projectId", projectId, "dueDate", LocalDate.now().plusDays(1 + i % 30).toString()));
+            if (batch.size() == 500 || i == tasks - 1) {
+                post("/api/tasks/batch", Map.of("tasks", batch));
+                batch = new ArrayList<>();
+            }
+        }
+    }
+
+    /** The {@code threads} tag the server puts on its meters, or "unknown" without one. */
+    private String threadingMode() throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(url + "/actuator/prometheus"))
+                .timeout(REQUEST_TIMEOUT).build(), HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = THREADS_TAG.matcher(response.body());
+        return matcher.find() ? matcher.group(1) : "unknown";
+    }
+
+    private Result run(int clients, Duration duration) throws InterruptedException {
+        long end = System.nanoTime() + duration.toNanos();
+        CountDownLatch finished = new CountDownLatch(clients);
+        List<Client> running = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            Client loadClient = new Client(i, end, finished);
+            running.add(loadClient);
+            loadClient.next();
+        }
+        if (!finished.await(duration.plus(REQUEST_TIMEOUT).toSeconds() + 10, TimeUnit.SECONDS)) {
+            System.err.println("Some clients did not finish; their pending requests are not counted");
+        }
+
+        int total = running.stream().mapToInt(loadClient -> loadClient.count).sum();
+        long[] latencies = new long[total];
+        int offset = 0;
+        long errors = 0;
+        for (Client loadClient : running) {
+            System.arraycopy(loadClient.latencies, 0, latencies, offset, loadClient.count);
+            offset += loadClient.count;
+            errors += loadClient.errors;
+        }
+        Arrays.sort(latencies);
+        return new Result(latencies, errors, duration);
+    }
+
+    private JsonNode post(String path, Object body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+        if (accessToken != null) {
+            request.header("Authorization", "Bearer " + accessToken);
+        }
+        HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException("POST " + path + " answered " + response.statusCode() + ": " + response.body());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    /**
+     * One simulated user. Its requests follow each other, so its fields are only ever touched by
+     * one request's completion at a time.
+     */
+    private final class Client {
+        private final int id;
+        private final long end;
+        private final CountDownLatch finished;
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        private Client(int id, long end, CountDownLatch finished) {
+            this.id = id;
+            this.end = end;
+            this.finished = finished;
+        }
+
+        private void next() {
+            long start = System.nanoTime();
+            if (start >= end) {
+                finished.countDown();
+                return;
+            }
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url + paths.get((id + count) % paths.size())))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Authorization", "Bearer " + accessToken)
+                    .GET()
+                    .build();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenCompleteAsync((response, failure) -> {
+                        record(System.nanoTime() - start, failure != null || response.statusCode() >= 400);
+                        next();
+                    }, client.executor().orElseThrow());
+        }
+
+        private void record(long latency, boolean failed) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+            if (failed) {
+                errors++;
+            }
+        }
+    }
+
+    private record Result(long[] latencies, long errors, Duration duration) {
+
+        double throughput() {
+            return latencies.length / (duration.toNanos() / 1e9);
+        }
+
+        /** In milliseconds. */
+        double percentile(double fraction) {
+            if (latencies.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.ceil(fraction * latencies.length) - 1;
+            return latencies[Math.max(0, index)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.martin1500.search;
+
+import com.martin1500.event.TaskSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search latency over one million indexed tasks, either all owned by one user (the worst case,
+ * every posting is scanned) or spread over a thousand users. Words follow a Zipf-like
+ * distribution so common, mid-frequency and rare terms are all exercised. Run with
+ * {@code -Djmh.args="TaskSearchIndexBenchmark -bm sample -tu ms"} for percentiles.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TaskSearchIndexBenchmark {
+
+    private static final int TASKS = 1_000_000;
+    private static final int VOCABULARY = 20_000;
+
+    @Param({"1", "1000"})
+    private int users;
+
+    private TaskSearchIndex index;
+    private String[] words;
+
+    @Setup
+    public void setUp() {
+        words = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            words[i] = "w" + Integer.toString(i, 36);
+        }
+        index = new TaskSearchIndex(new SimpleMeterRegistry(), 10_000);
+        SplittableRandom random = new SplittableRandom(42);
+        for (long id = 1; id <= TASKS; id++) {
+            index.index(new TaskSnapshot(id, 1 + id % users, 1 + id % 50, text(random, 4), text(random, 12),
+                    text(random, 6), null, null, null));
+        }
+        System.out.printf("%nIndexed %d tasks, ~%d MB%n", index.size(), index.memoryBytes() >> 20);
+    }
+
+    /** A term in most tasks (about 78% with this vocabulary). */
+    @Benchmark
+    public TaskSearchHits commonTerm() {
+        return index.search(1L, null, words[0], 0, 50);
+    }
+
+    @Benchmark
+    public TaskSearchHits twoTerms() {
+        return index.search(1L, null, words[3] + " " + words[40], 0, 50);
+    }
+
+    @Benchmark
+    public TaskSearchHits twoTermsInProject() {
+        return index.search(1L, 7L, words[3] + " " + words[40], 0, 50);
+    }
+
+    @Benchmark
+    public TaskSearchHits rareTerm() {
+        return index.search(1L, null, words[5000], 0, 50);
+    }
+
+    private String text(SplittableRandom random, int length) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            // Inverse transform of a 1/x density over the vocabulary ranks.
+            int rank = (int) Math.pow(VOCABULARY, random.nextDouble()) - 1;
+            text.append(words[rank]).append(' ');
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,58 @@
+package com.martin1500.service;
+
+import com.martin1500.dto.TokenPair;
+import com.martin1500.model.util.Role;
+import com.martin1500.security.TokenVerificationCache;
+import com.martin1500.security.UserPrincipal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issuance and verification. With {@code cached=false} the verification cache holds no
+ * entries, so every call pays for the full parse and signature check.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET_KEY = "EAulBkNu+EhcQ4Sp/7IZJso/No0fr4qbT0IVu3A4MEf1ZYZ5";
+
+    @Param({"true", "false"})
+    private boolean cached;
+
+    private JwtService jwtService;
+    private UserPrincipal principal;
+    private String accessToken;
+
+    @Setup
+    public void setUp() {
+        TokenVerificationCache cache = new TokenVerificationCache(new SimpleMeterRegistry(), cached ? 10_000 : 0, 300_000);
+        jwtService = new JwtService(cache);
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET_KEY);
+        ReflectionTestUtils.setField(jwtService, "ACCESS_TOKEN_EXPIRATION", 3_600_000L);
+        ReflectionTestUtils.setField(jwtService, "REFRESH_TOKEN_EXPIRATION", 15_552_000_000L);
+        jwtService.init();
+
+        principal = new UserPrincipal(1L, "benchmark", null, Role.USER);
+        accessToken = jwtService.generateTokenPair(principal).accessToken();
+    }
+
+    @Benchmark
+    public TokenPair generateTokenPair() {
+        return jwtService.generateTokenPair(principal);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtService.extractUsername(accessToken);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtService.isTokenValid(accessToken, principal);
+    }
+}
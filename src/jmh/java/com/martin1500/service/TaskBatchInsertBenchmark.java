@@ -0,0 +1,103 @@
+package com.martin1500.service;
+
+import com.martin1500.TaskTrackerApplication;
+import com.martin1500.dto.TaskCreateDTO;
+import com.martin1500.dto.TaskDTO;
+import com.martin1500.model.Project;
+import com.martin1500.model.User;
+import com.martin1500.model.util.Priority;
+import com.martin1500.model.util.Role;
+import com.martin1500.repository.ProjectRepository;
+import com.martin1500.repository.UserRepository;
+import com.martin1500.security.UserPrincipal;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates 500 tasks over 10 projects against an in-memory H2 database, once through 500
+ * {@link TaskService#createTask} calls as sequential {@code POST /api/tasks} requests would, and
+ * once through a single {@link TaskService#createTasks} call. {@code jdbcBatchSize=1} turns
+ * Hibernate's insert batching off to show what the batch path gains from it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TaskBatchInsertBenchmark {
+
+    private static final int TASKS = 500;
+    private static final int PROJECTS = 10;
+
+    @Param({"1", "50"})
+    public int jdbcBatchSize;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private JdbcTemplate jdbcTemplate;
+    private UsernamePasswordAuthenticationToken authentication;
+    private List<TaskCreateDTO> tasks;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(TaskTrackerApplication.class)
+                .properties(
+                        "server.port=0",
+                        "jwt.secretKey=EAulBkNu+EhcQ4Sp/7IZJso/No0fr4qbT0IVu3A4MEf1ZYZ5",
+                        "spring.datasource.url=jdbc:h2:mem:benchmark",
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=" + jdbcBatchSize,
+                        "logging.level.root=WARN")
+                .run();
+        taskService = context.getBean(TaskService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        User user = context.getBean(UserRepository.class).save(User.builder().username("benchmark")
+                .email("benchmark@example.com").password("password123").role(Role.USER).build());
+        UserPrincipal principal = UserPrincipal.from(user);
+        authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+
+        ProjectRepository projectRepository = context.getBean(ProjectRepository.class);
+        List<Long> projectIds = new ArrayList<>();
+        for (int i = 0; i < PROJECTS; i++) {
+            projectIds.add(projectRepository.save(Project.builder().name("Project " + i).build()).getId());
+        }
+        tasks = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            tasks.add(new TaskCreateDTO("Task " + i, Priority.values()[i % 3], projectIds.get(i % PROJECTS),
+                    LocalDate.of(2030, 1, 1).plusDays(i % 365), "Comment " + i));
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteTasks() {
+        jdbcTemplate.update("delete from task");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<TaskDTO> oneByOne() {
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        List<TaskDTO> created = new ArrayList<>(TASKS);
+        for (TaskCreateDTO task : tasks) {
+            created.add(taskService.createTask(task));
+        }
+        return created;
+    }
+
+    @Benchmark
+    public List<TaskDTO> batch() {
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        return taskService.createTasks(tasks);
+    }
+}
@@ -0,0 +1,59 @@
+package com.martin1500.service;
+
+import com.martin1500.dto.TaskDTO;
+import com.martin1500.model.Project;
+import com.martin1500.model.Task;
+import com.martin1500.model.util.Priority;
+import com.martin1500.model.util.Status;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping as done by {@link TaskServiceImpl} for every task it returns.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TaskMappingBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int size;
+
+    private List<Task> tasks;
+
+    @Setup
+    public void setUp() {
+        Project project = Project.builder().id(1L).name("Benchmark").build();
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 9, 0);
+        tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            tasks.add(Task.builder()
+                    .id((long) i)
+                    .title("Task " + i)
+                    .description("Description of task " + i)
+                    .status(Status.values()[i % Status.values().length])
+                    .priority(Priority.values()[i % Priority.values().length])
+                    .dueDate(LocalDate.of(2030, 1, 1).plusDays(i % 365))
+                    .createdAt(createdAt)
+                    .updatedAt(createdAt)
+                    .project(project)
+                    .comments("Comment " + i)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public TaskDTO taskToTaskDTO() {
+        return TaskServiceImpl.taskToTaskDTO(tasks.get(tasks.size() - 1));
+    }
+
+    @Benchmark
+    public List<TaskDTO> convertTasksToDTOs() {
+        return TaskServiceImpl.convertTasksToDTOs(tasks);
+    }
+}
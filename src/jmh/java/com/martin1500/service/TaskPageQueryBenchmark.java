@@ -0,0 +1,109 @@
+package com.martin1500.service;
+
+import com.martin1500.TaskTrackerApplication;
+import com.martin1500.dto.TaskDTO;
+import com.martin1500.model.Task;
+import com.martin1500.model.User;
+import com.martin1500.model.util.Role;
+import com.martin1500.repository.TaskFilter;
+import com.martin1500.repository.TaskRepository;
+import com.martin1500.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One 10k-row task page read two ways against an in-memory H2 database: hydrating {@link Task}
+ * entities and mapping them with {@link TaskServiceImpl#convertTasksToDTOs}, as the list
+ * endpoints used to, and reading {@link TaskDTO}s directly through
+ * {@link TaskRepository#findTaskPage}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TaskPageQueryBenchmark {
+
+    private static final int PAGE_SIZE = 10_000;
+    private static final int PROJECTS = 10;
+
+    private ConfigurableApplicationContext context;
+    private TaskRepository taskRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnlyTransaction;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(TaskTrackerApplication.class)
+                .properties(
+                        "server.port=0",
+                        "jwt.secretKey=EAulBkNu+EhcQ4Sp/7IZJso/No0fr4qbT0IVu3A4MEf1ZYZ5",
+                        "spring.datasource.url=jdbc:h2:mem:benchmark",
+                        "logging.level.root=WARN")
+                .run();
+        taskRepository = context.getBean(TaskRepository.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        user = context.getBean(UserRepository.class).save(User.builder().username("benchmark")
+                .email("benchmark@example.com").password("password123").role(Role.USER).build());
+        insertTasks(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<TaskDTO> entities() {
+        return readOnlyTransaction.execute(status -> TaskServiceImpl.convertTasksToDTOs(entityManager
+                .createQuery("select t from Task t where t.createdBy = :user order by t.dueDate, t.id", Task.class)
+                .setParameter("user", user)
+                .setMaxResults(PAGE_SIZE)
+                .getResultList()));
+    }
+
+    @Benchmark
+    public List<TaskDTO> projection() {
+        return readOnlyTransaction.execute(status ->
+                taskRepository.findTaskPage(user, TaskFilter.none(), ScrollPosition.keyset(), PAGE_SIZE));
+    }
+
+    private void insertTasks(JdbcTemplate jdbcTemplate) {
+        List<Object[]> projects = new ArrayList<>();
+        for (int i = 0; i < PROJECTS; i++) {
+            projects.add(new Object[]{"Project " + i});
+        }
+        jdbcTemplate.batchUpdate("insert into project (name) values (?)", projects);
+        List<Long> projectIds = jdbcTemplate.queryForList("select id from project", Long.class);
+
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.of(2025, 1, 1, 9, 0));
+        List<Object[]> tasks = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            tasks.add(new Object[]{
+                    i + 1L, "Task " + i, "Description of task " + i, "PENDING", "MEDIUM",
+                    Date.valueOf(LocalDate.of(2030, 1, 1).plusDays(i % 365)), createdAt, createdAt,
+                    user.getId(), projectIds.get(i % PROJECTS), "Comment " + i});
+        }
+        // Task ids come from a sequence Hibernate draws from; rows inserted here bring their own.
+        jdbcTemplate.batchUpdate("insert into task (id, title, description, status, priority, due_date, created_at,"
+                + " updated_at, created_by_id, project_id, comments) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", tasks);
+    }
+}
@@ -2,8 +2,12 @@ package com.martin1500;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
 
-@SpringBootApplication
+// R2DBC is only used by the reactive read API, which manages its own pool (see ReactiveReadConfig);
+// an auto-configured ConnectionFactory would switch off the JDBC DataSource.
+@SpringBootApplication(exclude = {R2dbcAutoConfiguration.class, R2dbcTransactionManagerAutoConfiguration.class})
 public class TaskTrackerApplication {
 
 	public static void main(String[] args) {
@@ -1,31 +1,39 @@
 package com.martin1500.config;
 
-import com.martin1500.repository.UserRepository;
+import com.martin1500.security.BoundedPasswordEncoder;
+import com.martin1500.security.UserDetailsCache;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Configuration
 @RequiredArgsConstructor
 public class ApplicationConfig {
 
-    private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
 
     @Bean
     public UserDetailsService userDetailService() {
-        return username -> userRepository.findByUsername(username)
+        return username -> userDetailsCache.get(username)
                 .orElseThrow(()-> new UsernameNotFoundException("User not found"));
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            MeterRegistry meterRegistry,
+            @Value("${security.passwordHashing.strength:10}") int strength,
+            @Value("${security.passwordHashing.threads:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int threads,
+            @Value("${security.passwordHashing.queueCapacity:64}") int queueCapacity,
+            @Value("${security.passwordHashing.timeout:5000}") long timeout
+    ) {
+        return new BoundedPasswordEncoder(strength, threads, queueCapacity, timeout, meterRegistry);
     }
 
     @Bean
@@ -0,0 +1,74 @@
+package com.martin1500.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.martin1500.reactive.JwtWebFilter;
+import com.martin1500.reactive.ReactiveReadServer;
+import com.martin1500.reactive.ReactiveTaskReader;
+import com.martin1500.reactive.TaskReadHandler;
+import com.martin1500.security.TokenRevocationService;
+import com.martin1500.security.UserDetailsCache;
+import com.martin1500.service.JwtService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+/**
+ * The read-only task API for dashboards and other long-lived, high fan-out readers, served
+ * non-blocking on its own port ({@code reactive.read.port}) when {@code reactive.read.enabled} is
+ * set. The paths are those of the task listings on the main port; writes stay there.
+ * <p>
+ * Queries go over R2DBC to the database at {@code reactive.read.r2dbc.url}, which has to be the one
+ * {@code spring.datasource.url} points at, through a pool of {@code reactive.read.poolSize}
+ * connections.
+ */
+@Configuration
+@ConditionalOnProperty(name = "reactive.read.enabled", havingValue = "true")
+public class ReactiveReadConfig {
+
+    @Bean
+    public ReactiveTaskReader reactiveTaskReader(
+            @Value("${reactive.read.r2dbc.url:r2dbc:h2:mem:///testdb}") String url,
+            @Value("${reactive.read.r2dbc.username:sa}") String username,
+            @Value("${reactive.read.r2dbc.password:}") String password,
+            @Value("${reactive.read.poolSize:10}") int poolSize
+    ) {
+        return new ReactiveTaskReader(url, username, password, poolSize);
+    }
+
+    @Bean
+    public ReactiveReadServer reactiveReadServer(
+            ReactiveTaskReader reactiveTaskReader,
+            JwtService jwtService,
+            TokenRevocationService tokenRevocationService,
+            UserDetailsCache userDetailsCache,
+            ObjectMapper objectMapper,
+            @Value("${reactive.read.port:8081}") int port,
+            @Value("${reactive.read.eventLoopThreads:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int eventLoopThreads,
+            @Value("${reactive.read.prefetch:256}") int prefetch
+    ) {
+        TaskReadHandler handler = new TaskReadHandler(reactiveTaskReader, prefetch);
+        RouterFunction<ServerResponse> routes = RouterFunctions.route()
+                .GET("/api/tasks", handler::getTasks)
+                .GET("/api/tasks/status/{status}", handler::getTasksByStatus)
+                .GET("/api/tasks/priority/{priority}", handler::getTasksByPriority)
+                .GET("/api/tasks/overdue", handler::getOverdueTasks)
+                .GET("/api/tasks/project/{projectId}", handler::getTasksByProject)
+                .build();
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    // Same JSON as the servlet API
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .webFilter(new JwtWebFilter(jwtService, tokenRevocationService, userDetailsCache))
+                .build();
+        return new ReactiveReadServer(RouterFunctions.toHttpHandler(routes, strategies), port, eventLoopThreads);
+    }
+}
@@ -0,0 +1,89 @@
+package com.martin1500.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.martin1500.model.Project;
+import com.martin1500.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate's second-level and query cache, kept in local Caffeine caches behind JCache. Every
+ * region is created here with its own size and time to live, overridable through
+ * {@code secondLevelCache.<region>.maximumSize} and {@code secondLevelCache.<region>.timeToLive}
+ * (milliseconds, 0 for none). Hibernate is set to fail on a region that is not listed.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    private static final List<Region> REGIONS = List.of(
+            new Region(Project.CACHE_REGION, 10_000, Duration.ofMinutes(10)),
+            new Region(Project.MEMBERS_CACHE_REGION, 10_000, Duration.ofMinutes(10)),
+            new Region(User.CACHE_REGION, 50_000, Duration.ofMinutes(10)),
+            new Region(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, 10_000, Duration.ofMinutes(5)),
+            // Must outlive every cached query result: a result is only trusted against these timestamps.
+            new Region(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, 0, Duration.ZERO)
+    );
+
+    /**
+     * A manager of this context's own, under a URI no other context uses: the provider's default
+     * manager is shared by every context in the JVM, as tests start several, so their caches would
+     * be too. Closed with the context, which drops its caches.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(Environment environment, MeterRegistry meterRegistry) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        URI uri = URI.create("second-level-cache:" + UUID.randomUUID());
+        CacheManager cacheManager = provider.getCacheManager(uri, SecondLevelCacheConfig.class.getClassLoader());
+        for (Region region : REGIONS) {
+            Cache<Object, Object> cache = cacheManager.createCache(region.name(), region.configuration(environment));
+            JCacheMetrics.monitor(meterRegistry, cache);
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheRegions(CacheManager secondLevelCacheManager) {
+        return properties -> {
+            properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    private record Region(String name, long maximumSize, Duration timeToLive) {
+
+        CaffeineConfiguration<Object, Object> configuration(Environment environment) {
+            String prefix = "secondLevelCache." + name + ".";
+            long size = environment.getProperty(prefix + "maximumSize", Long.class, maximumSize);
+            long ttl = environment.getProperty(prefix + "timeToLive", Long.class, timeToLive.toMillis());
+
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            // Hibernate stores immutable, disassembled entries; copying them on every access buys nothing.
+            configuration.setStoreByValue(false);
+            configuration.setStatisticsEnabled(true);
+            if (size > 0) {
+                configuration.setMaximumSize(OptionalLong.of(size));
+            }
+            if (ttl > 0) {
+                configuration.setExpireAfterWrite(OptionalLong.of(Duration.ofMillis(ttl).toNanos()));
+            }
+            return configuration;
+        }
+    }
+}
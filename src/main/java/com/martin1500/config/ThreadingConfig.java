@@ -0,0 +1,53 @@
+package com.martin1500.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.autoconfigure.metrics.MeterRegistryCustomizer;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+
+/**
+ * Requests, {@code @Scheduled} tasks and async requests run on virtual threads when
+ * {@code spring.threads.virtual.enabled} is set and the JVM is Java 21 or newer; Spring Boot
+ * silently keeps platform threads otherwise. The mode in effect is logged at startup and added to
+ * every meter as a {@code threads} tag, so instances of a gradual rollout can be told apart on the
+ * same dashboards.
+ */
+@Configuration
+public class ThreadingConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ThreadingConfig.class);
+    private static final String VIRTUAL_THREADS_PROPERTY = "spring.threads.virtual.enabled";
+
+    private final Environment environment;
+
+    public ThreadingConfig(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Bean
+    MeterRegistryCustomizer<MeterRegistry> threadingTag() {
+        String threads = mode();
+        return registry -> registry.config().commonTags("threads", threads);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reportMode() {
+        boolean requested = environment.getProperty(VIRTUAL_THREADS_PROPERTY, Boolean.class, false);
+        if (requested && !Threading.VIRTUAL.isActive(environment)) {
+            log.warn("{} is set, but Java {} has no virtual threads; running on platform threads",
+                    VIRTUAL_THREADS_PROPERTY, Runtime.version().feature());
+        } else {
+            log.info("Handling requests on {} threads", mode());
+        }
+    }
+
+    private String mode() {
+        return Threading.VIRTUAL.isActive(environment) ? "virtual" : "platform";
+    }
+}
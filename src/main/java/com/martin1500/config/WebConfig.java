@@ -0,0 +1,35 @@
+package com.martin1500.config;
+
+import com.martin1500.etag.TaskListETagInterceptor;
+import com.martin1500.observability.SqlBudgetEnforcer;
+import com.martin1500.service.TaskExportFormat;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.Locale;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<SqlBudgetEnforcer> sqlBudgetEnforcer;
+    private final TaskListETagInterceptor taskListETagInterceptor;
+
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        // Export formats are requested in lower case (?format=csv).
+        registry.addConverter(String.class, TaskExportFormat.class,
+                source -> TaskExportFormat.valueOf(source.trim().toUpperCase(Locale.ROOT)));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // The list version is read before the handler's budget starts, like the authentication lookups.
+        registry.addInterceptor(taskListETagInterceptor);
+        sqlBudgetEnforcer.ifAvailable(registry::addInterceptor);
+    }
+}
@@ -30,8 +30,13 @@ public class AuthController {
     }
 
     @PostMapping("/refresh")
-    public ResponseEntity<String> refreshToken(@RequestBody RefreshRequest request) {
-        String newAccessToken = authService.refreshToken(request);
-        return ResponseEntity.ok(newAccessToken);
+    public ResponseEntity<AuthResponse> refreshToken(@RequestBody RefreshRequest request) {
+        return ResponseEntity.ok(authService.refreshToken(request));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody RefreshRequest request) {
+        authService.logout(request);
+        return ResponseEntity.noContent().build();
     }
 }
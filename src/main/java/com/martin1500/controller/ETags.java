@@ -0,0 +1,35 @@
+package com.martin1500.controller;
+
+import com.martin1500.exception.PreconditionFailedException;
+
+/**
+ * Strong entity tags for single tasks: a task's tag is its version.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * The version an {@code If-Match} header requires, or null when the header is absent or
+     * {@code *}. Weak tags, lists and tags this API never issued cannot match any version.
+     */
+    static Long requiredVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // Falls through to the failure below.
+            }
+        }
+        throw new PreconditionFailedException("If-Match does not match any version of the task: " + ifMatch);
+    }
+}
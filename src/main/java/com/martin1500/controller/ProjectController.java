@@ -1,13 +1,22 @@
 package com.martin1500.controller;
 
+import com.martin1500.dto.MemberDTO;
+import com.martin1500.dto.MemberPage;
 import com.martin1500.dto.ProjectDTO;
+import com.martin1500.dto.ProjectDeletionDTO;
+import com.martin1500.dto.UserIdsDTO;
+import com.martin1500.model.util.TaskDisposition;
+import com.martin1500.observability.SqlBudget;
 import com.martin1500.service.ProjectService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
 
@@ -19,44 +28,99 @@ public class ProjectController {
 
     @PostMapping
     @PreAuthorize("hasAuthority('USER')")
+    @SqlBudget(3)
     public ResponseEntity<ProjectDTO> createProject(@Valid @RequestBody ProjectDTO dto) {
         return ResponseEntity.ok(projectService.createProject(dto));
     }
 
     @GetMapping
     @PreAuthorize("hasAuthority('USER')")
+    @SqlBudget(1)
     public ResponseEntity<List<ProjectDTO>> getProjects() {
         return ResponseEntity.ok(projectService.getProjectsForCurrentUser());
     }
 
     @GetMapping("/{id}")
     @PreAuthorize("hasAuthority('USER')")
+    @SqlBudget(1)
     public ResponseEntity<ProjectDTO> getProjectById(@PathVariable Long id) {
         return ResponseEntity.ok(projectService.getProjectById(id));
     }
 
     @PutMapping("/{id}")
     @PreAuthorize("hasAuthority('USER')")
+    @SqlBudget(3)
     public ResponseEntity<ProjectDTO> updateProject(@PathVariable Long id, @Valid @RequestBody ProjectDTO dto) {
         return ResponseEntity.ok(projectService.updateProject(id, dto));
     }
 
+    /**
+     * Accepts the deletion and carries it out in the background; the Location header points at
+     * its status. {@code tasks=DELETE} deletes the project's tasks instead of keeping them
+     * without a project.
+     */
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAuthority('USER')")
-    public ResponseEntity<Void> deleteProject(@PathVariable Long id) {
-        projectService.deleteProject(id);
-        return ResponseEntity.noContent().build();
+    @SqlBudget(3)
+    public ResponseEntity<ProjectDeletionDTO> deleteProject(@PathVariable Long id,
+                                                            @RequestParam(defaultValue = "DETACH") TaskDisposition tasks) {
+        ProjectDeletionDTO deletion = projectService.deleteProject(id, tasks);
+        URI status = ServletUriComponentsBuilder.fromCurrentRequestUri().path("/deletion").build().toUri();
+        return ResponseEntity.accepted().location(status).body(deletion);
     }
 
+    @GetMapping("/{id}/deletion")
+    @PreAuthorize("hasAuthority('USER')")
+    @SqlBudget(1)
+    public ResponseEntity<ProjectDeletionDTO> getDeletion(@PathVariable Long id) {
+        return ResponseEntity.ok(projectService.getDeletion(id));
+    }
+
+    @GetMapping("/{id}/members")
+    @PreAuthorize("hasAuthority('USER')")
+    @SqlBudget(2)
+    public ResponseEntity<List<MemberDTO>> getMembers(@PathVariable Long id,
+                                                      @RequestParam(required = false) String cursor,
+                                                      @RequestParam(required = false) Integer size) {
+        MemberPage page = projectService.getMembers(id, cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", page.nextCursor())
+                    .toUriString();
+            response.header(TaskController.NEXT_CURSOR_HEADER, page.nextCursor())
+                    .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(page.members());
+    }
+
+    // Membership changes answer with the project summary, which is one more statement.
+
     @PostMapping("/{id}/members")
     @PreAuthorize("hasAuthority('USER')")
+    @SqlBudget(4)
     public ResponseEntity<ProjectDTO> addMember(@PathVariable Long id, @RequestBody Map<String, Long> body) {
         return ResponseEntity.ok(projectService.addMember(id, body.get("userId")));
     }
 
     @DeleteMapping("/{id}/members/{userId}")
     @PreAuthorize("hasAuthority('USER')")
+    @SqlBudget(4)
     public ResponseEntity<ProjectDTO> removeMember(@PathVariable Long id, @PathVariable Long userId) {
         return ResponseEntity.ok(projectService.removeMember(id, userId));
     }
+
+    @PostMapping("/{id}/members/batch")
+    @PreAuthorize("hasAuthority('USER')")
+    @SqlBudget(4)
+    public ResponseEntity<ProjectDTO> addMembers(@PathVariable Long id, @Valid @RequestBody UserIdsDTO body) {
+        return ResponseEntity.ok(projectService.addMembers(id, body.userIds()));
+    }
+
+    @DeleteMapping("/{id}/members")
+    @PreAuthorize("hasAuthority('USER')")
+    @SqlBudget(4)
+    public ResponseEntity<ProjectDTO> removeMembers(@PathVariable Long id, @RequestParam List<Long> userIds) {
+        return ResponseEntity.ok(projectService.removeMembers(id, userIds));
+    }
 }
\ No newline at end of file
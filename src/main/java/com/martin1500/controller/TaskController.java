@@ -1,95 +1,287 @@
 package com.martin1500.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.martin1500.dto.TaskBatchCreateDTO;
+import com.martin1500.dto.TaskBulkUpdateDTO;
+import com.martin1500.dto.TaskBulkUpdateResultDTO;
 import com.martin1500.dto.TaskCreateDTO;
 import com.martin1500.dto.TaskDTO;
+import com.martin1500.dto.TaskPage;
+import com.martin1500.dto.TaskStatsDTO;
+import com.martin1500.dto.UserIdsDTO;
+import com.martin1500.etag.TaskListETag;
 import com.martin1500.model.util.Priority;
 import com.martin1500.model.util.Status;
+import com.martin1500.observability.SqlBudget;
+import com.martin1500.repository.TaskFilter;
+import com.martin1500.service.TaskExportFormat;
+import com.martin1500.service.TaskExportService;
 import com.martin1500.service.TaskService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/tasks")
 @RequiredArgsConstructor
 public class TaskController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
     private final TaskService taskService;
+    private final TaskExportService taskExportService;
 
+    // One of the three statements is the sequence call that reserves the next 50 task ids.
     @PostMapping
     @PreAuthorize("hasAuthority('USER')")
+    @SqlBudget(3)
     public ResponseEntity<TaskDTO> createTask(@Valid @RequestBody TaskCreateDTO taskCreateDTO) {
         return ResponseEntity.ok(taskService.createTask(taskCreateDTO));
     }
 
+    // The project lookup, then per 50 tasks one sequence call and one batched insert.
+    @PostMapping("/batch")
+    @PreAuthorize("hasAuthority('USER')")
+    @SqlBudget(1 + 2 * TaskBatchCreateDTO.MAX_TASKS / 50)
+    public ResponseEntity<List<TaskDTO>> createTasks(@Valid @RequestBody TaskBatchCreateDTO batch) {
+        return ResponseEntity.ok(taskService.createTasks(batch.tasks()));
+    }
+
+    @PatchMapping("/bulk")
+    @PreAuthorize("hasAuthority('USER')")
+    @SqlBudget(3)
+    public ResponseEntity<TaskBulkUpdateResultDTO> bulkUpdate(@Valid @RequestBody TaskBulkUpdateDTO bulkUpdate) {
+        return ResponseEntity.ok(taskService.bulkUpdate(bulkUpdate));
+    }
+
     @GetMapping
     @PreAuthorize("hasAuthority('USER')")
-    public ResponseEntity<List<TaskDTO>> getTasks() {
-        List<TaskDTO> tasks = taskService.getTasksForCurrentUser();
-        return ResponseEntity.ok(tasks);
+    @TaskListETag
+    @SqlBudget(1)
+    public ResponseEntity<List<TaskDTO>> getTasks(@RequestParam(required = false) String cursor,
+                                                  @RequestParam(required = false) Integer size,
+                                                  @RequestParam(defaultValue = "false") boolean unpaged) {
+        if (unpaged) {
+            return ResponseEntity.ok(taskService.getTasksForCurrentUser());
+        }
+        return page(taskService.getTasksForCurrentUser(cursor, size));
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasAuthority('USER')")
+    public ResponseEntity<StreamingResponseBody> exportTasks(@RequestParam(defaultValue = "ndjson") TaskExportFormat format,
+                                                             @RequestParam(required = false) Long projectId) {
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename("tasks." + format.getFileExtension())
+                .build();
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(taskExportService.export(format, projectId));
     }
 
     @GetMapping("/{id}")
     @PreAuthorize("hasAuthority('USER')")
+    @SqlBudget(1)
     public ResponseEntity<TaskDTO> getTaskById(@PathVariable Long id) {
         TaskDTO taskDTO = taskService.getTaskById(id);
-        return ResponseEntity.ok(taskDTO);
+        // A matching If-None-Match turns this into a 304 without a body.
+        return versioned(taskDTO);
     }
 
     @PutMapping("/{id}")
     @PreAuthorize("hasAuthority('USER')")
-    public ResponseEntity<TaskDTO> updateTask(@PathVariable Long id, @RequestBody TaskDTO taskDTO) {
-        TaskDTO updatedTaskDTO = taskService.updateTask(id, taskDTO);
-        return ResponseEntity.ok(updatedTaskDTO);
+    @SqlBudget(2)
+    public ResponseEntity<TaskDTO> updateTask(@PathVariable Long id, @RequestBody TaskDTO taskDTO,
+                                              @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        TaskDTO updatedTaskDTO = taskService.updateTask(id, taskDTO, ETags.requiredVersion(ifMatch));
+        return versioned(updatedTaskDTO);
+    }
+
+    @PatchMapping(value = "/{id}", consumes = {MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    @PreAuthorize("hasAuthority('USER')")
+    @SqlBudget(3)
+    public ResponseEntity<TaskDTO> patchTask(@PathVariable Long id, @RequestBody JsonNode patch,
+                                             @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return versioned(taskService.patchTask(id, patch, ETags.requiredVersion(ifMatch)));
     }
 
     @PutMapping("/{id}/status/{status}")
     @PreAuthorize("hasAuthority('USER')")
-    public ResponseEntity<TaskDTO> updateTaskStatus(@PathVariable Long id, @PathVariable Status status) {
-        TaskDTO updatedTaskDTO = taskService.updateTaskStatus(id, status);
-        return ResponseEntity.ok(updatedTaskDTO);
+    @SqlBudget(2)
+    public ResponseEntity<TaskDTO> updateTaskStatus(@PathVariable Long id, @PathVariable Status status,
+                                                    @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        TaskDTO updatedTaskDTO = taskService.updateTaskStatus(id, status, ETags.requiredVersion(ifMatch));
+        return versioned(updatedTaskDTO);
     }
 
     @GetMapping("/status/{status}")
     @PreAuthorize("hasAuthority('USER')")
-    public ResponseEntity<List<TaskDTO>> getTasksByStatus(@PathVariable Status status) {
-        List<TaskDTO> tasks = taskService.getTasksByStatus(status);
-        return ResponseEntity.ok(tasks);
+    @TaskListETag
+    @SqlBudget(1)
+    public ResponseEntity<List<TaskDTO>> getTasksByStatus(@PathVariable Status status,
+                                                          @RequestParam(required = false) String cursor,
+                                                          @RequestParam(required = false) Integer size,
+                                                          @RequestParam(defaultValue = "false") boolean unpaged) {
+        if (unpaged) {
+            return ResponseEntity.ok(taskService.getTasksByStatus(status));
+        }
+        return page(taskService.getTasksByStatus(status, cursor, size));
     }
 
     @GetMapping("/priority/{priority}")
     @PreAuthorize("hasAuthority('USER')")
-    public ResponseEntity<List<TaskDTO>> getTasksByPriority(@PathVariable Priority priority) {
-        List<TaskDTO> tasks = taskService.getTasksByPriority(priority);
-        return ResponseEntity.ok(tasks);
+    @TaskListETag
+    @SqlBudget(1)
+    public ResponseEntity<List<TaskDTO>> getTasksByPriority(@PathVariable Priority priority,
+                                                            @RequestParam(required = false) String cursor,
+                                                            @RequestParam(required = false) Integer size,
+                                                            @RequestParam(defaultValue = "false") boolean unpaged) {
+        if (unpaged) {
+            return ResponseEntity.ok(taskService.getTasksByPriority(priority));
+        }
+        return page(taskService.getTasksByPriority(priority, cursor, size));
     }
 
     @GetMapping("/overdue")
     @PreAuthorize("hasAuthority('USER')")
-    public ResponseEntity<List<TaskDTO>> getOverdueTasks() {
-        List<TaskDTO> tasks = taskService.getOverdueTasks();
-        return ResponseEntity.ok(tasks);
+    @TaskListETag(daily = true)
+    @SqlBudget(1)
+    public ResponseEntity<List<TaskDTO>> getOverdueTasks(@RequestParam(required = false) String cursor,
+                                                         @RequestParam(required = false) Integer size,
+                                                         @RequestParam(defaultValue = "false") boolean unpaged) {
+        if (unpaged) {
+            return ResponseEntity.ok(taskService.getOverdueTasks());
+        }
+        return page(taskService.getOverdueTasks(cursor, size));
     }
 
     @GetMapping("/project/{projectId}")
     @PreAuthorize("hasAuthority('USER')")
-    public ResponseEntity<List<TaskDTO>> getTasksByProject(@PathVariable Long projectId) {
-        return ResponseEntity.ok(taskService.getTasksByProject(projectId));
+    @TaskListETag
+    @SqlBudget(1)
+    public ResponseEntity<List<TaskDTO>> getTasksByProject(@PathVariable Long projectId,
+                                                           @RequestParam(required = false) String cursor,
+                                                           @RequestParam(required = false) Integer size,
+                                                           @RequestParam(defaultValue = "false") boolean unpaged) {
+        if (unpaged) {
+            return ResponseEntity.ok(taskService.getTasksByProject(projectId));
+        }
+        return page(taskService.getTasksByProject(projectId, cursor, size));
+    }
+
+    /**
+     * Any combination of filters in one query, e.g.
+     * {@code ?status=PENDING&status=IN_PROGRESS&priority=HIGH&projectId=7&dueTo=2030-05-17&sort=priority,desc}.
+     */
+    @GetMapping("/search")
+    @PreAuthorize("hasAuthority('USER')")
+    @TaskListETag
+    @SqlBudget(1)
+    public ResponseEntity<List<TaskDTO>> searchTasks(@RequestParam(required = false) Set<Status> status,
+                                                     @RequestParam(required = false) Priority priority,
+                                                     @RequestParam(required = false) Long projectId,
+                                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueFrom,
+                                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueTo,
+                                                     @RequestParam(required = false) Long assigneeId,
+                                                     @RequestParam(required = false) String title,
+                                                     Sort sort,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(required = false) Integer size) {
+        TaskFilter filter = new TaskFilter(status, priority, dueFrom, dueTo, projectId, assigneeId, title);
+        return page(taskService.searchTasks(filter, sort, cursor, size));
+    }
+
+    @GetMapping("/search/text")
+    @PreAuthorize("hasAuthority('USER')")
+    @TaskListETag
+    @SqlBudget(1)
+    public ResponseEntity<List<TaskDTO>> searchTasksByText(@RequestParam String q,
+                                                           @RequestParam(required = false) Long projectId,
+                                                           @RequestParam(required = false) String cursor,
+                                                           @RequestParam(required = false) Integer size) {
+        return page(taskService.searchText(q, projectId, cursor, size));
+    }
+
+    @GetMapping("/stats")
+    @PreAuthorize("hasAuthority('USER')")
+    @TaskListETag(daily = true)
+    @SqlBudget(1)
+    public ResponseEntity<TaskStatsDTO> getTaskStats() {
+        return ResponseEntity.ok(taskService.getTaskStats(null));
+    }
+
+    @GetMapping("/stats/project/{projectId}")
+    @PreAuthorize("hasAuthority('USER')")
+    @TaskListETag(daily = true)
+    @SqlBudget(1)
+    public ResponseEntity<TaskStatsDTO> getTaskStatsByProject(@PathVariable Long projectId) {
+        return ResponseEntity.ok(taskService.getTaskStats(projectId));
     }
 
     @PostMapping("/{id}/assignees/{userId}")
     @PreAuthorize("hasAuthority('USER')")
+    @SqlBudget(4)
     public ResponseEntity<TaskDTO> addAssignee(@PathVariable Long id, @PathVariable Long userId ) {
         return ResponseEntity.ok(taskService.addAssignee(id, userId));
     }
 
     @DeleteMapping("/{id}/assignees/{userId}")
     @PreAuthorize("hasAuthority('USER')")
+    @SqlBudget(3)
     public ResponseEntity<TaskDTO> removeAssignee(@PathVariable Long id, @PathVariable Long userId) {
         return ResponseEntity.ok(taskService.removeAssignee(id, userId));
     }
+
+    @PostMapping("/{id}/assignees/batch")
+    @PreAuthorize("hasAuthority('USER')")
+    @SqlBudget(4)
+    public ResponseEntity<TaskDTO> addAssignees(@PathVariable Long id, @Valid @RequestBody UserIdsDTO body) {
+        return ResponseEntity.ok(taskService.addAssignees(id, body.userIds()));
+    }
+
+    @DeleteMapping("/{id}/assignees")
+    @PreAuthorize("hasAuthority('USER')")
+    @SqlBudget(3)
+    public ResponseEntity<TaskDTO> removeAssignees(@PathVariable Long id, @RequestParam List<Long> userIds) {
+        return ResponseEntity.ok(taskService.removeAssignees(id, userIds));
+    }
+
+    private static ResponseEntity<TaskDTO> versioned(TaskDTO task) {
+        return ResponseEntity.ok()
+                .eTag(ETags.of(task.getVersion()))
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(task);
+    }
+
+    /**
+     * Writes the page body and, when there is a next page, its cursor as {@code X-Next-Cursor}
+     * and a {@code Link: <...>; rel="next"} header pointing at the same request with that cursor.
+     */
+    private ResponseEntity<List<TaskDTO>> page(TaskPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", page.nextCursor())
+                    .toUriString();
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor())
+                    .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(page.tasks());
+    }
 }
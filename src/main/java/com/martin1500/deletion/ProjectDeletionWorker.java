@@ -0,0 +1,271 @@
+package com.martin1500.deletion;
+
+import com.martin1500.event.TaskChangePublisher;
+import com.martin1500.event.TaskChangedEvent;
+import com.martin1500.event.TaskSnapshot;
+import com.martin1500.model.Project;
+import com.martin1500.model.ProjectDeletion;
+import com.martin1500.model.util.DeletionStatus;
+import com.martin1500.model.util.TaskDisposition;
+import com.martin1500.repository.ProjectDeletionRepository;
+import com.martin1500.repository.ProjectRepository;
+import com.martin1500.repository.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Carries out {@link ProjectDeletion}s on a single background thread, oldest first. The project's
+ * tasks, then its memberships, are removed in chunks of {@code projects.deletion.chunkSize} rows,
+ * each in its own transaction and followed by a pause of {@code projects.deletion.chunkPause}
+ * milliseconds, so no transaction holds many locks or writes much undo, and online requests get
+ * the database in between. Each chunk starts from what is left, so a deletion interrupted by a
+ * shutdown just carries on at the next start, and two instances working on the same deletion only
+ * wait for each other's row locks. A deletion that hits a database outage, a lock timeout or a
+ * deadlock stays RUNNING and is picked up again by the next poll; only other errors fail it.
+ */
+@Component
+public class ProjectDeletionWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(ProjectDeletionWorker.class);
+    private static final Set<DeletionStatus> UNFINISHED = EnumSet.of(DeletionStatus.PENDING, DeletionStatus.RUNNING);
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final ProjectDeletionRepository deletionRepository;
+    private final ProjectRepository projectRepository;
+    private final TaskRepository taskRepository;
+    private final TaskChangePublisher taskChangePublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final long chunkPause;
+    private final Counter tasksProcessed;
+    private final Counter membersRemoved;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "project-deletion");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean queued = new AtomicBoolean();
+
+    public ProjectDeletionWorker(ProjectDeletionRepository deletionRepository,
+                                 ProjectRepository projectRepository,
+                                 TaskRepository taskRepository,
+                                 TaskChangePublisher taskChangePublisher,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${projects.deletion.chunkSize:500}") int chunkSize,
+                                 @Value("${projects.deletion.chunkPause:100}") long chunkPause) {
+        this.deletionRepository = deletionRepository;
+        this.projectRepository = projectRepository;
+        this.taskRepository = taskRepository;
+        this.taskChangePublisher = taskChangePublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.chunkPause = chunkPause;
+        this.tasksProcessed = Counter.builder("projects.deletion.tasks")
+                .description("Tasks deleted or detached by project deletions")
+                .register(meterRegistry);
+        this.membersRemoved = Counter.builder("projects.deletion.members")
+                .description("Memberships removed by project deletions")
+                .register(meterRegistry);
+    }
+
+    /** Picks up deletions left unfinished by the last shutdown. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resume() {
+        wake();
+    }
+
+    /** Picks up deletions requested on other instances, and retries after a database outage. */
+    @Scheduled(initialDelayString = "${projects.deletion.pollInterval:60000}",
+            fixedDelayString = "${projects.deletion.pollInterval:60000}")
+    public void poll() {
+        wake();
+    }
+
+    /** Starts working once the current transaction commits, so the new deletion is visible. */
+    public void wakeAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            wake();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                wake();
+            }
+        });
+    }
+
+    private void wake() {
+        if (queued.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void drain() {
+        // Cleared first: a wake-up from here on queues another pass, which sees any new deletion.
+        queued.set(false);
+        try {
+            Optional<ProjectDeletion> next;
+            while (!Thread.currentThread().isInterrupted()
+                    && (next = deletionRepository.findFirstByStatusInOrderByIdAsc(UNFINISHED)).isPresent()) {
+                run(next.get());
+            }
+        } catch (RuntimeException e) {
+            // Most likely the database is unreachable; the next poll tries again.
+            log.error("Project deletions stopped", e);
+        }
+    }
+
+    private void run(ProjectDeletion deletion) {
+        Long projectId = deletion.getProjectId();
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> deletionRepository.findById(deletion.getId())
+                    .ifPresent(current -> current.setStatus(DeletionStatus.RUNNING)));
+            do {
+                while (processTasks(deletion)) {
+                    pause();
+                }
+                while (removeMembers(deletion)) {
+                    pause();
+                }
+            } while (!Boolean.TRUE.equals(transactionTemplate.execute(status -> deleteProject(deletion))));
+            log.info("Deleted project {} in {} ms", projectId, (System.nanoTime() - start) / 1_000_000);
+        } catch (InterruptedException e) {
+            // Shutting down; the deletion stays RUNNING and is resumed at the next start.
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            if (isTransient(e)) {
+                // The deletion stays RUNNING; drain stops here and the next poll carries on from
+                // what is left, instead of retrying against the same outage or lock straight away.
+                log.warn("Deleting project {} interrupted, will retry", projectId, e);
+                throw e;
+            }
+            log.error("Deleting project {} failed", projectId, e);
+            String error = String.valueOf(e.getMessage());
+            finish(deletion.getId(), DeletionStatus.FAILED,
+                    error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        }
+    }
+
+    /** Deletes or detaches one chunk of the project's tasks. Returns whether there may be more. */
+    private boolean processTasks(ProjectDeletion deletion) {
+        List<TaskSnapshot> tasks = transactionTemplate.execute(status -> {
+            List<TaskSnapshot> chunk = taskRepository.lockSnapshotsInProject(deletion.getProjectId(), chunkSize);
+            List<Long> ids = chunk.stream().map(TaskSnapshot::id).toList();
+            if (deletion.getTasks() == TaskDisposition.DELETE) {
+                taskRepository.deleteTasks(ids);
+                chunk.forEach(task -> taskChangePublisher.publishAfterCommit(TaskChangedEvent.deleted(task)));
+            } else {
+                taskRepository.detachTasks(ids);
+                chunk.forEach(task -> taskChangePublisher.publishAfterCommit(new TaskChangedEvent(task, detached(task))));
+            }
+            if (!chunk.isEmpty()) {
+                deletionRepository.addProgress(deletion.getId(), chunk.size(), 0);
+            }
+            return chunk;
+        });
+        tasksProcessed.increment(tasks.size());
+        return tasks.size() == chunkSize;
+    }
+
+    /** Removes one chunk of the project's memberships. Returns whether there may be more. */
+    private boolean removeMembers(ProjectDeletion deletion) {
+        int removed = transactionTemplate.execute(status -> {
+            int chunk = projectRepository.removeFirstMembers(deletion.getProjectId(), chunkSize);
+            if (chunk > 0) {
+                deletionRepository.addProgress(deletion.getId(), 0, chunk);
+            }
+            return chunk;
+        });
+        membersRemoved.increment(removed);
+        return removed == chunkSize;
+    }
+
+    /**
+     * Deletes the project row and completes the deletion. The row lock keeps new tasks out of the
+     * project from here on; returns false, leaving the project, if some arrived since the last chunk.
+     */
+    private boolean deleteProject(ProjectDeletion deletion) {
+        Optional<Project> project = projectRepository.findForUpdate(deletion.getProjectId());
+        if (project.isPresent()) {
+            if (taskRepository.existsByProjectId(deletion.getProjectId())) {
+                return false;
+            }
+            // Removing the entity deletes members added since the last chunk, and evicts the
+            // project and its members from the second-level cache.
+            projectRepository.delete(project.get());
+        }
+        deletionRepository.findById(deletion.getId()).ifPresent(current -> {
+            current.setStatus(DeletionStatus.COMPLETED);
+            current.setFinishedAt(LocalDateTime.now());
+        });
+        return true;
+    }
+
+    private void finish(Long deletionId, DeletionStatus status, String error) {
+        try {
+            transactionTemplate.executeWithoutResult(tx -> deletionRepository.findById(deletionId).ifPresent(current -> {
+                current.setStatus(status);
+                current.setError(error);
+                current.setFinishedAt(LocalDateTime.now());
+            }));
+        } catch (RuntimeException e) {
+            log.error("Could not record the outcome of project deletion {}", deletionId, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Errors that may not happen again on a retry: lost connections, lock and query timeouts,
+     * deadlocks and serialization failures. Anything else fails the deletion for good.
+     */
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    private void pause() throws InterruptedException {
+        if (chunkPause > 0) {
+            Thread.sleep(chunkPause);
+        }
+    }
+
+    private static TaskSnapshot detached(TaskSnapshot task) {
+        return new TaskSnapshot(task.id(), task.createdById(), null, task.title(), task.description(),
+                task.comments(), task.status(), task.priority(), task.dueDate());
+    }
+}
@@ -0,0 +1,7 @@
+package com.martin1500.dto;
+
+/**
+ * A project member as listed with the project: the user's id and username only.
+ */
+public record MemberDTO(Long id, String username) {
+}
@@ -0,0 +1,9 @@
+package com.martin1500.dto;
+
+import java.util.List;
+
+/**
+ * One page of a project's members, by user id. {@code nextCursor} is null on the last page.
+ */
+public record MemberPage(List<MemberDTO> members, String nextCursor) {
+}
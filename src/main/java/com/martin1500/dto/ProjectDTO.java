@@ -1,12 +1,11 @@
 package com.martin1500.dto;
 
-import com.martin1500.model.User;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.util.Set;
+import java.util.List;
 
 @Data
 @Builder
@@ -15,5 +14,8 @@ import java.util.Set;
 public class ProjectDTO {
     private Long id;
     private String name;
-    private Set<User> members;
+    /** All members are listed, a page at a time, by {@code GET /api/projects/{id}/members}. */
+    private Long memberCount;
+    /** The first few members by user id. */
+    private List<MemberDTO> memberPreview;
 }
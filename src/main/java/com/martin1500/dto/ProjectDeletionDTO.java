@@ -0,0 +1,22 @@
+package com.martin1500.dto;
+
+import com.martin1500.model.ProjectDeletion;
+import com.martin1500.model.util.DeletionStatus;
+import com.martin1500.model.util.TaskDisposition;
+
+import java.time.LocalDateTime;
+
+/**
+ * The state of a project deletion. {@code tasksProcessed} counts the tasks deleted or detached so
+ * far; {@code error} is only set when the deletion failed.
+ */
+public record ProjectDeletionDTO(Long id, Long projectId, TaskDisposition tasks, DeletionStatus status,
+                                 long tasksProcessed, long membersRemoved, String error,
+                                 LocalDateTime requestedAt, LocalDateTime finishedAt) {
+
+    public static ProjectDeletionDTO of(ProjectDeletion deletion) {
+        return new ProjectDeletionDTO(deletion.getId(), deletion.getProjectId(), deletion.getTasks(),
+                deletion.getStatus(), deletion.getTasksProcessed(), deletion.getMembersRemoved(),
+                deletion.getError(), deletion.getRequestedAt(), deletion.getFinishedAt());
+    }
+}
@@ -0,0 +1,18 @@
+package com.martin1500.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Tasks to create together; either all of them are created or none is.
+ */
+public record TaskBatchCreateDTO(
+        @NotEmpty(message = "Tasks cannot be empty")
+        @Size(max = TaskBatchCreateDTO.MAX_TASKS, message = "At most " + TaskBatchCreateDTO.MAX_TASKS + " tasks per batch")
+        List<@Valid TaskCreateDTO> tasks) {
+
+    public static final int MAX_TASKS = 500;
+}
@@ -0,0 +1,37 @@
+package com.martin1500.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.martin1500.repository.TaskChanges;
+import com.martin1500.repository.TaskFilter;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Changes to apply to the caller's tasks, selected either by id or by a filter.
+ */
+public record TaskBulkUpdateDTO(
+        @Size(max = TaskBulkUpdateDTO.MAX_TASKS, message = "At most " + TaskBulkUpdateDTO.MAX_TASKS + " tasks per update")
+        List<Long> ids,
+
+        TaskFilter filter,
+
+        @NotNull(message = "Changes cannot be null")
+        TaskChanges changes) {
+
+    public static final int MAX_TASKS = 1000;
+
+    @JsonIgnore
+    @AssertTrue(message = "Select tasks either by ids or by filter")
+    public boolean isSingleSelection() {
+        return (ids == null) != (filter == null);
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "Changes must set at least one field")
+    public boolean isAnyChange() {
+        return changes == null || !changes.isEmpty();
+    }
+}
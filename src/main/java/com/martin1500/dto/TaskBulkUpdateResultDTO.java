@@ -0,0 +1,21 @@
+package com.martin1500.dto;
+
+import java.util.List;
+
+/**
+ * What a bulk update did to each selected task, in the order the tasks were given (or by id for
+ * a filter).
+ */
+public record TaskBulkUpdateResultDTO(int updated, List<Outcome> results) {
+
+    public enum Result {
+        UPDATED,
+        /** The task already had the requested values; it was not written. */
+        UNCHANGED,
+        /** No such task among the caller's tasks. */
+        NOT_FOUND
+    }
+
+    public record Outcome(Long id, Result result) {
+    }
+}
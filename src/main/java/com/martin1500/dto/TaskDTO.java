@@ -47,4 +47,7 @@ public class TaskDTO {
 
     @Size(max = 255, message = "Comments cannot exceed 255 characters")
     private String comments;
+
+    /** Read-only; send it back as an {@code If-Match} ETag to update this version only. */
+    private Long version;
 }
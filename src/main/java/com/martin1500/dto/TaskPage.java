@@ -0,0 +1,9 @@
+package com.martin1500.dto;
+
+import java.util.List;
+
+/**
+ * One page of tasks. {@code nextCursor} is null on the last page.
+ */
+public record TaskPage(List<TaskDTO> tasks, String nextCursor) {
+}
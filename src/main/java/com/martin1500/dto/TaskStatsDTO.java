@@ -0,0 +1,14 @@
+package com.martin1500.dto;
+
+import com.martin1500.model.util.Priority;
+import com.martin1500.model.util.Status;
+
+import java.util.Map;
+
+/**
+ * Task counts for a dashboard: by status and priority, the totals of each, and how many open
+ * tasks are past their due date.
+ */
+public record TaskStatsDTO(Map<Status, Map<Priority, Long>> counts, Map<Status, Long> byStatus,
+                           Map<Priority, Long> byPriority, long total, long overdue) {
+}
@@ -0,0 +1,18 @@
+package com.martin1500.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Users to add to a project's members or a task's assignees in one request.
+ */
+public record UserIdsDTO(
+        @NotEmpty(message = "User ids cannot be empty")
+        @Size(max = UserIdsDTO.MAX_USERS, message = "At most " + UserIdsDTO.MAX_USERS + " users per request")
+        List<@NotNull Long> userIds) {
+
+    public static final int MAX_USERS = 1000;
+}
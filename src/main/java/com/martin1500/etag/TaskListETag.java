@@ -0,0 +1,19 @@
+package com.martin1500.etag;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a handler whose response depends only on the current user's tasks. It gets a weak ETag
+ * from {@link TaskListVersions}, and {@link TaskListETagInterceptor} answers a matching
+ * {@code If-None-Match} with 304 before the handler runs.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface TaskListETag {
+
+    /** Whether the response also changes with the date, e.g. because it counts overdue tasks. */
+    boolean daily() default false;
+}
@@ -0,0 +1,46 @@
+package com.martin1500.etag;
+
+import com.martin1500.service.UserContextService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Revalidates {@link TaskListETag} handlers from the change count alone: a client whose copy is
+ * current gets a 304 after one primary-key read, without the handler running.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskListETagInterceptor implements HandlerInterceptor {
+
+    /** Clients may keep responses but must revalidate them; replaces Spring Security's no-store. */
+    static final String CACHE_CONTROL = CacheControl.noCache().cachePrivate().getHeaderValue();
+
+    private final TaskListVersions taskListVersions;
+    private final UserContextService userContextService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod method) || !method.hasMethodAnnotation(TaskListETag.class)) {
+            return true;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return true;
+        }
+        boolean daily = method.getMethodAnnotation(TaskListETag.class).daily();
+        // Read before the handler queries, so a change committed in between yields a newer tag next time.
+        String etag = taskListVersions.etag(userContextService.getAuthenticatedUserId(), daily);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        // Sets the ETag header, and answers 304 when If-None-Match holds it.
+        return !new ServletWebRequest(request, response).checkNotModified(etag);
+    }
+}
@@ -0,0 +1,86 @@
+package com.martin1500.etag;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Counts changes to each user's tasks in {@code users.task_list_version}. A user's task lists can
+ * only have changed if the count has, so the count serves as their ETag. The count is bumped in
+ * the transaction that makes the change, so every instance sees it move as the change commits.
+ */
+@Component
+public class TaskListVersions {
+
+    private static final Object CHANGED_USERS = TaskListVersions.class.getName() + ".changedUsers";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public TaskListVersions(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Records a change to the user's tasks. Inside a transaction the count is bumped just before it
+     * commits, once per user and in user id order, so concurrent writers lock the rows in the same
+     * order; outside one it is bumped right away.
+     */
+    @SuppressWarnings("unchecked")
+    public void changed(Long createdById) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            bump(List.of(createdById));
+            return;
+        }
+        Set<Long> users = (Set<Long>) TransactionSynchronizationManager.getResource(CHANGED_USERS);
+        if (users == null) {
+            Set<Long> changed = new TreeSet<>();
+            TransactionSynchronizationManager.bindResource(CHANGED_USERS, changed);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    if (!readOnly) {
+                        // Changes still pending would only report their users during the commit's own flush.
+                        entityManager.flush();
+                    }
+                    bump(changed);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CHANGED_USERS);
+                }
+            });
+            users = changed;
+        }
+        users.add(createdById);
+    }
+
+    public long version(Long createdById) {
+        List<Long> version = jdbcTemplate.queryForList("select task_list_version from users where id = ?",
+                Long.class, createdById);
+        return version.isEmpty() ? 0 : version.get(0);
+    }
+
+    /** A weak ETag for the user's task lists, changing with today's date as well when {@code daily}. */
+    public String etag(Long createdById, boolean daily) {
+        String tag = Long.toString(version(createdById));
+        return "W/\"" + (daily ? tag + "." + LocalDate.now() : tag) + "\"";
+    }
+
+    private void bump(Collection<Long> createdByIds) {
+        jdbcTemplate.batchUpdate("update users set task_list_version = task_list_version + 1 where id = ?",
+                createdByIds, createdByIds.size(), (statement, id) -> statement.setLong(1, id));
+    }
+}
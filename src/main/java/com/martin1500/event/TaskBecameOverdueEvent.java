@@ -0,0 +1,9 @@
+package com.martin1500.event;
+
+import java.time.LocalDate;
+
+/**
+ * A task that is not completed has passed its due date, or was changed so that it is now past it.
+ */
+public record TaskBecameOverdueEvent(Long taskId, Long createdById, Long projectId, LocalDate dueDate) {
+}
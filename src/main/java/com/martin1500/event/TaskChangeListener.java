@@ -0,0 +1,98 @@
+package com.martin1500.event;
+
+import com.martin1500.model.Task;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Publishes a {@link TaskChangedEvent} for every task insert, update and delete once the
+ * transaction commits; rolled back changes are never published. The state a task was loaded with
+ * is remembered for the transaction so updates carry both sides. Read-only transactions, such as
+ * exports, are not tracked.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskChangeListener {
+
+    private static final Object LOADED_STATE = TaskChangeListener.class.getName() + ".loadedState";
+
+    private final ObjectProvider<TaskChangePublisher> changePublisher;
+
+    @PostLoad
+    public void onTaskLoaded(Task task) {
+        Map<Task, TaskSnapshot> loaded = loadedState();
+        if (loaded != null) {
+            loaded.put(task, TaskSnapshot.of(task));
+        }
+    }
+
+    @PostPersist
+    public void onTaskCreated(Task task) {
+        TaskSnapshot after = TaskSnapshot.of(task);
+        remember(task, after);
+        publish(TaskChangedEvent.created(after));
+    }
+
+    @PostUpdate
+    public void onTaskUpdated(Task task) {
+        Map<Task, TaskSnapshot> loaded = loadedState();
+        TaskSnapshot before = loaded == null ? null : loaded.get(task);
+        TaskSnapshot after = TaskSnapshot.of(task);
+        remember(task, after);
+        publish(new TaskChangedEvent(before, after));
+    }
+
+    @PostRemove
+    public void onTaskDeleted(Task task) {
+        Map<Task, TaskSnapshot> loaded = loadedState();
+        if (loaded != null) {
+            loaded.remove(task);
+        }
+        publish(TaskChangedEvent.deleted(TaskSnapshot.of(task)));
+    }
+
+    private void remember(Task task, TaskSnapshot state) {
+        Map<Task, TaskSnapshot> loaded = loadedState();
+        if (loaded != null) {
+            loaded.put(task, state);
+        }
+    }
+
+    private void publish(TaskChangedEvent event) {
+        changePublisher.getObject().publishAfterCommit(event);
+    }
+
+    /**
+     * The snapshots of the tasks loaded in the current read-write transaction, or null outside one.
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<Task, TaskSnapshot> loadedState() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return null;
+        }
+        Map<Task, TaskSnapshot> loaded = (Map<Task, TaskSnapshot>) TransactionSynchronizationManager.getResource(LOADED_STATE);
+        if (loaded == null) {
+            Map<Task, TaskSnapshot> state = new IdentityHashMap<>();
+            TransactionSynchronizationManager.bindResource(LOADED_STATE, state);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(LOADED_STATE);
+                }
+            });
+            loaded = state;
+        }
+        return loaded;
+    }
+}
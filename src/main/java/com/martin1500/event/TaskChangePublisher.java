@@ -0,0 +1,36 @@
+package com.martin1500.event;
+
+import com.martin1500.etag.TaskListVersions;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Publishes task changes once the current transaction commits, or right away outside one. Changes
+ * made with bulk statements bypass {@link TaskChangeListener} and are published here directly.
+ * The owner's {@link TaskListVersions} count is bumped in the transaction itself.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskChangePublisher {
+
+    private final ObjectProvider<ApplicationEventPublisher> eventPublisher;
+    private final ObjectProvider<TaskListVersions> taskListVersions;
+
+    public void publishAfterCommit(TaskChangedEvent event) {
+        taskListVersions.getObject().changed(event.current().createdById());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eventPublisher.getObject().publishEvent(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eventPublisher.getObject().publishEvent(event);
+            }
+        });
+    }
+}
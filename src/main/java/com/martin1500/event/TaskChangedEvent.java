@@ -0,0 +1,29 @@
+package com.martin1500.event;
+
+/**
+ * A committed change to one task. {@code before} is null for a creation and {@code after} is
+ * null for a deletion.
+ */
+public record TaskChangedEvent(TaskSnapshot before, TaskSnapshot after) {
+
+    public static TaskChangedEvent created(TaskSnapshot task) {
+        return new TaskChangedEvent(null, task);
+    }
+
+    public static TaskChangedEvent deleted(TaskSnapshot task) {
+        return new TaskChangedEvent(task, null);
+    }
+
+    public boolean isCreation() {
+        return before == null;
+    }
+
+    public boolean isDeletion() {
+        return after == null;
+    }
+
+    /** The task as it is now, or as it was when deleted. */
+    public TaskSnapshot current() {
+        return after != null ? after : before;
+    }
+}
@@ -0,0 +1,22 @@
+package com.martin1500.event;
+
+import com.martin1500.model.Task;
+import com.martin1500.model.util.Priority;
+import com.martin1500.model.util.Status;
+
+import java.time.LocalDate;
+
+/**
+ * The columns of a task that in-memory views of the task table are built from.
+ */
+public record TaskSnapshot(Long id, Long createdById, Long projectId, String title, String description,
+                           String comments, Status status, Priority priority, LocalDate dueDate) {
+
+    public static TaskSnapshot of(Task task) {
+        return new TaskSnapshot(task.getId(),
+                task.getCreatedBy() == null ? null : task.getCreatedBy().getId(),
+                task.getProject() == null ? null : task.getProject().getId(),
+                task.getTitle(), task.getDescription(), task.getComments(),
+                task.getStatus(), task.getPriority(), task.getDueDate());
+    }
+}
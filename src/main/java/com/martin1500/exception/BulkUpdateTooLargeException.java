@@ -0,0 +1,7 @@
+package com.martin1500.exception;
+
+public class BulkUpdateTooLargeException extends RuntimeException {
+    public BulkUpdateTooLargeException(String message) {
+        super(message);
+    }
+}
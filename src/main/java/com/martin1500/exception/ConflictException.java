@@ -0,0 +1,7 @@
+package com.martin1500.exception;
+
+public class ConflictException extends RuntimeException {
+    public ConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.martin1500.exception;
+
+public class InvalidCursorException extends RuntimeException{
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.martin1500.exception;
+
+public class InvalidPatchException extends RuntimeException {
+    public InvalidPatchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.martin1500.exception;
+
+public class InvalidSortException extends RuntimeException{
+    public InvalidSortException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.martin1500.exception;
+
+public class PasswordHashingUnavailableException extends RuntimeException{
+    public PasswordHashingUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.martin1500.exception;
+
+public class SqlBudgetExceededException extends RuntimeException{
+    public SqlBudgetExceededException(String handler, int executed, int budget) {
+        super(handler + " executed " + executed + " SQL statements, budget is " + budget);
+    }
+}
@@ -2,6 +2,9 @@ package com.martin1500.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.OptimisticLock;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -13,16 +16,27 @@ import java.util.Set;
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @ToString(exclude = {"members"})
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Project.CACHE_REGION)
 public class Project {
+    /** Second-level cache regions, sized in {@code SecondLevelCacheConfig}. */
+    public static final String CACHE_REGION = "projects";
+    public static final String MEMBERS_CACHE_REGION = "projectMembers";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @EqualsAndHashCode.Include
     private Long id;
 
+    @Version
+    private Long version;
+
     @Column(nullable = false)
     private String name;
 
     @ManyToMany
+    @OptimisticLock(excluded = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Project.MEMBERS_CACHE_REGION)
     @JoinTable(
             name = "project_members",
             joinColumns = @JoinColumn(name = "project_id"),
@@ -0,0 +1,54 @@
+package com.martin1500.model;
+
+import com.martin1500.model.util.DeletionStatus;
+import com.martin1500.model.util.TaskDisposition;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * A request to delete a project, carried out in the background by
+ * {@code ProjectDeletionWorker}. The progress counters are updated with every chunk.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Entity
+@Table(name = "project_deletion", indexes = {
+        @Index(name = "idx_project_deletion_project", columnList = "projectId, id"),
+        @Index(name = "idx_project_deletion_status", columnList = "status, id")
+})
+public class ProjectDeletion {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    private Long id;
+
+    /** Not a foreign key: the row is kept after the project is gone. */
+    @Column(nullable = false)
+    private Long projectId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TaskDisposition tasks;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private DeletionStatus status;
+
+    private long tasksProcessed;
+
+    private long membersRemoved;
+
+    private String error;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime requestedAt;
+
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,40 @@
+package com.martin1500.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * A refresh token that has been handed out. Tokens issued from one login share a
+ * {@code familyId}; each rotation marks the presented token as used and issues its successor in
+ * the same family, so presenting a used token again reveals a replay.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Entity
+@Table(name = "refresh_token", indexes = {
+        @Index(name = "idx_refresh_token_family", columnList = "familyId"),
+        @Index(name = "idx_refresh_token_expires_at", columnList = "expiresAt")
+})
+public class RefreshToken {
+    @Id
+    @EqualsAndHashCode.Include
+    private String id;
+
+    @Column(nullable = false)
+    private String familyId;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    private Instant usedAt;
+
+    private boolean revoked;
+}
@@ -0,0 +1,33 @@
+package com.martin1500.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * A token id or token family id that must no longer be accepted. Rows are only needed until the
+ * last token they cover has expired.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Entity
+@Table(name = "revoked_token", indexes = {
+        @Index(name = "idx_revoked_token_expires_at", columnList = "expiresAt"),
+        @Index(name = "idx_revoked_token_revoked_at", columnList = "revokedAt")
+})
+public class RevokedToken {
+    @Id
+    @EqualsAndHashCode.Include
+    private String id;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    /** When the revocation was recorded, so other instances can pick it up without a rebuild. */
+    @Column(nullable = false)
+    private Instant revokedAt;
+}
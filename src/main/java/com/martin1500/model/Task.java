@@ -1,10 +1,13 @@
 package com.martin1500.model;
 
+import com.martin1500.event.TaskChangeListener;
 import com.martin1500.model.util.Priority;
 import com.martin1500.model.util.Status;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.OptimisticLock;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDate;
@@ -17,14 +20,22 @@ import java.util.Set;
 @AllArgsConstructor
 @Builder
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
-@ToString(exclude = {"assignees", "project"})
+@ToString(exclude = {"assignees", "project", "createdBy"})
 @Entity
+@DynamicUpdate
+@EntityListeners(TaskChangeListener.class)
 public class Task {
+    /** Ids come from a sequence 50 at a time (see V3__Task_id_sequence) so inserts can be batched. */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+    @SequenceGenerator(name = "task_seq", sequenceName = "task_seq", allocationSize = 50)
     @EqualsAndHashCode.Include
     private Long id;
 
+    /** Checked and incremented by every update, so concurrent updates cannot overwrite each other. */
+    @Version
+    private Long version;
+
     private String title;
 
     private String description;
@@ -40,17 +51,19 @@ public class Task {
     private LocalDate dueDate;
 
     @CreationTimestamp
-    @Column(updatable = false)
+    @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     @UpdateTimestamp
     private LocalDateTime updatedAt;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "created_by_id", nullable = false)
     private User createdBy;
 
+    /** Adding or removing an assignee does not conflict with other changes and leaves the version alone. */
     @ManyToMany(fetch = FetchType.LAZY)
+    @OptimisticLock(excluded = true)
     @JoinTable(
             name = "task_assignees",
             joinColumns = @JoinColumn(name = "task_id"),
@@ -58,7 +71,7 @@ public class Task {
     )
     private Set<User> assignees = new HashSet<>();
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "project_id")
     private Project project;
 
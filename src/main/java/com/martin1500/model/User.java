@@ -2,10 +2,13 @@ package com.martin1500.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.martin1500.model.util.Role;
+import com.martin1500.security.UserCacheEvictionListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -22,8 +25,18 @@ import java.util.Set;
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @ToString(exclude = {"createdTasks", "assignedTasks", "projects"})
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
+@EntityListeners(UserCacheEvictionListener.class)
 @Table(name = "users")
 public class User implements UserDetails {
+    /**
+     * Second-level cache region, sized in {@code SecondLevelCacheConfig}. The collections are
+     * not cached: they are inverse sides, which Hibernate does not invalidate when the owning
+     * side changes.
+     */
+    public static final String CACHE_REGION = "users";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @EqualsAndHashCode.Include
@@ -45,9 +58,11 @@ public class User implements UserDetails {
     private Role role;
 
     @OneToMany(mappedBy = "createdBy", cascade = CascadeType.ALL, orphanRemoval = true)
+    @JsonIgnore
     private Set<Task> createdTasks = new HashSet<>();
 
     @ManyToMany(mappedBy = "assignees")
+    @JsonIgnore
     private Set<Task> assignedTasks = new HashSet<>();
 
     @ManyToMany(mappedBy = "members")
@@ -0,0 +1,9 @@
+package com.martin1500.model.util;
+
+public enum DeletionStatus {
+    PENDING, RUNNING, COMPLETED, FAILED;
+
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED;
+    }
+}
@@ -0,0 +1,11 @@
+package com.martin1500.model.util;
+
+/**
+ * What deleting a project does to its tasks.
+ */
+public enum TaskDisposition {
+    /** The tasks are kept without a project. */
+    DETACH,
+    /** The tasks and their assignments are deleted. */
+    DELETE
+}
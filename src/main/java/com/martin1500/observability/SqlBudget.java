@@ -0,0 +1,16 @@
+package com.martin1500.observability;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maximum number of SQL statements a handler may run. Only enforced when
+ * {@code observability.sqlBudget.enabled=true}, see {@link SqlBudgetEnforcer}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SqlBudget {
+    int value();
+}
@@ -0,0 +1,70 @@
+package com.martin1500.observability;
+
+import com.martin1500.exception.SqlBudgetExceededException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Fails requests whose handler ran more statements than its {@link SqlBudget}. Counting starts once
+ * the handler is resolved, so authentication lookups in the filter chain are not charged, and is
+ * checked before the body is written so the failure still reaches the client as a 500.
+ */
+@ControllerAdvice
+@ConditionalOnProperty(name = "observability.sqlBudget.enabled", havingValue = "true")
+public class SqlBudgetEnforcer implements HandlerInterceptor, ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod method && method.hasMethodAnnotation(SqlBudget.class)) {
+            SqlStatementCounter.start();
+        }
+        return true;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return returnType.hasMethodAnnotation(SqlBudget.class);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        check(returnType.getMethod().getName(), returnType.getMethodAnnotation(SqlBudget.class));
+        return body;
+    }
+
+    /** Handlers without a response body never reach {@link #beforeBodyWrite}. */
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        if (handler instanceof HandlerMethod method && method.hasMethodAnnotation(SqlBudget.class)) {
+            check(method.getMethod().getName(), method.getMethodAnnotation(SqlBudget.class));
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        SqlStatementCounter.stop();
+    }
+
+    private void check(String handler, SqlBudget budget) {
+        int executed = SqlStatementCounter.current();
+        // Stop counting so the statement total is only reported once per request.
+        SqlStatementCounter.stop();
+        if (executed > budget.value()) {
+            throw new SqlBudgetExceededException(handler, executed, budget.value());
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.martin1500.overdue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel with a resolution of one day. Level {@code i} has 64 slots, each
+ * spanning {@code 64^i} days, so four levels reach about 45,000 years ahead. A task waits in the
+ * coarsest level its deadline needs; when the wheel reaches that slot the task moves down a
+ * level, and it expires from level 0 on its exact day. Scheduling and cancelling are O(1) and
+ * advancing one day only touches the tasks that are due or that move down a level.
+ * <p>
+ * Not thread-safe; {@link OverdueTaskIndex} guards it.
+ */
+final class DueDateWheel {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int LEVELS = 4;
+    private static final long HORIZON = 1L << (SLOT_BITS * LEVELS);
+
+    private final Node[][] slots = new Node[LEVELS][SLOTS];
+    private final Map<Long, Node> nodes = new HashMap<>();
+    private long today;
+
+    DueDateWheel(long today) {
+        this.today = today;
+    }
+
+    long today() {
+        return today;
+    }
+
+    int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Schedules the task to expire on the day it becomes overdue, replacing any earlier schedule
+     * for it. Returns false, without scheduling, if that day has already come.
+     */
+    boolean schedule(OverdueTask task) {
+        cancel(task.id());
+        if (task.overdueFrom() <= today) {
+            return false;
+        }
+        Node node = new Node(task);
+        nodes.put(task.id(), node);
+        place(node);
+        return true;
+    }
+
+    boolean cancel(Long taskId) {
+        Node node = nodes.remove(taskId);
+        if (node == null) {
+            return false;
+        }
+        unlink(node);
+        return true;
+    }
+
+    /** Moves the wheel forward day by day up to {@code day}, handing every expired task to {@code expired}. */
+    void advanceTo(long day, Consumer<OverdueTask> expired) {
+        while (today < day) {
+            today++;
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((today & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(level, slotIndex(today, level), expired);
+                }
+            }
+            Node node = takeSlot(0, slotIndex(today, 0));
+            while (node != null) {
+                Node next = node.next;
+                nodes.remove(node.task.id());
+                expired.accept(node.task);
+                node = next;
+            }
+        }
+    }
+
+    private void cascade(int level, int slot, Consumer<OverdueTask> expired) {
+        Node node = takeSlot(level, slot);
+        while (node != null) {
+            Node next = node.next;
+            if (node.deadline <= today) {
+                nodes.remove(node.task.id());
+                expired.accept(node.task);
+            } else {
+                place(node);
+            }
+            node = next;
+        }
+    }
+
+    private void place(Node node) {
+        long delay = Math.min(node.deadline - today, HORIZON - 1);
+        int level = 0;
+        while (delay >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        // Deadlines beyond the horizon are parked in the furthest slot and re-placed when it comes round.
+        int slot = slotIndex(today + delay, level);
+        node.level = level;
+        node.slot = slot;
+        node.prev = null;
+        node.next = slots[level][slot];
+        if (node.next != null) {
+            node.next.prev = node;
+        }
+        slots[level][slot] = node;
+    }
+
+    private void unlink(Node node) {
+        if (node.prev != null) {
+            node.prev.next = node.next;
+        } else {
+            slots[node.level][node.slot] = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        }
+    }
+
+    private Node takeSlot(int level, int slot) {
+        Node head = slots[level][slot];
+        slots[level][slot] = null;
+        return head;
+    }
+
+    private static int slotIndex(long day, int level) {
+        return (int) ((day >>> (SLOT_BITS * level)) & (SLOTS - 1));
+    }
+
+    private static final class Node {
+        private final OverdueTask task;
+        private final long deadline;
+        private int level;
+        private int slot;
+        private Node prev;
+        private Node next;
+
+        private Node(OverdueTask task) {
+            this.task = task;
+            this.deadline = task.overdueFrom();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.martin1500.overdue;
+
+import com.martin1500.event.TaskSnapshot;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+
+/**
+ * A task the overdue index is tracking: either waiting in the wheel for its due date to pass, or
+ * already overdue.
+ */
+public record OverdueTask(Long id, Long createdById, Long projectId, LocalDate dueDate) {
+
+    /** Overdue listings are ordered like the other task listings: by due date, then id. */
+    static final Comparator<OverdueTask> DUE_DATE_ORDER = Comparator.comparing(OverdueTask::dueDate)
+            .thenComparing(OverdueTask::id);
+
+    static OverdueTask of(TaskSnapshot task) {
+        return new OverdueTask(task.id(), task.createdById(), task.projectId(), task.dueDate());
+    }
+
+    /** The first day on which the task counts as overdue. */
+    long overdueFrom() {
+        return dueDate.toEpochDay() + 1;
+    }
+}
@@ -0,0 +1,253 @@
+package com.martin1500.overdue;
+
+import com.martin1500.event.TaskSnapshot;
+import com.martin1500.model.util.Status;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The overdue, not yet completed tasks of every user, kept in due date order. Tasks that are not
+ * due yet wait in a {@link DueDateWheel} and move into the overdue set on the day after their due
+ * date, so keeping the index current never needs a scan of the task table.
+ * <p>
+ * While {@link OverdueTaskIndexer} reloads the index from the database, live changes keep being
+ * applied and rows read by the reload never override them.
+ */
+@Component
+public class OverdueTaskIndex {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final DueDateWheel wheel;
+    private final Map<Long, OverdueTask> overdue = new HashMap<>();
+    private final Map<Long, NavigableSet<OverdueTask>> overdueByUser = new HashMap<>();
+    private final Set<Long> changedDuringRebuild = new HashSet<>();
+
+    private boolean rebuilding;
+    private volatile boolean ready;
+
+    @Autowired
+    public OverdueTaskIndex(MeterRegistry meterRegistry) {
+        this(meterRegistry, LocalDate.now());
+    }
+
+    OverdueTaskIndex(MeterRegistry meterRegistry, LocalDate today) {
+        this.wheel = new DueDateWheel(today.toEpochDay());
+        Gauge.builder("tasks.overdue", this, OverdueTaskIndex::overdueCount)
+                .description("Overdue tasks that are not completed")
+                .register(meterRegistry);
+        Gauge.builder("tasks.overdue.scheduled", this, OverdueTaskIndex::scheduledCount)
+                .description("Open tasks waiting in the due date wheel")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts tracking the task as it is now, replacing what was tracked for it before. Returns the
+     * task if this change made it overdue, e.g. a completed task past its due date was reopened.
+     */
+    Optional<OverdueTask> track(TaskSnapshot task) {
+        Lock write = lock.writeLock();
+        write.lock();
+        try {
+            if (rebuilding) {
+                changedDuringRebuild.add(task.id());
+            }
+            boolean wasOverdue = overdue.containsKey(task.id());
+            untrackLocked(task.id());
+            OverdueTask tracked = trackLocked(task);
+            return tracked != null && !wasOverdue ? Optional.of(tracked) : Optional.empty();
+        } finally {
+            write.unlock();
+        }
+    }
+
+    void untrack(Long taskId) {
+        Lock write = lock.writeLock();
+        write.lock();
+        try {
+            if (rebuilding) {
+                changedDuringRebuild.add(taskId);
+            }
+            untrackLocked(taskId);
+        } finally {
+            write.unlock();
+        }
+    }
+
+    /** Moves the index forward to {@code today} and returns the tasks that became overdue on the way. */
+    List<OverdueTask> advanceTo(LocalDate today) {
+        List<OverdueTask> expired = new ArrayList<>();
+        Lock write = lock.writeLock();
+        write.lock();
+        try {
+            wheel.advanceTo(today.toEpochDay(), task -> {
+                markOverdue(task);
+                expired.add(task);
+            });
+        } finally {
+            write.unlock();
+        }
+        return expired;
+    }
+
+    /**
+     * Ids of the user's overdue tasks in due date order, starting after the given due date and id
+     * when both are set.
+     */
+    public List<Long> overdueTaskIds(Long createdById, LocalDate afterDueDate, Long afterId, int limit) {
+        return overdueTasks(createdById, afterDueDate, afterId, limit).stream().map(OverdueTask::id).toList();
+    }
+
+    /** Like {@link #overdueTaskIds}, with the due date each task was indexed under. */
+    public List<OverdueTask> overdueTasks(Long createdById, LocalDate afterDueDate, Long afterId, int limit) {
+        Lock read = lock.readLock();
+        read.lock();
+        try {
+            NavigableSet<OverdueTask> tasks = overdueByUser.get(createdById);
+            if (tasks == null) {
+                return List.of();
+            }
+            if (afterDueDate != null && afterId != null) {
+                tasks = tasks.tailSet(new OverdueTask(afterId, createdById, null, afterDueDate), false);
+            }
+            List<OverdueTask> page = new ArrayList<>(Math.min(limit, tasks.size()));
+            for (OverdueTask task : tasks) {
+                if (page.size() == limit) {
+                    break;
+                }
+                page.add(task);
+            }
+            return page;
+        } finally {
+            read.unlock();
+        }
+    }
+
+    /** How many of the user's tasks are overdue, across all projects when {@code projectId} is null. */
+    public int overdueCount(Long createdById, Long projectId) {
+        Lock read = lock.readLock();
+        read.lock();
+        try {
+            NavigableSet<OverdueTask> tasks = overdueByUser.get(createdById);
+            if (tasks == null) {
+                return 0;
+            }
+            if (projectId == null) {
+                return tasks.size();
+            }
+            return (int) tasks.stream().filter(task -> projectId.equals(task.projectId())).count();
+        } finally {
+            read.unlock();
+        }
+    }
+
+    /** False until the first reload from the database has finished; results may be incomplete. */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int overdueCount() {
+        Lock read = lock.readLock();
+        read.lock();
+        try {
+            return overdue.size();
+        } finally {
+            read.unlock();
+        }
+    }
+
+    public int scheduledCount() {
+        Lock read = lock.readLock();
+        read.lock();
+        try {
+            return wheel.size();
+        } finally {
+            read.unlock();
+        }
+    }
+
+    void startRebuild() {
+        Lock write = lock.writeLock();
+        write.lock();
+        try {
+            changedDuringRebuild.clear();
+            rebuilding = true;
+        } finally {
+            write.unlock();
+        }
+    }
+
+    /** Tracks a task read by the reload unless a live change has already been applied to it. */
+    void trackIfAbsent(TaskSnapshot task) {
+        Lock write = lock.writeLock();
+        write.lock();
+        try {
+            if (changedDuringRebuild.contains(task.id())) {
+                return;
+            }
+            untrackLocked(task.id());
+            trackLocked(task);
+        } finally {
+            write.unlock();
+        }
+    }
+
+    void finishRebuild() {
+        Lock write = lock.writeLock();
+        write.lock();
+        try {
+            rebuilding = false;
+            changedDuringRebuild.clear();
+            ready = true;
+        } finally {
+            write.unlock();
+        }
+    }
+
+    /** Returns the task if it is already overdue, null if it was scheduled or is not tracked at all. */
+    private OverdueTask trackLocked(TaskSnapshot task) {
+        if (task.status() == null || task.status() == Status.COMPLETED || task.dueDate() == null) {
+            return null;
+        }
+        OverdueTask tracked = OverdueTask.of(task);
+        if (wheel.schedule(tracked)) {
+            return null;
+        }
+        markOverdue(tracked);
+        return tracked;
+    }
+
+    private void markOverdue(OverdueTask task) {
+        overdue.put(task.id(), task);
+        overdueByUser.computeIfAbsent(task.createdById(), id -> new TreeSet<>(OverdueTask.DUE_DATE_ORDER)).add(task);
+    }
+
+    private void untrackLocked(Long taskId) {
+        if (wheel.cancel(taskId)) {
+            return;
+        }
+        OverdueTask task = overdue.remove(taskId);
+        if (task != null) {
+            NavigableSet<OverdueTask> tasks = overdueByUser.get(task.createdById());
+            tasks.remove(task);
+            if (tasks.isEmpty()) {
+                overdueByUser.remove(task.createdById());
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.martin1500.overdue;
+
+import com.martin1500.event.TaskBecameOverdueEvent;
+import com.martin1500.event.TaskChangedEvent;
+import com.martin1500.event.TaskSnapshot;
+import com.martin1500.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Keeps {@link OverdueTaskIndex} in step with the task table and the calendar: loads it in the
+ * background once the application is up, applies every committed task change after that, and
+ * turns the wheel as days pass. Publishes a {@link TaskBecameOverdueEvent} whenever a task enters
+ * the overdue set, except for tasks that were already overdue when the index was loaded.
+ */
+@Component
+public class OverdueTaskIndexer {
+
+    private static final Logger log = LoggerFactory.getLogger(OverdueTaskIndexer.class);
+
+    private final OverdueTaskIndex index;
+    private final TaskRepository taskRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean rebuildOnStartup;
+
+    public OverdueTaskIndexer(OverdueTaskIndex index,
+                              TaskRepository taskRepository,
+                              ApplicationEventPublisher eventPublisher,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${tasks.overdue.rebuildOnStartup:true}") boolean rebuildOnStartup) {
+        this.index = index;
+        this.taskRepository = taskRepository;
+        this.eventPublisher = eventPublisher;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildInBackground() {
+        if (rebuildOnStartup) {
+            Thread thread = new Thread(this::rebuild, "overdue-index-rebuild");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    public void rebuild() {
+        long start = System.nanoTime();
+        tick();
+        index.startRebuild();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<TaskSnapshot> tasks = taskRepository.streamSnapshots()) {
+                    tasks.forEach(index::trackIfAbsent);
+                }
+            });
+            log.info("Loaded {} overdue and {} scheduled tasks in {} ms", index.overdueCount(), index.scheduledCount(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Loading the overdue task index failed", e);
+        } finally {
+            index.finishRebuild();
+        }
+    }
+
+    /** Turns the wheel to today; between day boundaries this finds nothing to do. */
+    @Scheduled(fixedDelayString = "${tasks.overdue.tickInterval:60000}")
+    public void tick() {
+        List<OverdueTask> becameOverdue = index.advanceTo(LocalDate.now());
+        if (!becameOverdue.isEmpty()) {
+            log.debug("{} tasks became overdue", becameOverdue.size());
+            becameOverdue.forEach(this::publish);
+        }
+    }
+
+    @EventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (event.isDeletion()) {
+            index.untrack(event.before().id());
+        } else if (event.isCreation() || trackedChanged(event.before(), event.after())) {
+            index.track(event.after()).ifPresent(this::publish);
+        }
+    }
+
+    private void publish(OverdueTask task) {
+        eventPublisher.publishEvent(new TaskBecameOverdueEvent(task.id(), task.createdById(), task.projectId(), task.dueDate()));
+    }
+
+    private static boolean trackedChanged(TaskSnapshot before, TaskSnapshot after) {
+        return before.status() != after.status()
+                || !Objects.equals(before.dueDate(), after.dueDate())
+                || !Objects.equals(before.projectId(), after.projectId());
+    }
+}
@@ -0,0 +1,110 @@
+package com.martin1500.reactive;
+
+import com.martin1500.security.TokenRevocationService;
+import com.martin1500.security.UserDetailsCache;
+import com.martin1500.security.UserPrincipal;
+import com.martin1500.security.VerifiedToken;
+import com.martin1500.service.JwtService;
+import io.jsonwebtoken.JwtException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * Authenticates every request to the reactive read API with the same access tokens and the same
+ * checks as {@link com.martin1500.security.JwtAuthenticationFilter}, and requires the {@code USER}
+ * authority. The principal is put in the Reactor context for
+ * {@link ReactiveSecurityContextHolder}.
+ * <p>
+ * Verified tokens come from {@link JwtService}'s cache and almost every revocation check is
+ * answered by the in-memory filter, so most requests never leave the event loop. Loading a user
+ * for a token without user claims, or confirming a possible revocation, needs the database and
+ * runs on {@link Schedulers#boundedElastic()}.
+ */
+public class JwtWebFilter implements WebFilter {
+
+    private static final String BEARER = "Bearer ";
+    private static final SimpleGrantedAuthority USER_AUTHORITY = new SimpleGrantedAuthority("USER");
+    private static final byte[] UNAUTHORIZED_BODY =
+            "{\"error\": \"Unauthorized\", \"message\": \"Invalid or expired token\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final JwtService jwtService;
+    private final TokenRevocationService tokenRevocationService;
+    private final UserDetailsCache userDetailsCache;
+
+    public JwtWebFilter(JwtService jwtService, TokenRevocationService tokenRevocationService,
+                        UserDetailsCache userDetailsCache) {
+        this.jwtService = jwtService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.userDetailsCache = userDetailsCache;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        return authenticate(exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION))
+                .flatMap(principal -> {
+                    if (principal.isEmpty()) {
+                        return unauthorized(exchange.getResponse());
+                    }
+                    UserPrincipal user = principal.get();
+                    if (!user.getAuthorities().contains(USER_AUTHORITY)) {
+                        exchange.getResponse().setStatusCode(HttpStatus.FORBIDDEN);
+                        return exchange.getResponse().setComplete();
+                    }
+                    return chain.filter(exchange).contextWrite(ReactiveSecurityContextHolder.withAuthentication(
+                            UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities())));
+                });
+    }
+
+    private Mono<Optional<UserPrincipal>> authenticate(String authHeader) {
+        if (authHeader == null || !authHeader.startsWith(BEARER)) {
+            return Mono.just(Optional.empty());
+        }
+        VerifiedToken token;
+        try {
+            token = jwtService.verifyToken(authHeader.substring(BEARER.length()));
+        } catch (JwtException | IllegalArgumentException e) {
+            return Mono.just(Optional.empty());
+        }
+        if (token.refreshToken() || token.username() == null) {
+            return Mono.just(Optional.empty());
+        }
+        if (token.hasUserClaims()
+                && !tokenRevocationService.mightBeRevoked(token.tokenId())
+                && !tokenRevocationService.mightBeRevoked(token.familyId())) {
+            return Mono.just(Optional.of(token.toPrincipal()));
+        }
+        return Mono.fromCallable(() -> load(token)).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /** Blocking: may query the revoked token and user tables. */
+    private Optional<UserPrincipal> load(VerifiedToken token) {
+        if (tokenRevocationService.isRevoked(token.tokenId()) || tokenRevocationService.isRevoked(token.familyId())) {
+            return Optional.empty();
+        }
+        if (token.hasUserClaims()) {
+            return Optional.of(token.toPrincipal());
+        }
+        return userDetailsCache.get(token.username());
+    }
+
+    private static Mono<Void> unauthorized(ServerHttpResponse response) {
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        DataBuffer body = response.bufferFactory().wrap(UNAUTHORIZED_BODY);
+        return response.writeWith(Mono.just(body));
+    }
+}
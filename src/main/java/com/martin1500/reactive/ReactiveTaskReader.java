@@ -0,0 +1,116 @@
+package com.martin1500.reactive;
+
+import com.martin1500.dto.TaskDTO;
+import com.martin1500.model.util.Priority;
+import com.martin1500.model.util.Status;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Non-blocking counterparts of the {@link com.martin1500.repository.TaskRepository} listing
+ * finders, read over R2DBC straight into {@link TaskDTO}s. Rows are decoded as the subscriber asks
+ * for them, so a slow reader holds a pooled connection but no thread.
+ * <p>
+ * The pool is owned here rather than exposed as a {@code ConnectionFactory} bean: Spring Boot
+ * backs off its JDBC {@code DataSource} as soon as one exists, and JPA, Flyway and the write path
+ * all need that.
+ */
+public class ReactiveTaskReader implements AutoCloseable {
+
+    private static final String TASK_DTO_QUERY = "select id, title, description, status, priority, due_date,"
+            + " created_at, updated_at, project_id, comments, version from task ";
+
+    private final ConnectionPool connectionPool;
+    private final DatabaseClient databaseClient;
+
+    public ReactiveTaskReader(String url, String username, String password, int poolSize) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        this.connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .name("reactive-read")
+                .initialSize(0)
+                .maxSize(poolSize)
+                .build());
+        this.databaseClient = DatabaseClient.create(connectionPool);
+    }
+
+    /** As {@code findDTOsByCreatedBy}. */
+    public Flux<TaskDTO> findByCreatedBy(Long userId) {
+        return databaseClient.sql(TASK_DTO_QUERY + "where created_by_id = :userId order by priority, due_date")
+                .bind("userId", userId)
+                .map(ReactiveTaskReader::toTaskDTO)
+                .all();
+    }
+
+    /** As {@code findDTOsByCreatedByAndStatus}, in due date order. */
+    public Flux<TaskDTO> findByCreatedByAndStatus(Long userId, Status status) {
+        return databaseClient.sql(TASK_DTO_QUERY + "where created_by_id = :userId and status = :status"
+                        + " order by due_date, id")
+                .bind("userId", userId)
+                .bind("status", status.name())
+                .map(ReactiveTaskReader::toTaskDTO)
+                .all();
+    }
+
+    /** As {@code findDTOsByCreatedByAndPriority}, in due date order. */
+    public Flux<TaskDTO> findByCreatedByAndPriority(Long userId, Priority priority) {
+        return databaseClient.sql(TASK_DTO_QUERY + "where created_by_id = :userId and priority = :priority"
+                        + " order by due_date, id")
+                .bind("userId", userId)
+                .bind("priority", priority.name())
+                .map(ReactiveTaskReader::toTaskDTO)
+                .all();
+    }
+
+    /** As {@code findOverdueDTOsByCreatedBy}, in due date order. */
+    public Flux<TaskDTO> findOverdueByCreatedBy(Long userId, LocalDate today) {
+        return databaseClient.sql(TASK_DTO_QUERY + "where created_by_id = :userId and due_date < :today"
+                        + " and status <> 'COMPLETED' order by due_date, id")
+                .bind("userId", userId)
+                .bind("today", today)
+                .map(ReactiveTaskReader::toTaskDTO)
+                .all();
+    }
+
+    /** As {@code findDTOsByProjectIdAndCreatedBy}, in due date order. */
+    public Flux<TaskDTO> findByProjectIdAndCreatedBy(Long projectId, Long userId) {
+        return databaseClient.sql(TASK_DTO_QUERY + "where project_id = :projectId and created_by_id = :userId"
+                        + " order by due_date, id")
+                .bind("projectId", projectId)
+                .bind("userId", userId)
+                .map(ReactiveTaskReader::toTaskDTO)
+                .all();
+    }
+
+    @Override
+    public void close() {
+        connectionPool.dispose();
+    }
+
+    private static TaskDTO toTaskDTO(Row row, RowMetadata metadata) {
+        String status = row.get("status", String.class);
+        return new TaskDTO(
+                row.get("id", Long.class),
+                row.get("title", String.class),
+                row.get("description", String.class),
+                status == null ? null : Status.valueOf(status),
+                Priority.valueOf(row.get("priority", String.class)),
+                row.get("due_date", LocalDate.class),
+                row.get("created_at", LocalDateTime.class),
+                row.get("updated_at", LocalDateTime.class),
+                row.get("project_id", Long.class),
+                row.get("comments", String.class),
+                row.get("version", Long.class));
+    }
+}
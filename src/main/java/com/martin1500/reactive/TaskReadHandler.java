@@ -0,0 +1,90 @@
+package com.martin1500.reactive;
+
+import com.martin1500.dto.TaskDTO;
+import com.martin1500.exception.ErrorResponse;
+import com.martin1500.model.util.Priority;
+import com.martin1500.model.util.Status;
+import com.martin1500.security.UserPrincipal;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.function.Function;
+
+/**
+ * Read-only task listings of the reactive API, mirroring the unpaged listings of
+ * {@link com.martin1500.controller.TaskController}. Results are streamed as a JSON array, or as
+ * newline-delimited JSON when the client accepts {@code application/x-ndjson}; either way rows are
+ * only fetched as fast as the client reads them.
+ */
+public class TaskReadHandler {
+
+    private final ReactiveTaskReader taskReader;
+    private final int prefetch;
+
+    public TaskReadHandler(ReactiveTaskReader taskReader, int prefetch) {
+        this.taskReader = taskReader;
+        this.prefetch = prefetch;
+    }
+
+    public Mono<ServerResponse> getTasks(ServerRequest request) {
+        return stream(request, taskReader::findByCreatedBy);
+    }
+
+    public Mono<ServerResponse> getTasksByStatus(ServerRequest request) {
+        Status status;
+        try {
+            status = Status.valueOf(request.pathVariable("status"));
+        } catch (IllegalArgumentException e) {
+            return badRequest("Invalid status: " + request.pathVariable("status"));
+        }
+        return stream(request, userId -> taskReader.findByCreatedByAndStatus(userId, status));
+    }
+
+    public Mono<ServerResponse> getTasksByPriority(ServerRequest request) {
+        Priority priority;
+        try {
+            priority = Priority.valueOf(request.pathVariable("priority"));
+        } catch (IllegalArgumentException e) {
+            return badRequest("Invalid priority: " + request.pathVariable("priority"));
+        }
+        return stream(request, userId -> taskReader.findByCreatedByAndPriority(userId, priority));
+    }
+
+    public Mono<ServerResponse> getOverdueTasks(ServerRequest request) {
+        LocalDate today = LocalDate.now();
+        return stream(request, userId -> taskReader.findOverdueByCreatedBy(userId, today));
+    }
+
+    public Mono<ServerResponse> getTasksByProject(ServerRequest request) {
+        long projectId;
+        try {
+            projectId = Long.parseLong(request.pathVariable("projectId"));
+        } catch (NumberFormatException e) {
+            return badRequest("Invalid project id: " + request.pathVariable("projectId"));
+        }
+        return stream(request, userId -> taskReader.findByProjectIdAndCreatedBy(projectId, userId));
+    }
+
+    private Mono<ServerResponse> stream(ServerRequest request, Function<Long, Flux<TaskDTO>> finder) {
+        MediaType contentType = request.headers().accept().stream().anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype)
+                ? MediaType.APPLICATION_NDJSON
+                : MediaType.APPLICATION_JSON;
+        return ReactiveSecurityContextHolder.getContext()
+                .map(context -> ((UserPrincipal) context.getAuthentication().getPrincipal()).id())
+                .flatMap(userId -> ServerResponse.ok()
+                        .contentType(contentType)
+                        .body(finder.apply(userId).limitRate(prefetch), TaskDTO.class));
+    }
+
+    private static Mono<ServerResponse> badRequest(String message) {
+        return ServerResponse.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new ErrorResponse(HttpStatus.BAD_REQUEST, message));
+    }
+}
@@ -0,0 +1,25 @@
+package com.martin1500.repository;
+
+import com.martin1500.model.ProjectDeletion;
+import com.martin1500.model.util.DeletionStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Optional;
+
+@Repository
+public interface ProjectDeletionRepository extends JpaRepository<ProjectDeletion, Long> {
+
+    Optional<ProjectDeletion> findFirstByProjectIdOrderByIdDesc(Long projectId);
+
+    Optional<ProjectDeletion> findFirstByStatusInOrderByIdAsc(Collection<DeletionStatus> statuses);
+
+    /** Adds to the progress counters in the same statement that reads them. */
+    @Modifying
+    @Query("update ProjectDeletion d set d.tasksProcessed = d.tasksProcessed + :tasks,"
+            + " d.membersRemoved = d.membersRemoved + :members where d.id = :id")
+    int addProgress(Long id, long tasks, long members);
+}
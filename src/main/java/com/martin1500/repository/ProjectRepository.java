@@ -1,13 +1,28 @@
 package com.martin1500.repository;
 
+import com.martin1500.dto.MemberDTO;
 import com.martin1500.model.Project;
-import com.martin1500.model.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ProjectRepository extends JpaRepository<Project, Long> {
-    List<Project> findByMembersContaining(User user);
-}
\ No newline at end of file
+public interface ProjectRepository extends JpaRepository<Project, Long>, ProjectRepositoryCustom {
+
+    /** The project's members with an id above {@code afterId}, by id, read through the join table's key. */
+    @Query("select new com.martin1500.dto.MemberDTO(m.id, m.username) from Project p join p.members m"
+            + " where p.id = :projectId and m.id > :afterId order by m.id")
+    List<MemberDTO> findMembers(@Param("projectId") Long projectId, @Param("afterId") long afterId, Limit limit);
+
+    /** Reads the project past the second-level cache and locks its row until the transaction ends. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Project p where p.id = :id")
+    Optional<Project> findForUpdate(@Param("id") Long id);
+}
@@ -0,0 +1,35 @@
+package com.martin1500.repository;
+
+import com.martin1500.dto.ProjectDTO;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ProjectRepositoryCustom {
+
+    /**
+     * The projects the user is a member of, by id, each with its member count and its first
+     * {@code previewSize} members, read in one query without loading any member entity.
+     */
+    List<ProjectDTO> findSummariesByMemberId(Long userId, int previewSize);
+
+    /** Same as above for one project. */
+    Optional<ProjectDTO> findSummaryById(Long projectId, int previewSize);
+
+    /**
+     * Adds the existing users among {@code userIds} to the project's members, skipping those who
+     * already are. Writes {@code project_members} directly; the members collection is not loaded.
+     * Returns the number of members added.
+     */
+    int addMembers(Long projectId, Collection<Long> userIds);
+
+    /** Removes the given users from the project's members. Returns the number removed. */
+    int removeMembers(Long projectId, Collection<Long> userIds);
+
+    /**
+     * Removes up to {@code limit} of the project's members, lowest user id first. Returns the
+     * number removed.
+     */
+    int removeFirstMembers(Long projectId, int limit);
+}
@@ -0,0 +1,104 @@
+package com.martin1500.repository;
+
+import com.martin1500.dto.MemberDTO;
+import com.martin1500.dto.ProjectDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.query.NativeQuery;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Membership is changed row by row on the join table: each row is found through its primary key,
+ * so the cost does not grow with the size of the project.
+ */
+class ProjectRepositoryCustomImpl implements ProjectRepositoryCustom {
+
+    /**
+     * One row per previewed member, or one row with a null member for a project without members.
+     * {@code %1$s} selects the project ids; counting and numbering read only the join table's keys.
+     */
+    private static final String SUMMARY_QUERY = """
+            select p.id, p.name, counts.member_count, preview.user_id, preview.username
+            from project p
+            left join (select pm.project_id, count(*) as member_count
+                       from project_members pm
+                       where pm.project_id in (%1$s)
+                       group by pm.project_id) counts on counts.project_id = p.id
+            left join (select pm.project_id, u.id as user_id, u.username,
+                              row_number() over (partition by pm.project_id order by pm.user_id) as member_rank
+                       from project_members pm join users u on u.id = pm.user_id
+                       where pm.project_id in (%1$s)) preview
+                   on preview.project_id = p.id and preview.member_rank <= :previewSize
+            where p.id in (%1$s)
+            order by p.id, preview.user_id
+            """;
+
+    private static final String PROJECTS_OF_MEMBER = "select mine.project_id from project_members mine where mine.user_id = :scopeId";
+    private static final String ONE_PROJECT = ":scopeId";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ProjectDTO> findSummariesByMemberId(Long userId, int previewSize) {
+        return findSummaries(PROJECTS_OF_MEMBER, userId, previewSize);
+    }
+
+    @Override
+    public Optional<ProjectDTO> findSummaryById(Long projectId, int previewSize) {
+        return findSummaries(ONE_PROJECT, projectId, previewSize).stream().findFirst();
+    }
+
+    @Override
+    public int addMembers(Long projectId, Collection<Long> userIds) {
+        return JoinTables.insertMissing(entityManager, JoinTables.PROJECT_MEMBERS, "project_id", projectId, userIds);
+    }
+
+    @Override
+    public int removeMembers(Long projectId, Collection<Long> userIds) {
+        return JoinTables.execute(entityManager, JoinTables.PROJECT_MEMBERS,
+                "delete from project_members where project_id = :ownerId and user_id in (:userIds)", projectId, userIds);
+    }
+
+    @Override
+    public int removeFirstMembers(Long projectId, int limit) {
+        return JoinTables.deleteFirst(entityManager, JoinTables.PROJECT_MEMBERS, "project_id", projectId, limit);
+    }
+
+    /**
+     * Results go to the query cache; declaring the tables read lets any write to them invalidate
+     * the cached rows, and keeps writes to other tables from forcing a flush first.
+     */
+    @SuppressWarnings("unchecked")
+    private List<ProjectDTO> findSummaries(String projectIds, Long scopeId, int previewSize) {
+        List<Object[]> rows = entityManager.createNativeQuery(SUMMARY_QUERY.formatted(projectIds))
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace("project")
+                .addSynchronizedQuerySpace(JoinTables.PROJECT_MEMBERS)
+                .addSynchronizedQuerySpace("users")
+                .setCacheable(true)
+                .setParameter("scopeId", scopeId)
+                .setParameter("previewSize", previewSize)
+                .getResultList();
+
+        Map<Long, ProjectDTO> projects = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            ProjectDTO project = projects.computeIfAbsent(((Number) row[0]).longValue(), id -> ProjectDTO.builder()
+                    .id(id)
+                    .name((String) row[1])
+                    .memberCount(row[2] == null ? 0L : ((Number) row[2]).longValue())
+                    .memberPreview(new ArrayList<>())
+                    .build());
+            if (row[3] != null) {
+                project.getMemberPreview().add(new MemberDTO(((Number) row[3]).longValue(), (String) row[4]));
+            }
+        }
+        return new ArrayList<>(projects.values());
+    }
+}
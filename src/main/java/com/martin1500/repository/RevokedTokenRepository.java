@@ -0,0 +1,26 @@
+package com.martin1500.repository;
+
+import com.martin1500.model.RevokedToken;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    @Query("select r.id from RevokedToken r where r.expiresAt >= :now")
+    Stream<String> streamActiveIds(Instant now);
+
+    @Query("select r.id from RevokedToken r where r.revokedAt >= :since")
+    List<String> findIdsRevokedSince(Instant since);
+
+    long countByExpiresAtGreaterThanEqual(Instant now);
+
+    @Query("select r.id from RevokedToken r where r.expiresAt < :now")
+    List<String> findExpiredIds(Instant now, Pageable pageable);
+}
@@ -0,0 +1,16 @@
+package com.martin1500.repository;
+
+import com.martin1500.model.util.Priority;
+import com.martin1500.model.util.Status;
+
+import java.time.LocalDate;
+
+/**
+ * Column values to set on many tasks at once; null components are left as they are.
+ */
+public record TaskChanges(Status status, Priority priority, LocalDate dueDate, Long projectId) {
+
+    public boolean isEmpty() {
+        return status == null && priority == null && dueDate == null && projectId == null;
+    }
+}
@@ -0,0 +1,41 @@
+package com.martin1500.repository;
+
+import com.martin1500.model.util.Priority;
+import com.martin1500.model.util.Status;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Optional restrictions on a task listing; null (or empty) components are not applied. The due
+ * date bounds are inclusive and {@code titlePrefix} matches titles starting with it.
+ */
+public record TaskFilter(Set<Status> statuses, Priority priority, LocalDate dueFrom, LocalDate dueTo,
+                         Long projectId, Long assigneeId, String titlePrefix) {
+
+    public static TaskFilter none() {
+        return new TaskFilter(null, null, null, null, null, null, null);
+    }
+
+    public static TaskFilter byStatus(Status status) {
+        return new TaskFilter(Set.of(status), null, null, null, null, null, null);
+    }
+
+    public static TaskFilter byPriority(Priority priority) {
+        return new TaskFilter(null, priority, null, null, null, null, null);
+    }
+
+    public static TaskFilter dueBefore(LocalDate dueDate) {
+        return new TaskFilter(null, null, null, dueDate.minusDays(1), null, null, null);
+    }
+
+    /** Tasks due before {@code today} that are not completed. */
+    public static TaskFilter overdue(LocalDate today) {
+        return new TaskFilter(EnumSet.of(Status.PENDING, Status.IN_PROGRESS), null, null, today.minusDays(1), null, null, null);
+    }
+
+    public static TaskFilter byProject(Long projectId) {
+        return new TaskFilter(null, null, null, null, projectId, null, null);
+    }
+}
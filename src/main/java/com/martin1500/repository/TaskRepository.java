@@ -1,29 +1,101 @@
 package com.martin1500.repository;
 
+import com.martin1500.dto.TaskDTO;
+import com.martin1500.event.TaskSnapshot;
 import com.martin1500.model.Task;
 import com.martin1500.model.User;
 import com.martin1500.model.util.Priority;
 import com.martin1500.model.util.Status;
+import com.martin1500.stats.TaskCount;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long > {
-    List<Task> findByCreatedByOrderByPriorityAscDueDateAsc(User user);
+public interface TaskRepository extends JpaRepository<Task, Long >, TaskRepositoryCustom {
+
+    /**
+     * Listings are read straight into {@link TaskDTO}s: only the mapped columns are selected and no
+     * managed entities are created.
+     */
+    String TASK_DTO_QUERY = "select new com.martin1500.dto.TaskDTO(t.id, t.title, t.description, t.status, t.priority,"
+            + " t.dueDate, t.createdAt, t.updatedAt, t.project.id, t.comments, t.version) from Task t ";
+
+    @Query(TASK_DTO_QUERY + "where t.createdBy = :user order by t.priority, t.dueDate")
+    List<TaskDTO> findDTOsByCreatedBy(@Param("user") User user);
 
     Optional<Task> findByIdAndCreatedBy(Long id, User user);
 
-    List<Task> findByCreatedByAndStatus(User user, Status status);
+    @Query(TASK_DTO_QUERY + "where t.createdBy = :user and t.status = :status")
+    List<TaskDTO> findDTOsByCreatedByAndStatus(@Param("user") User user, @Param("status") Status status);
 
-    List<Task> findByCreatedByAndPriority(User user, Priority priority);
+    @Query(TASK_DTO_QUERY + "where t.createdBy = :user and t.priority = :priority")
+    List<TaskDTO> findDTOsByCreatedByAndPriority(@Param("user") User user, @Param("priority") Priority priority);
 
-    List<Task> findByCreatedByAndDueDateBefore(User user, LocalDate dueDate);
+    @Query(TASK_DTO_QUERY + "where t.createdBy = :user and t.dueDate < :today"
+            + " and t.status <> com.martin1500.model.util.Status.COMPLETED")
+    List<TaskDTO> findOverdueDTOsByCreatedBy(@Param("user") User user, @Param("today") LocalDate today);
 
     boolean existsByTitleAndCreatedBy(String title, User user);
 
-    List<Task> findByProjectIdAndCreatedBy(Long projectId, User createdBy);
-}
\ No newline at end of file
+    boolean existsByProjectId(Long projectId);
+
+    @Query(TASK_DTO_QUERY + "where t.project.id = :projectId and t.createdBy = :user")
+    List<TaskDTO> findDTOsByProjectIdAndCreatedBy(@Param("projectId") Long projectId, @Param("user") User user);
+
+    @Query(TASK_DTO_QUERY + "where t.id in :ids and t.createdBy = :user")
+    List<TaskDTO> findDTOsByIdInAndCreatedBy(@Param("ids") Collection<Long> ids, @Param("user") User user);
+
+    // Task counts, grouped by everything the stats counters are kept by.
+
+    String TASK_COUNT_QUERY = "select new com.martin1500.stats.TaskCount(t.createdBy.id, t.project.id, t.status, t.priority,"
+            + " count(t), sum(case when t.dueDate < :today"
+            + " and t.status <> com.martin1500.model.util.Status.COMPLETED then 1 else 0 end)) from Task t ";
+
+    String TASK_COUNT_GROUPS = " group by t.createdBy.id, t.project.id, t.status, t.priority";
+
+    @Query(TASK_COUNT_QUERY + TASK_COUNT_GROUPS)
+    List<TaskCount> countTasks(@Param("today") LocalDate today);
+
+    @Query(TASK_COUNT_QUERY + "where t.createdBy = :user" + TASK_COUNT_GROUPS)
+    List<TaskCount> countTasksByCreatedBy(@Param("user") User user, @Param("today") LocalDate today);
+
+    @Query(TASK_COUNT_QUERY + "where t.createdBy = :user and t.project.id = :projectId" + TASK_COUNT_GROUPS)
+    List<TaskCount> countTasksByCreatedByAndProjectId(@Param("user") User user, @Param("projectId") Long projectId,
+                                                      @Param("today") LocalDate today);
+
+    // Export streams: read-only, fetched from the driver in batches instead of materialized at once.
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select t from Task t where t.createdBy = :user order by t.dueDate, t.id")
+    Stream<Task> streamByCreatedBy(@Param("user") User user);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select t from Task t where t.project.id = :projectId and t.createdBy = :user order by t.dueDate, t.id")
+    Stream<Task> streamByProjectIdAndCreatedBy(@Param("projectId") Long projectId, @Param("user") User user);
+
+    /** Every task as a {@link TaskSnapshot}, for rebuilding in-memory views of the table. */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.martin1500.event.TaskSnapshot(t.id, t.createdBy.id, t.project.id, t.title, t.description,"
+            + " t.comments, t.status, t.priority, t.dueDate) from Task t")
+    Stream<TaskSnapshot> streamSnapshots();
+}
@@ -0,0 +1,71 @@
+package com.martin1500.repository;
+
+import com.martin1500.dto.TaskDTO;
+import com.martin1500.event.TaskSnapshot;
+import com.martin1500.model.User;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface TaskRepositoryCustom {
+
+    Sort DUE_DATE_ORDER = Sort.by("dueDate", "id");
+
+    /**
+     * Returns up to {@code limit} of the user's tasks matching {@code filter} that sort after
+     * {@code position}, ordered by due date and id and read straight into {@link TaskDTO}s.
+     */
+    default List<TaskDTO> findTaskPage(User createdBy, TaskFilter filter, KeysetScrollPosition position, int limit) {
+        return findTaskPage(createdBy, filter, DUE_DATE_ORDER, position, limit);
+    }
+
+    /**
+     * Same as above in a caller-chosen order. {@code sort} must end in a unique property, and
+     * {@code position} holds a value for each of its properties, in the same order.
+     */
+    List<TaskDTO> findTaskPage(User createdBy, TaskFilter filter, Sort sort, KeysetScrollPosition position, int limit);
+
+    /**
+     * Reads the user's tasks among {@code ids} in id order and locks them until the transaction
+     * ends.
+     */
+    List<TaskSnapshot> lockSnapshots(User createdBy, Collection<Long> ids);
+
+    /** Same as above for up to {@code limit} of the user's tasks matching {@code filter}. */
+    List<TaskSnapshot> lockSnapshots(User createdBy, TaskFilter filter, int limit);
+
+    /**
+     * Reads up to {@code limit} of the project's tasks, whoever created them, in id order and locks
+     * them until the transaction ends.
+     */
+    List<TaskSnapshot> lockSnapshotsInProject(Long projectId, int limit);
+
+    /**
+     * Applies {@code changes} to the user's tasks among {@code ids} in one statement. The update
+     * bypasses the persistence context and entity listeners. Returns the number of tasks updated.
+     */
+    int updateTasks(User createdBy, Collection<Long> ids, TaskChanges changes);
+
+    /**
+     * Assigns the existing users among {@code userIds} to the task, skipping those already
+     * assigned. Writes {@code task_assignees} directly. Returns the number of assignees added.
+     */
+    int addAssignees(Long taskId, Collection<Long> userIds);
+
+    /** Unassigns the given users from the task. Returns the number of assignees removed. */
+    int removeAssignees(Long taskId, Collection<Long> userIds);
+
+    /**
+     * Deletes the tasks and their {@code task_assignees} rows. The statements bypass the
+     * persistence context and entity listeners. Returns the number of tasks deleted.
+     */
+    int deleteTasks(Collection<Long> ids);
+
+    /**
+     * Takes the tasks out of their project, keeping everything else. Bypasses the persistence
+     * context and entity listeners like {@link #updateTasks}. Returns the number of tasks updated.
+     */
+    int detachTasks(Collection<Long> ids);
+}
@@ -0,0 +1,257 @@
+package com.martin1500.repository;
+
+import com.martin1500.dto.TaskDTO;
+import com.martin1500.event.TaskSnapshot;
+import com.martin1500.model.Project;
+import com.martin1500.model.Task;
+import com.martin1500.model.User;
+import com.martin1500.model.util.Priority;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CompoundSelection;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Every filter is a plain comparison on a task column, so {@code created_by_id} plus the most
+ * selective restriction match one of the composite indexes and the order columns follow it.
+ */
+class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TaskDTO> findTaskPage(User createdBy, TaskFilter filter, Sort sort, KeysetScrollPosition position, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskDTO> query = cb.createQuery(TaskDTO.class);
+        Root<Task> task = query.from(Task.class);
+
+        List<Predicate> predicates = matching(cb, task, createdBy, filter);
+        if (!position.isInitial()) {
+            predicates.add(after(cb, task, sort, position));
+        }
+
+        List<Order> order = new ArrayList<>();
+        for (Sort.Order property : sort) {
+            Expression<?> key = sortKey(cb, task, property.getProperty());
+            order.add(property.isAscending() ? cb.asc(key) : cb.desc(key));
+        }
+
+        query.select(cb.construct(TaskDTO.class,
+                        task.get("id"), task.get("title"), task.get("description"), task.get("status"),
+                        task.get("priority"), task.get("dueDate"), task.get("createdAt"), task.get("updatedAt"),
+                        task.get("project").get("id"), task.get("comments"), task.get("version")))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(order);
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<TaskSnapshot> lockSnapshots(User createdBy, Collection<Long> ids) {
+        return lockSnapshots(createdBy, TaskFilter.none(), ids, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<TaskSnapshot> lockSnapshots(User createdBy, TaskFilter filter, int limit) {
+        return lockSnapshots(createdBy, filter, null, limit);
+    }
+
+    @Override
+    public List<TaskSnapshot> lockSnapshotsInProject(Long projectId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskSnapshot> query = cb.createQuery(TaskSnapshot.class);
+        Root<Task> task = query.from(Task.class);
+        query.select(snapshot(cb, task))
+                .where(cb.equal(task.get("project").get("id"), projectId))
+                .orderBy(cb.asc(task.get("id")));
+
+        return entityManager.createQuery(query)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public int updateTasks(User createdBy, Collection<Long> ids, TaskChanges changes) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Task> update = cb.createCriteriaUpdate(Task.class);
+        Root<Task> task = update.from(Task.class);
+        if (changes.status() != null) {
+            update.set(task.get("status"), changes.status());
+        }
+        if (changes.priority() != null) {
+            update.set(task.get("priority"), changes.priority());
+        }
+        if (changes.dueDate() != null) {
+            update.set(task.get("dueDate"), changes.dueDate());
+        }
+        if (changes.projectId() != null) {
+            update.set(task.get("project"), entityManager.getReference(Project.class, changes.projectId()));
+        }
+        // Bulk statements skip @UpdateTimestamp and @Version.
+        update.set(task.<Long>get("version"), cb.sum(task.get("version"), 1L))
+                .set(task.get("updatedAt"), LocalDateTime.now())
+                .where(cb.equal(task.get("createdBy"), createdBy), task.get("id").in(ids));
+        int updated = entityManager.createQuery(update).executeUpdate();
+        // Loaded copies of these tasks are stale now, as with @Modifying(clearAutomatically = true).
+        entityManager.clear();
+        return updated;
+    }
+
+    @Override
+    public int addAssignees(Long taskId, Collection<Long> userIds) {
+        return JoinTables.insertMissing(entityManager, JoinTables.TASK_ASSIGNEES, "task_id", taskId, userIds);
+    }
+
+    @Override
+    public int removeAssignees(Long taskId, Collection<Long> userIds) {
+        return JoinTables.execute(entityManager, JoinTables.TASK_ASSIGNEES,
+                "delete from task_assignees where task_id = :ownerId and user_id in (:userIds)", taskId, userIds);
+    }
+
+    @Override
+    public int deleteTasks(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        JoinTables.deleteAll(entityManager, JoinTables.TASK_ASSIGNEES, "task_id", ids);
+        return entityManager.createQuery("delete from Task t where t.id in :ids")
+                .setParameter("ids", ids)
+                .executeUpdate();
+    }
+
+    @Override
+    public int detachTasks(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        // Bulk statements skip @UpdateTimestamp and @Version.
+        int updated = entityManager.createQuery("update Task t set t.project = null, t.version = t.version + 1,"
+                        + " t.updatedAt = :now where t.id in :ids")
+                .setParameter("now", LocalDateTime.now())
+                .setParameter("ids", ids)
+                .executeUpdate();
+        entityManager.clear();
+        return updated;
+    }
+
+    /**
+     * Reads the matching tasks in id order and locks their rows, so concurrent bulk updates wait
+     * for each other and take their locks in the same order.
+     */
+    private List<TaskSnapshot> lockSnapshots(User createdBy, TaskFilter filter, Collection<Long> ids, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskSnapshot> query = cb.createQuery(TaskSnapshot.class);
+        Root<Task> task = query.from(Task.class);
+
+        List<Predicate> predicates = matching(cb, task, createdBy, filter);
+        if (ids != null) {
+            predicates.add(task.get("id").in(ids));
+        }
+        query.select(snapshot(cb, task))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.asc(task.get("id")));
+
+        return entityManager.createQuery(query)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private static CompoundSelection<TaskSnapshot> snapshot(CriteriaBuilder cb, Root<Task> task) {
+        return cb.construct(TaskSnapshot.class,
+                task.get("id"), task.get("createdBy").get("id"), task.get("project").get("id"),
+                task.get("title"), task.get("description"), task.get("comments"),
+                task.get("status"), task.get("priority"), task.get("dueDate"));
+    }
+
+    private static List<Predicate> matching(CriteriaBuilder cb, Root<Task> task, User createdBy, TaskFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(task.get("createdBy"), createdBy));
+
+        if (filter.statuses() != null && !filter.statuses().isEmpty()) {
+            predicates.add(filter.statuses().size() == 1
+                    ? cb.equal(task.get("status"), filter.statuses().iterator().next())
+                    : task.get("status").in(filter.statuses()));
+        }
+        if (filter.priority() != null) {
+            predicates.add(cb.equal(task.get("priority"), filter.priority()));
+        }
+        if (filter.dueFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(task.get("dueDate"), filter.dueFrom()));
+        }
+        if (filter.dueTo() != null) {
+            predicates.add(cb.lessThanOrEqualTo(task.get("dueDate"), filter.dueTo()));
+        }
+        if (filter.projectId() != null) {
+            predicates.add(cb.equal(task.get("project").get("id"), filter.projectId()));
+        }
+        if (filter.assigneeId() != null) {
+            // (task_id, user_id) is the join table's key, so the join cannot duplicate a task.
+            predicates.add(cb.equal(task.join("assignees").get("id"), filter.assigneeId()));
+        }
+        if (filter.titlePrefix() != null && !filter.titlePrefix().isEmpty()) {
+            predicates.add(cb.like(task.get("title"), escapeLike(filter.titlePrefix()) + "%", LIKE_ESCAPE));
+        }
+        return predicates;
+    }
+
+    /**
+     * Rows past {@code position} in {@code sort} order: {@code k1 > v1 or (k1 = v1 and k2 > v2) or ...},
+     * with {@code <} for descending properties.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate after(CriteriaBuilder cb, Root<Task> task, Sort sort, KeysetScrollPosition position) {
+        List<Predicate> alternatives = new ArrayList<>();
+        List<Predicate> equalSoFar = new ArrayList<>();
+        for (Sort.Order property : sort) {
+            Expression<Comparable> column = (Expression) sortKey(cb, task, property.getProperty());
+            Object key = position.getKeys().get(property.getProperty());
+            Comparable value = key instanceof Priority priority ? priority.ordinal() : (Comparable) key;
+            Predicate beyond = property.isAscending() ? cb.greaterThan(column, value) : cb.lessThan(column, value);
+            List<Predicate> alternative = new ArrayList<>(equalSoFar);
+            alternative.add(beyond);
+            alternatives.add(cb.and(alternative.toArray(Predicate[]::new)));
+            equalSoFar.add(cb.equal(column, value));
+        }
+        return cb.or(alternatives.toArray(Predicate[]::new));
+    }
+
+    /**
+     * The column a page is sorted by, except for priority: its stored name would sort HIGH before
+     * LOW before MEDIUM, so it is ranked in declaration order instead.
+     */
+    private static Expression<?> sortKey(CriteriaBuilder cb, Root<Task> task, String property) {
+        if (!property.equals("priority")) {
+            return task.get(property);
+        }
+        CriteriaBuilder.SimpleCase<Priority, Integer> rank = cb.selectCase(task.get("priority"));
+        for (Priority priority : Priority.values()) {
+            rank = rank.when(priority, cb.literal(priority.ordinal()));
+        }
+        return rank.otherwise(cb.nullLiteral(Integer.class));
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
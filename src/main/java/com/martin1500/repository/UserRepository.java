@@ -2,11 +2,25 @@ package com.martin1500.repository;
 
 import com.martin1500.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
+
+    @Query("select u.id from User u where u.id in :ids")
+    Set<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /** The ids among {@code ids} that no user has, in the given order and without duplicates. */
+    default List<Long> findMissingIds(Collection<Long> ids) {
+        Set<Long> found = findIdsByIdIn(ids);
+        return ids.stream().distinct().filter(id -> !found.contains(id)).toList();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,175 @@
+package com.martin1500.search;
+
+import java.util.Arrays;
+
+/**
+ * Append-only list of {@code (document, frequency)} pairs in increasing document order, stored
+ * as variable-length gaps: most entries take two bytes.
+ * <p>
+ * Entries are grouped in blocks of {@value #BLOCK_SIZE}. For each block the list keeps where it
+ * ends, its last document, its highest frequency and the shortest document length in it, so a
+ * search can bound the score of every document in a block and skip it without decoding.
+ */
+final class PostingList {
+
+    static final int NO_MORE_DOCS = Integer.MAX_VALUE;
+    static final int BLOCK_SIZE = 128;
+
+    // Per block: last document, end offset in bytes, highest frequency, shortest document length
+    private static final int BLOCK_FIELDS = 4;
+    private static final int LAST_DOCUMENT = 0;
+    private static final int END = 1;
+    private static final int MAX_FREQUENCY = 2;
+    private static final int MIN_LENGTH = 3;
+
+    private byte[] bytes = new byte[4];
+    private int[] blocks = new int[BLOCK_FIELDS];
+    private int length;
+    private int size;
+    private int lastDocument = -1;
+    private int maxFrequency;
+    private int minLength = Integer.MAX_VALUE;
+
+    /** @param documentLength The length of the document, for the block's score bound. */
+    void add(int document, int frequency, int documentLength) {
+        if (document <= lastDocument) {
+            throw new IllegalArgumentException("Documents must be added in increasing order");
+        }
+        writeVarInt(document - lastDocument);
+        writeVarInt(frequency);
+        lastDocument = document;
+        maxFrequency = Math.max(maxFrequency, frequency);
+        minLength = Math.min(minLength, documentLength);
+
+        int block = size / BLOCK_SIZE;
+        int base = block * BLOCK_FIELDS;
+        if (size % BLOCK_SIZE == 0) {
+            if (base == blocks.length) {
+                blocks = Arrays.copyOf(blocks, blocks.length * 2);
+            }
+            blocks[base + MAX_FREQUENCY] = frequency;
+            blocks[base + MIN_LENGTH] = documentLength;
+        } else {
+            blocks[base + MAX_FREQUENCY] = Math.max(blocks[base + MAX_FREQUENCY], frequency);
+            blocks[base + MIN_LENGTH] = Math.min(blocks[base + MIN_LENGTH], documentLength);
+        }
+        blocks[base + LAST_DOCUMENT] = document;
+        blocks[base + END] = length;
+        size++;
+    }
+
+    /** Entries, including those of documents deleted since they were added. */
+    int size() {
+        return size;
+    }
+
+    /** The highest frequency in the list. */
+    int maxFrequency() {
+        return maxFrequency;
+    }
+
+    /** The shortest document length in the list. */
+    int minLength() {
+        return minLength;
+    }
+
+    int maxFrequency(int block) {
+        return blocks[block * BLOCK_FIELDS + MAX_FREQUENCY];
+    }
+
+    int minLength(int block) {
+        return blocks[block * BLOCK_FIELDS + MIN_LENGTH];
+    }
+
+    long memoryBytes() {
+        return bytes.length + (long) blocks.length * Integer.BYTES;
+    }
+
+    Cursor cursor() {
+        return new Cursor();
+    }
+
+    private void writeVarInt(int value) {
+        if (length + 5 > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(length + 5, bytes.length + (bytes.length >> 1)));
+        }
+        while ((value & ~0x7F) != 0) {
+            bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[length++] = (byte) value;
+    }
+
+    /**
+     * Forward-only reader. {@link #document()} is -1 before the first {@link #next()} and
+     * {@link #NO_MORE_DOCS} once the list is exhausted.
+     */
+    final class Cursor {
+        private int position;
+        private int entry;
+        private int document = -1;
+        private int frequency;
+
+        int next() {
+            if (position >= length) {
+                return document = NO_MORE_DOCS;
+            }
+            document += readVarInt();
+            frequency = readVarInt();
+            entry++;
+            return document;
+        }
+
+        /** Moves to the first document at or after {@code target}. */
+        int advance(int target) {
+            while (document < target) {
+                next();
+            }
+            return document;
+        }
+
+        /**
+         * Skips, without decoding, what is left of the block holding the current document and
+         * moves to the first document of the next block.
+         */
+        int nextBlock() {
+            if (document == NO_MORE_DOCS) {
+                return NO_MORE_DOCS;
+            }
+            int block = block();
+            int base = block * BLOCK_FIELDS;
+            position = blocks[base + END];
+            document = blocks[base + LAST_DOCUMENT];
+            entry = Math.min(size, (block + 1) * BLOCK_SIZE);
+            return next();
+        }
+
+        /** The block holding the current document; only meaningful after {@link #next()}. */
+        int block() {
+            return (entry - 1) / BLOCK_SIZE;
+        }
+
+        int document() {
+            return document;
+        }
+
+        int frequency() {
+            return frequency;
+        }
+
+        private int readVarInt() {
+            byte first = bytes[position++];
+            if (first >= 0) {
+                return first;
+            }
+            int value = first & 0x7F;
+            for (int shift = 7; ; shift += 7) {
+                byte b = bytes[position++];
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package com.martin1500.search;
+
+import com.martin1500.event.TaskSnapshot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The inverted index over one user's tasks. Documents get increasing ordinals, so postings stay
+ * sorted by appending; an updated task is re-added under a new ordinal and its old one marked
+ * deleted. Once deleted ordinals outnumber live ones the partition is rewritten without them.
+ * Callers hold {@link #lock}: the read lock to search, the write lock to modify.
+ */
+final class SearchPartition {
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MIN_DELETED_TO_COMPACT = 1024;
+    private static final int DELETED = -1;
+    private static final long NO_PROJECT = 0;
+    // Keeps a rounding difference between a bound and the score it bounds from skipping a block
+    private static final double BOUND_SLACK = 1 + 1e-9;
+
+    final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<String, PostingList> terms = new HashMap<>();
+    private LongIntMap ordinals = new LongIntMap();
+    private long[] taskIds = new long[8];
+    private long[] projectIds = new long[8];
+    private int[] lengths = new int[8];
+    private int documents;
+    private long liveLength;
+
+    boolean contains(long taskId) {
+        return ordinals.get(taskId) != LongIntMap.MISSING;
+    }
+
+    void add(TaskSnapshot task) {
+        remove(task.id());
+        Map<String, Integer> frequencies = new HashMap<>();
+        Tokenizer.tokenize(task.title(), term -> frequencies.merge(term, TITLE_WEIGHT, Integer::sum));
+        Tokenizer.tokenize(task.description(), term -> frequencies.merge(term, 1, Integer::sum));
+        Tokenizer.tokenize(task.comments(), term -> frequencies.merge(term, 1, Integer::sum));
+
+        int ordinal = documents++;
+        if (ordinal == taskIds.length) {
+            int capacity = taskIds.length * 2;
+            taskIds = Arrays.copyOf(taskIds, capacity);
+            projectIds = Arrays.copyOf(projectIds, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+        }
+        int length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+        taskIds[ordinal] = task.id();
+        projectIds[ordinal] = task.projectId() == null ? NO_PROJECT : task.projectId();
+        lengths[ordinal] = length;
+        liveLength += length;
+        ordinals.put(task.id(), ordinal);
+        frequencies.forEach((term, frequency) -> terms.computeIfAbsent(term, t -> new PostingList()).add(ordinal, frequency, length));
+    }
+
+    void remove(long taskId) {
+        int ordinal = ordinals.remove(taskId);
+        if (ordinal == LongIntMap.MISSING) {
+            return;
+        }
+        liveLength -= lengths[ordinal];
+        lengths[ordinal] = DELETED;
+        int deleted = documents - ordinals.size();
+        if (deleted >= MIN_DELETED_TO_COMPACT && deleted > ordinals.size()) {
+            compact();
+        }
+    }
+
+    int size() {
+        return ordinals.size();
+    }
+
+    long memoryBytes() {
+        long postings = terms.values().stream().mapToLong(PostingList::memoryBytes).sum();
+        return postings + ordinals.memoryBytes() + taskIds.length * (2L * Long.BYTES + Integer.BYTES);
+    }
+
+    /**
+     * Tasks containing every one of {@code queryTerms}, best BM25 score first, with title matches
+     * weighted up. Ties go to the most recently indexed task.
+     * <p>
+     * Matches are counted up to {@code maxTotal}. From then on only the ranking matters, so
+     * blocks of the rarest term's postings whose best possible score cannot enter the top
+     * {@code offset + limit} are skipped without being decoded (block-max pruning). The bound of
+     * the other terms is their best entry anywhere in their list.
+     */
+    TaskSearchHits search(List<String> queryTerms, Long projectId, int offset, int limit, int maxTotal) {
+        List<PostingList> lists = new ArrayList<>(queryTerms.size());
+        for (String term : queryTerms) {
+            PostingList list = terms.get(term);
+            if (list == null) {
+                return TaskSearchHits.EMPTY;
+            }
+            lists.add(list);
+        }
+        if (lists.isEmpty()) {
+            return TaskSearchHits.EMPTY;
+        }
+        lists.sort(Comparator.comparingInt(PostingList::size));
+
+        int live = ordinals.size();
+        double averageLength = live == 0 ? 1 : Math.max(1, (double) liveLength / live);
+        double lengthNormBase = K1 * (1 - B);
+        double lengthNormScale = K1 * B / averageLength;
+        double[] idf = new double[lists.size()];
+        PostingList.Cursor[] cursors = new PostingList.Cursor[lists.size()];
+        double otherTermsBound = 0;
+        for (int i = 0; i < lists.size(); i++) {
+            PostingList list = lists.get(i);
+            int documentFrequency = Math.min(list.size(), live);
+            idf[i] = Math.log(1 + (live - documentFrequency + 0.5) / (documentFrequency + 0.5));
+            cursors[i] = list.cursor();
+            if (i > 0) {
+                otherTermsBound += termScore(idf[i], list.maxFrequency(),
+                        lengthNormBase + lengthNormScale * list.minLength());
+            }
+        }
+
+        boolean anyProject = projectId == null;
+        long project = anyProject ? NO_PROJECT : projectId;
+        TopHits top = new TopHits(offset + limit);
+        int total = 0;
+        PostingList lead = lists.get(0);
+        PostingList.Cursor leadCursor = cursors[0];
+        int boundedBlock = -1;
+        int document = leadCursor.next();
+        while (document != PostingList.NO_MORE_DOCS) {
+            if (total >= maxTotal) {
+                int block = leadCursor.block();
+                if (block != boundedBlock) {
+                    double bound = termScore(idf[0], lead.maxFrequency(block),
+                            lengthNormBase + lengthNormScale * lead.minLength(block)) + otherTermsBound;
+                    if (!top.mightAccept(bound * BOUND_SLACK)) {
+                        document = leadCursor.nextBlock();
+                        continue;
+                    }
+                    boundedBlock = block;
+                }
+            }
+            if (lengths[document] != DELETED && (anyProject || projectIds[document] == project)) {
+                int joined = join(document, cursors);
+                if (joined == PostingList.NO_MORE_DOCS) {
+                    break;
+                }
+                if (joined == document) {
+                    double norm = lengthNormBase + lengthNormScale * lengths[document];
+                    double score = 0;
+                    for (int i = 0; i < cursors.length; i++) {
+                        score += termScore(idf[i], cursors[i].frequency(), norm);
+                    }
+                    top.offer(score, document);
+                    if (total < maxTotal) {
+                        total++;
+                    }
+                }
+            }
+            document = leadCursor.next();
+        }
+
+        int[] ranked = top.drainBestFirst();
+        List<Long> ids = new ArrayList<>(Math.max(0, ranked.length - offset));
+        for (int i = offset; i < ranked.length; i++) {
+            ids.add(taskIds[ranked[i]]);
+        }
+        return new TaskSearchHits(ids, total);
+    }
+
+    private static double termScore(double idf, int frequency, double norm) {
+        return idf * frequency * (K1 + 1) / (frequency + norm);
+    }
+
+    /**
+     * Moves the other cursors to {@code document}: returns it if they all have it,
+     * {@link PostingList#NO_MORE_DOCS} if one of them is exhausted, and -1 otherwise.
+     */
+    private static int join(int document, PostingList.Cursor[] cursors) {
+        for (int i = 1; i < cursors.length; i++) {
+            int other = cursors[i].advance(document);
+            if (other == PostingList.NO_MORE_DOCS) {
+                return PostingList.NO_MORE_DOCS;
+            }
+            if (other != document) {
+                return -1;
+            }
+        }
+        return document;
+    }
+
+    private void compact() {
+        int live = ordinals.size();
+        int[] remap = new int[documents];
+        long[] newTaskIds = new long[Math.max(8, live)];
+        long[] newProjectIds = new long[newTaskIds.length];
+        int[] newLengths = new int[newTaskIds.length];
+        LongIntMap newOrdinals = new LongIntMap();
+        int next = 0;
+        for (int ordinal = 0; ordinal < documents; ordinal++) {
+            if (lengths[ordinal] == DELETED) {
+                remap[ordinal] = DELETED;
+                continue;
+            }
+            remap[ordinal] = next;
+            newTaskIds[next] = taskIds[ordinal];
+            newProjectIds[next] = projectIds[ordinal];
+            newLengths[next] = lengths[ordinal];
+            newOrdinals.put(taskIds[ordinal], next);
+            next++;
+        }
+
+        Map<String, PostingList> newTerms = new HashMap<>();
+        terms.forEach((term, list) -> {
+            PostingList compacted = null;
+            PostingList.Cursor cursor = list.cursor();
+            for (int document = cursor.next(); document != PostingList.NO_MORE_DOCS; document = cursor.next()) {
+                if (remap[document] != DELETED) {
+                    if (compacted == null) {
+                        compacted = new PostingList();
+                    }
+                    compacted.add(remap[document], cursor.frequency(), newLengths[remap[document]]);
+                }
+            }
+            if (compacted != null) {
+                newTerms.put(term, compacted);
+            }
+        });
+
+        terms = newTerms;
+        ordinals = newOrdinals;
+        taskIds = newTaskIds;
+        projectIds = newProjectIds;
+        lengths = newLengths;
+        documents = next;
+    }
+
+    /**
+     * Min-heap of the best {@code capacity} (score, ordinal) pairs seen so far.
+     */
+    private static final class TopHits {
+        private final double[] scores;
+        private final int[] ordinals;
+        private int size;
+
+        TopHits(int capacity) {
+            scores = new double[capacity];
+            ordinals = new int[capacity];
+        }
+
+        void offer(double score, int ordinal) {
+            if (scores.length == 0) {
+                return;
+            }
+            if (size < scores.length) {
+                scores[size] = score;
+                ordinals[size] = ordinal;
+                siftUp(size++);
+            } else if (better(score, ordinal, scores[0], ordinals[0])) {
+                scores[0] = score;
+                ordinals[0] = ordinal;
+                siftDown(0);
+            }
+        }
+
+        /** Whether a document scoring {@code score} could still enter the heap. */
+        boolean mightAccept(double score) {
+            if (scores.length == 0) {
+                return false;
+            }
+            // An equal score enters with a later ordinal, and ordinals only increase during a search.
+            return size < scores.length || score >= scores[0];
+        }
+
+        int[] drainBestFirst() {
+            int[] ranked = new int[size];
+            for (int i = size - 1; i >= 0; i--) {
+                ranked[i] = ordinals[0];
+                size--;
+                scores[0] = scores[size];
+                ordinals[0] = ordinals[size];
+                siftDown(0);
+            }
+            return ranked;
+        }
+
+        private static boolean better(double score, int ordinal, double otherScore, int otherOrdinal) {
+            return score > otherScore || (score == otherScore && ordinal > otherOrdinal);
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (!better(scores[parent], ordinals[parent], scores[i], ordinals[i])) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int smallest = i;
+                for (int child = 2 * i + 1; child <= 2 * i + 2 && child < size; child++) {
+                    if (better(scores[smallest], ordinals[smallest], scores[child], ordinals[child])) {
+                        smallest = child;
+                    }
+                }
+                if (smallest == i) {
+                    return;
+                }
+                swap(i, smallest);
+                i = smallest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            double score = scores[a];
+            scores[a] = scores[b];
+            scores[b] = score;
+            int ordinal = ordinals[a];
+            ordinals[a] = ordinals[b];
+            ordinals[b] = ordinal;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.martin1500.search;
+
+import java.util.List;
+
+/**
+ * One page of search results, best match first, and the number of tasks matching in total, up to
+ * {@code search.index.maxResults}: past that no page can be requested, so matches are not counted.
+ */
+public record TaskSearchHits(List<Long> taskIds, int total) {
+
+    public static final TaskSearchHits EMPTY = new TaskSearchHits(List.of(), 0);
+}
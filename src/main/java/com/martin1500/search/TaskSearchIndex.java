@@ -0,0 +1,154 @@
+package com.martin1500.search;
+
+import com.martin1500.event.TaskSnapshot;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * In-memory full-text index over task titles, descriptions and comments, partitioned by the user
+ * who created the tasks so a search only ever touches that user's postings.
+ * <p>
+ * While {@link TaskSearchIndexer} reloads the index from the database, live changes keep being
+ * applied; rows read by the reload never override them, and tasks deleted meanwhile are not
+ * brought back.
+ */
+@Component
+public class TaskSearchIndex {
+
+    private final Map<Long, SearchPartition> partitions = new ConcurrentHashMap<>();
+    private final Set<Long> deletedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private final int maxResults;
+
+    private volatile boolean rebuilding;
+    private volatile boolean ready;
+
+    public TaskSearchIndex(MeterRegistry meterRegistry, @Value("${search.index.maxResults:10000}") int maxResults) {
+        this.maxResults = maxResults;
+        Gauge.builder("search.index.documents", this, TaskSearchIndex::size)
+                .description("Tasks in the full-text index")
+                .register(meterRegistry);
+        Gauge.builder("search.index.memory", this, TaskSearchIndex::memoryBytes)
+                .description("Approximate size of the full-text index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /** Adds the task, replacing what was indexed for it before. */
+    public void index(TaskSnapshot task) {
+        if (rebuilding) {
+            deletedDuringRebuild.remove(task.id());
+        }
+        write(task.createdById(), partition -> partition.add(task));
+    }
+
+    public void remove(Long createdById, Long taskId) {
+        if (rebuilding) {
+            deletedDuringRebuild.add(taskId);
+        }
+        SearchPartition partition = partitions.get(createdById);
+        if (partition != null) {
+            Lock lock = partition.lock.writeLock();
+            lock.lock();
+            try {
+                partition.remove(taskId);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Searches the user's tasks, optionally within one project, for those containing every word of
+     * {@code query}. Results past {@code search.index.maxResults} cannot be paged to, and the
+     * total stops counting there.
+     */
+    public TaskSearchHits search(Long createdById, Long projectId, String query, int offset, int limit) {
+        Set<String> terms = new LinkedHashSet<>();
+        Tokenizer.tokenize(query, terms::add);
+        SearchPartition partition = partitions.get(createdById);
+        if (partition == null || terms.isEmpty() || offset >= maxResults) {
+            return TaskSearchHits.EMPTY;
+        }
+        Lock lock = partition.lock.readLock();
+        lock.lock();
+        try {
+            return partition.search(new ArrayList<>(terms), projectId, offset, Math.min(limit, maxResults - offset), maxResults);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** False until the first reload from the database has finished; results may be incomplete. */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return (int) sum(SearchPartition::size);
+    }
+
+    long memoryBytes() {
+        return sum(SearchPartition::memoryBytes);
+    }
+
+    void startRebuild() {
+        deletedDuringRebuild.clear();
+        rebuilding = true;
+    }
+
+    /** Adds a task read by the reload unless a live change already indexed or deleted it. */
+    void indexIfAbsent(TaskSnapshot task) {
+        if (deletedDuringRebuild.contains(task.id())) {
+            return;
+        }
+        write(task.createdById(), partition -> {
+            if (!partition.contains(task.id())) {
+                partition.add(task);
+            }
+        });
+    }
+
+    void finishRebuild() {
+        rebuilding = false;
+        deletedDuringRebuild.clear();
+        ready = true;
+    }
+
+    /** Sums {@code measure} over the partitions, each read under its read lock like a search. */
+    private long sum(ToLongFunction<SearchPartition> measure) {
+        long total = 0;
+        for (SearchPartition partition : partitions.values()) {
+            Lock lock = partition.lock.readLock();
+            lock.lock();
+            try {
+                total += measure.applyAsLong(partition);
+            } finally {
+                lock.unlock();
+            }
+        }
+        return total;
+    }
+
+    private void write(Long createdById, Consumer<SearchPartition> change) {
+        SearchPartition partition = partitions.computeIfAbsent(createdById, id -> new SearchPartition());
+        Lock lock = partition.lock.writeLock();
+        lock.lock();
+        try {
+            change.accept(partition);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.martin1500.search;
+
+import com.martin1500.event.TaskChangedEvent;
+import com.martin1500.event.TaskSnapshot;
+import com.martin1500.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Keeps {@link TaskSearchIndex} in step with the task table: loads it in the background once the
+ * application is up, and applies every committed task change after that.
+ */
+@Component
+public class TaskSearchIndexer {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskSearchIndexer.class);
+
+    private final TaskSearchIndex index;
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean rebuildOnStartup;
+
+    public TaskSearchIndexer(TaskSearchIndex index,
+                             TaskRepository taskRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${search.index.rebuildOnStartup:true}") boolean rebuildOnStartup) {
+        this.index = index;
+        this.taskRepository = taskRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildInBackground() {
+        if (rebuildOnStartup) {
+            Thread thread = new Thread(this::rebuild, "task-search-rebuild");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    public void rebuild() {
+        long start = System.nanoTime();
+        index.startRebuild();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<TaskSnapshot> tasks = taskRepository.streamSnapshots()) {
+                    tasks.forEach(index::indexIfAbsent);
+                }
+            });
+            log.info("Indexed {} tasks for search in {} ms", index.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Rebuilding the task search index failed", e);
+        } finally {
+            index.finishRebuild();
+        }
+    }
+
+    @EventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (event.isDeletion()) {
+            index.remove(event.before().createdById(), event.before().id());
+        } else if (event.isCreation() || searchableChanged(event.before(), event.after())) {
+            index.index(event.after());
+        }
+    }
+
+    private static boolean searchableChanged(TaskSnapshot before, TaskSnapshot after) {
+        return !Objects.equals(before.title(), after.title())
+                || !Objects.equals(before.description(), after.description())
+                || !Objects.equals(before.comments(), after.comments())
+                || !Objects.equals(before.projectId(), after.projectId());
+    }
+}
@@ -0,0 +1,47 @@
+package com.martin1500.search;
+
+import java.text.Normalizer;
+import java.util.function.Consumer;
+
+/**
+ * Splits text into lower-case, accent-free runs of letters and digits. Single characters are
+ * dropped and long tokens truncated, which keeps the vocabulary small.
+ */
+final class Tokenizer {
+
+    static final int MIN_LENGTH = 2;
+    static final int MAX_LENGTH = 32;
+
+    private Tokenizer() {
+    }
+
+    static void tokenize(String text, Consumer<String> sink) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < normalized.length(); ) {
+            int codePoint = normalized.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (Character.getType(codePoint) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(codePoint)) {
+                if (token.length() < MAX_LENGTH) {
+                    token.appendCodePoint(Character.toLowerCase(codePoint));
+                }
+            } else {
+                emit(token, sink);
+            }
+        }
+        emit(token, sink);
+    }
+
+    private static void emit(StringBuilder token, Consumer<String> sink) {
+        if (token.length() >= MIN_LENGTH) {
+            sink.accept(token.toString());
+        }
+        token.setLength(0);
+    }
+}
@@ -1,6 +1,7 @@
 package com.martin1500.security;
 
 import com.martin1500.service.JwtService;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -23,6 +24,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenRevocationService tokenRevocationService;
 
     @Override
     public void doFilterInternal(
@@ -32,16 +34,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     ) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String username;
+        final VerifiedToken token;
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
             return;
         }
         jwt = authHeader.substring(7);
-        username = jwtService.extractUsername(jwt);
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+        try {
+            token = jwtService.verifyToken(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (token.refreshToken()
+                || tokenRevocationService.isRevoked(token.tokenId())
+                || tokenRevocationService.isRevoked(token.familyId())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (token.username() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = token.hasUserClaims()
+                    ? token.toPrincipal()
+                    : this.userDetailsService.loadUserByUsername(token.username());
+            if (token.username().equals(userDetails.getUsername())) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
@@ -0,0 +1,37 @@
+package com.martin1500.security;
+
+import com.martin1500.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Stores the rehashed password produced by the authentication provider when the stored BCrypt
+ * cost no longer matches the configured one.
+ */
+@Service
+@RequiredArgsConstructor
+public class PasswordUpgradeService implements UserDetailsPasswordService {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordUpgradeService.class);
+
+    private final UserRepository userRepository;
+
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        return userRepository.findByUsername(user.getUsername())
+                .map(entity -> {
+                    entity.setPassword(newPassword);
+                    return (UserDetails) UserPrincipal.from(userRepository.save(entity));
+                })
+                .orElseGet(() -> {
+                    log.warn("Could not rehash password, user {} no longer exists", user.getUsername());
+                    return user;
+                });
+    }
+}
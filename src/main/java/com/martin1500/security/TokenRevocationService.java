@@ -0,0 +1,182 @@
+package com.martin1500.security;
+
+import com.martin1500.model.RevokedToken;
+import com.martin1500.repository.RefreshTokenRepository;
+import com.martin1500.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Answers "has this token been revoked?" on every authenticated request without a query in the
+ * common case. Revoked ids are persisted in {@code revoked_token} and mirrored in an in-memory
+ * Bloom filter; only a filter hit, which is either a real revocation or a rare false positive,
+ * is confirmed against the table.
+ * <p>
+ * A revocation takes effect at once on the instance that made it. Other instances pick it up
+ * within {@code jwt.revocation.syncInterval} milliseconds (10 seconds by default), when they
+ * {@link #sync()} the ids revoked since their last look; until then they still accept the token.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+    private static final double FALSE_POSITIVE_RATE = 0.001;
+    // Reaches back past the last sync for revocations committed late or stamped by a skewed clock
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long expectedRevocations;
+    private final int purgeBatchSize;
+    private final Counter confirmations;
+    private final Lock rebuildLock = new ReentrantLock();
+
+    private volatile BloomFilter revoked;
+    private volatile BloomFilter rebuilding;
+    private Instant syncedAt;
+
+    public TokenRevocationService(
+            RevokedTokenRepository revokedTokenRepository,
+            RefreshTokenRepository refreshTokenRepository,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${jwt.revocation.expectedRevocations:100000}") long expectedRevocations,
+            @Value("${jwt.revocation.purgeBatchSize:500}") int purgeBatchSize
+    ) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.expectedRevocations = expectedRevocations;
+        this.purgeBatchSize = purgeBatchSize;
+        this.confirmations = Counter.builder("jwt.revocation.confirmations")
+                .description("Revocation filter hits that had to be confirmed against the database")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void init() {
+        rebuild();
+    }
+
+    public boolean isRevoked(String id) {
+        if (id == null || !revoked.mightContain(id)) {
+            return false;
+        }
+        confirmations.increment();
+        return revokedTokenRepository.existsById(id);
+    }
+
+    /**
+     * The in-memory half of {@link #isRevoked(String)}: false means not revoked, true means
+     * {@link #isRevoked(String)} has to ask the database. Lets non-blocking callers decide whether
+     * the check can stay on their thread.
+     */
+    public boolean mightBeRevoked(String id) {
+        return id != null && revoked.mightContain(id);
+    }
+
+    /**
+     * Revokes a token id or family id until {@code expiresAt}, after which no token it covers can
+     * be valid anyway.
+     */
+    public void revoke(String id, Instant expiresAt) {
+        revokedTokenRepository.save(new RevokedToken(id, expiresAt, Instant.now()));
+        revoked.put(id);
+        BloomFilter pending = rebuilding;
+        if (pending != null) {
+            pending.put(id);
+        }
+    }
+
+    /**
+     * Rebuilds the filter from the table. Besides dropping purged ids, this picks up revocations
+     * made by other instances. Rebuilds are serialized with a lock rather than a monitor: a
+     * virtual thread waiting on the table inside {@code synchronized} would pin its carrier.
+     */
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            Instant now = Instant.now();
+            long active = revokedTokenRepository.countByExpiresAtGreaterThanEqual(now);
+            BloomFilter next = new BloomFilter(Math.max(expectedRevocations, active * 2), FALSE_POSITIVE_RATE);
+            rebuilding = next;
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    try (Stream<String> ids = revokedTokenRepository.streamActiveIds(now)) {
+                        ids.forEach(next::put);
+                    }
+                });
+                revoked = next;
+                syncedAt = now;
+            } finally {
+                rebuilding = null;
+            }
+            log.debug("Rebuilt token revocation filter with {} active revocations", active);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /** Adds the ids revoked, on any instance, since the last sync or rebuild to the filter. */
+    @Scheduled(initialDelayString = "${jwt.revocation.syncInterval:10000}",
+            fixedDelayString = "${jwt.revocation.syncInterval:10000}")
+    public void sync() {
+        rebuildLock.lock();
+        try {
+            Instant now = Instant.now();
+            List<String> ids = revokedTokenRepository.findIdsRevokedSince(syncedAt.minus(SYNC_OVERLAP));
+            BloomFilter current = revoked;
+            ids.forEach(current::put);
+            syncedAt = now;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${jwt.revocation.purgeInterval:3600000}",
+            fixedDelayString = "${jwt.revocation.purgeInterval:3600000}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        long revokedPurged = purge(now, revokedTokenRepository::findExpiredIds, revokedTokenRepository::deleteAllByIdInBatch);
+        long refreshPurged = purge(now, refreshTokenRepository::findExpiredIds, refreshTokenRepository::deleteAllByIdInBatch);
+        if (revokedPurged + refreshPurged > 0) {
+            log.info("Purged {} expired revocations and {} expired refresh tokens", revokedPurged, refreshPurged);
+        }
+        rebuild();
+    }
+
+    private long purge(Instant now, ExpiredIdFinder finder, Consumer<List<String>> deleter) {
+        long purged = 0;
+        List<String> batch;
+        do {
+            batch = finder.find(now, PageRequest.of(0, purgeBatchSize));
+            if (!batch.isEmpty()) {
+                deleter.accept(batch);
+                purged += batch.size();
+            }
+        } while (batch.size() == purgeBatchSize);
+        return purged;
+    }
+
+    @FunctionalInterface
+    private interface ExpiredIdFinder {
+        List<String> find(Instant now, PageRequest pageable);
+    }
+}
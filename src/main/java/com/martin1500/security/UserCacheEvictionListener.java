@@ -0,0 +1,27 @@
+package com.martin1500.security;
+
+import com.martin1500.model.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Keeps {@link UserDetailsCache} coherent with changes made through the {@code User} entity. The
+ * entry is dropped as soon as the change is flushed and again after commit.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserCacheEvictionListener {
+
+    private final ObjectProvider<UserDetailsCache> userDetailsCache;
+
+    @PostUpdate
+    @PostRemove
+    public void onUserChanged(User user) {
+        userDetailsCache.getObject().evict(List.of(user.getId()));
+    }
+}
@@ -0,0 +1,128 @@
+package com.martin1500.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.martin1500.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, time-limited cache of {@code findByUsername} results. Entries are dropped by
+ * {@link UserCacheEvictionListener} whenever a user entity changes. Bulk JPQL or SQL updates of
+ * {@code users} bypass entity callbacks, so whoever runs one has to call {@link #evict(Collection)}
+ * with the affected ids.
+ */
+@Component
+public class UserDetailsCache {
+
+    private static final String CACHE_NAME = "users.details";
+
+    private final UserRepository userRepository;
+    private final Cache<String, UserPrincipal> cache;
+    // The username each cached user is held under, so invalidating by id is a lookup, not a scan
+    private final Map<Long, String> usernames = new ConcurrentHashMap<>();
+    // Bumped by every invalidation; a load that saw it move does not cache what it read
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public UserDetailsCache(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${users.cache.maximumSize:10000}") long maximumSize,
+            @Value("${users.cache.timeToLive:300000}") long timeToLive
+    ) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(timeToLive))
+                .evictionListener((String username, UserPrincipal principal, RemovalCause cause) -> {
+                    if (principal != null) {
+                        usernames.remove(principal.id(), username);
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the user with the given username, reading the database only on a cache miss.
+     * Unknown usernames are not cached, and neither is a row read while an invalidation ran, as it
+     * may predate the change that caused it.
+     */
+    public Optional<UserPrincipal> get(String username) {
+        Load load = new Load();
+        UserPrincipal cached = cache.get(username, name -> {
+            long invalidationsBefore = invalidations.get();
+            load.principal = userRepository.findByUsername(name).map(UserPrincipal::from).orElse(null);
+            if (load.principal == null) {
+                return null;
+            }
+            // Recorded before the check, so an invalidation the check misses finds this entry
+            load.previousUsername = usernames.put(load.principal.id(), name);
+            return invalidations.get() == invalidationsBefore ? load.principal : null;
+        });
+        // Other entries cannot be touched from within the load
+        if (load.previousUsername != null && !load.previousUsername.equals(username)) {
+            cache.invalidate(load.previousUsername);
+        }
+        return Optional.ofNullable(cached != null ? cached : load.principal);
+    }
+
+    /**
+     * Drops the entry of the given user. Looking it up by id rather than username also covers an
+     * entry cached under a username that has since been changed. A load still in flight either
+     * sees the invalidation and does not cache its row, or is waited for and dropped.
+     */
+    public void invalidate(Long userId) {
+        invalidations.incrementAndGet();
+        String username = usernames.remove(userId);
+        if (username != null) {
+            cache.invalidate(username);
+        }
+    }
+
+    /**
+     * Drops the entries of the given users now and again after the current transaction commits,
+     * so a concurrent reader cannot re-cache a row as it was before the commit.
+     */
+    public void evict(Collection<Long> userIds) {
+        userIds.forEach(this::invalidate);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<Long> ids = List.copyOf(userIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ids.forEach(UserDetailsCache.this::invalidate);
+                }
+            });
+        }
+    }
+
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        cache.invalidateAll();
+        usernames.clear();
+    }
+
+    private static final class Load {
+        private UserPrincipal principal;
+        private String previousUsername;
+    }
+}
@@ -0,0 +1,33 @@
+package com.martin1500.security;
+
+import com.martin1500.model.util.Role;
+
+import java.time.Instant;
+
+/**
+ * Claims of a JWT whose signature and expiration have already been checked. {@code tokenId},
+ * {@code userId}, {@code role} and {@code familyId} are absent on tokens issued before they were
+ * added to the claims.
+ */
+public record VerifiedToken(
+        String tokenId,
+        String username,
+        Long userId,
+        Role role,
+        String familyId,
+        boolean refreshToken,
+        Instant expiresAt
+) {
+
+    public boolean isExpired() {
+        return !expiresAt.isAfter(Instant.now());
+    }
+
+    public boolean hasUserClaims() {
+        return userId != null && role != null;
+    }
+
+    public UserPrincipal toPrincipal() {
+        return new UserPrincipal(userId, username, null, role);
+    }
+}
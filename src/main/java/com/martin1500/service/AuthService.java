@@ -4,6 +4,8 @@ import com.martin1500.dto.*;
 import com.martin1500.model.User;
 import com.martin1500.model.util.Role;
 import com.martin1500.repository.UserRepository;
+import com.martin1500.security.UserDetailsCache;
+import com.martin1500.security.UserPrincipal;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -17,7 +19,8 @@ import org.springframework.transaction.annotation.Transactional;
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final JwtService jwtService;
+    private final UserDetailsCache userDetailsCache;
+    private final RefreshTokenService refreshTokenService;
     private final AuthenticationManager authenticationManager;
     private final PasswordEncoder passwordEncoder;
 
@@ -26,10 +29,10 @@ public class AuthService {
                 new UsernamePasswordAuthenticationToken(request.username(), request.password())
         );
 
-        User user = userRepository.findByUsername(request.username())
+        UserPrincipal principal = userDetailsCache.get(request.username())
                 .orElseThrow(() -> new UsernameNotFoundException("Username Not Found."));
 
-        TokenPair tokenPair = jwtService.generateTokenPair(user.getUsername());
+        TokenPair tokenPair = refreshTokenService.issue(principal);
         return new AuthResponse(tokenPair.accessToken(), tokenPair.refreshToken());
     }
 
@@ -44,11 +47,16 @@ public class AuthService {
 
         userRepository.save(user);
 
-        TokenPair tokenPair = jwtService.generateTokenPair(user.getUsername());
+        TokenPair tokenPair = refreshTokenService.issue(UserPrincipal.from(user));
         return new AuthResponse(tokenPair.accessToken(), tokenPair.refreshToken());
     }
 
-    public String refreshToken(RefreshRequest request) {
-        return jwtService.refreshAccessToken(request.refreshToken());
+    public AuthResponse refreshToken(RefreshRequest request) {
+        TokenPair tokenPair = refreshTokenService.rotate(request.refreshToken());
+        return new AuthResponse(tokenPair.accessToken(), tokenPair.refreshToken());
+    }
+
+    public void logout(RefreshRequest request) {
+        refreshTokenService.logout(request.refreshToken());
     }
 }
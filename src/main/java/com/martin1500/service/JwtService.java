@@ -1,11 +1,17 @@
 package com.martin1500.service;
 import java.security.Key;
+import java.time.Duration;
 import java.util.*;
-import java.util.function.Function;
 
 import com.martin1500.dto.TokenPair;
 import com.martin1500.exception.MissingSecretKeyException;
+import com.martin1500.model.util.Role;
+import com.martin1500.security.TokenVerificationCache;
+import com.martin1500.security.UserPrincipal;
+import com.martin1500.security.VerifiedToken;
 import io.jsonwebtoken.*;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -15,9 +21,15 @@ import org.springframework.stereotype.Service;
 import io.jsonwebtoken.security.Keys;
 
 @Service
+@RequiredArgsConstructor
 public class JwtService {
 
     private static final int EXACT_LENGTH = 48;
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLE_CLAIM = "role";
+    private static final String FAMILY_CLAIM = "fam";
+    private static final String TYPE_CLAIM = "typ";
+    private static final String REFRESH_TYPE = "refresh";
     private static final Logger log = LoggerFactory.getLogger(JwtService.class);
 
     @Value("${jwt.secretKey:${JWT_SECRET_KEY}}")
@@ -29,16 +41,54 @@ public class JwtService {
     @Value("${jwt.refreshTokenExpiration:15552000000}")
     private long REFRESH_TOKEN_EXPIRATION;
 
-    public TokenPair generateTokenPair(String username) {
-        return new TokenPair(generateAccessToken(username), generateRefreshToken(username));
+    private final TokenVerificationCache verificationCache;
+
+    private Key signKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        signKey = buildSignKey();
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signKey)
+                .build();
+    }
+
+    /**
+     * Issues a token pair carrying the user id and role, so that authenticated requests can be
+     * served without looking the user up again. The pair starts a new token family.
+     */
+    public TokenPair generateTokenPair(UserPrincipal principal) {
+        return generateTokenPair(principal, UUID.randomUUID().toString());
     }
 
-    public String generateAccessToken(String username) {
-        return generateToken(Collections.emptyMap(), username, ACCESS_TOKEN_EXPIRATION);
+    /**
+     * Issues a token pair in an existing token family. Both tokens carry the family id, so that
+     * revoking the family also invalidates the access tokens issued with it.
+     */
+    public TokenPair generateTokenPair(UserPrincipal principal, String familyId) {
+        Map<String, Object> accessClaims = userClaims(principal.id(), principal.role());
+        accessClaims.put(FAMILY_CLAIM, familyId);
+        Map<String, Object> refreshClaims = new HashMap<>(accessClaims);
+        refreshClaims.put(TYPE_CLAIM, REFRESH_TYPE);
+        return new TokenPair(
+                generateToken(accessClaims, principal.username(), ACCESS_TOKEN_EXPIRATION),
+                generateToken(refreshClaims, principal.username(), REFRESH_TOKEN_EXPIRATION));
     }
 
-    public String generateRefreshToken(String username) {
-        return generateToken(Collections.emptyMap(), username, REFRESH_TOKEN_EXPIRATION);
+    public Duration getAccessTokenLifetime() {
+        return Duration.ofMillis(ACCESS_TOKEN_EXPIRATION);
+    }
+
+    private Map<String, Object> userClaims(Long userId, Role role) {
+        Map<String, Object> claims = new HashMap<>();
+        if (userId != null) {
+            claims.put(USER_ID_CLAIM, userId);
+        }
+        if (role != null) {
+            claims.put(ROLE_CLAIM, role.name());
+        }
+        return claims;
     }
 
     private String generateToken(Map<String, Object> claims, String username, long expirationTime) {
@@ -52,6 +102,7 @@ public class JwtService {
 
             return Jwts.builder()
                     .setClaims(claims)
+                    .setId(UUID.randomUUID().toString())
                     .setSubject(username)
                     .setIssuedAt(now)
                     .setExpiration(expiryDate)
@@ -64,6 +115,10 @@ public class JwtService {
     }
 
     private Key getSignKey() {
+        return signKey;
+    }
+
+    private Key buildSignKey() {
         if (secretKey == null) {
             throw new MissingSecretKeyException("The JWT_SECRET_KEY environment variable must be set.");
         }
@@ -74,50 +129,48 @@ public class JwtService {
         return Keys.hmacShaKeyFor(Base64.getDecoder().decode(secretKey));
     }
 
+    /**
+     * Verifies the token's signature and expiration, parsing it at most once while it stays in
+     * the verification cache.
+     *
+     * @throws JwtException if the token is malformed, tampered with or expired.
+     */
+    public VerifiedToken verifyToken(String token) {
+        return verificationCache.get(token, this::parseToken);
+    }
+
+    private VerifiedToken parseToken(String token) {
+        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        if (claims.getExpiration() == null) {
+            // Every token issued here expires; one that does not was not issued here.
+            throw new MalformedJwtException("Token has no expiration");
+        }
+        String role = claims.get(ROLE_CLAIM, String.class);
+        return new VerifiedToken(
+                claims.getId(),
+                claims.getSubject(),
+                claims.get(USER_ID_CLAIM, Long.class),
+                role != null ? Role.valueOf(role) : null,
+                claims.get(FAMILY_CLAIM, String.class),
+                REFRESH_TYPE.equals(claims.get(TYPE_CLAIM, String.class)),
+                claims.getExpiration().toInstant());
+    }
+
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verifyToken(token).username();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
         try {
-            final String username = extractUsername(token);
-            return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
+            final VerifiedToken verified = verifyToken(token);
+            return verified.username().equals(userDetails.getUsername()) && !verified.isExpired();
         } catch (Exception e) {
             log.warn("Invalid JWT token: {}", e.getMessage());
             return false;
         }
     }
 
-    public String refreshAccessToken(String refreshToken) {
-        try {
-            if (isTokenExpired(refreshToken)) {
-                throw new JwtException("Refresh token has expired");
-            }
-            String username = extractUsername(refreshToken);
-            return generateAccessToken(username);
-        } catch (ExpiredJwtException e) {
-            throw new JwtException("Refresh token has expired");
-        }
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
-
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+        return Date.from(verifyToken(token).expiresAt());
     }
 }
\ No newline at end of file
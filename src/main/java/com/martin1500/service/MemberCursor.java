@@ -0,0 +1,35 @@
+package com.martin1500.service;
+
+import com.martin1500.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque cursor over a project's members: the id of the last member of the previous page.
+ */
+final class MemberCursor {
+
+    private MemberCursor() {
+    }
+
+    static String encode(long userId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Long.toString(userId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Returns the id members must come after; 0 for the first page. */
+    static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            long userId = Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+            if (userId < 0) {
+                throw new InvalidCursorException("Invalid cursor: " + cursor);
+            }
+            return userId;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.martin1500.service;
 
+import com.martin1500.dto.MemberPage;
 import com.martin1500.dto.ProjectDTO;
+import com.martin1500.dto.ProjectDeletionDTO;
+import com.martin1500.model.util.TaskDisposition;
 
 import java.util.List;
 
@@ -9,7 +12,36 @@ public interface ProjectService {
     List<ProjectDTO> getProjectsForCurrentUser();
     ProjectDTO getProjectById(Long id);
     ProjectDTO updateProject(Long id, ProjectDTO dto);
-    void deleteProject(Long id);
+
+    /**
+     * Pages through the project's members by user id.
+     *
+     * @param cursor The {@code nextCursor} of the previous page, or null for the first page.
+     * @param size The page size; null for the default, capped at the configured maximum.
+     */
+    MemberPage getMembers(Long projectId, String cursor, Integer size);
+
+    /**
+     * Queues the project for deletion in the background and returns at once. While a deletion of
+     * the project is pending or running, that deletion is returned instead of queueing another,
+     * or a {@link com.martin1500.exception.ConflictException} thrown if it treats tasks differently.
+     *
+     * @param tasks Whether the project's tasks are deleted or kept without a project.
+     */
+    ProjectDeletionDTO deleteProject(Long id, TaskDisposition tasks);
+
+    /** The state of the latest deletion requested for the project. */
+    ProjectDeletionDTO getDeletion(Long projectId);
+
     ProjectDTO addMember(Long projectId, Long userId);
     ProjectDTO removeMember(Long projectId, Long userId);
+
+    /**
+     * Adds all the given users to the project's members, skipping existing members. Only
+     * {@code project_members} rows are written; the membership is never loaded.
+     */
+    ProjectDTO addMembers(Long projectId, List<Long> userIds);
+
+    /** Removes all the given users from the project's members. */
+    ProjectDTO removeMembers(Long projectId, List<Long> userIds);
 }
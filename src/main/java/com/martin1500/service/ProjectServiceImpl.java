@@ -1,14 +1,30 @@
 package com.martin1500.service;
 
+import com.martin1500.dto.MemberDTO;
+import com.martin1500.dto.MemberPage;
 import com.martin1500.dto.ProjectDTO;
+import com.martin1500.dto.ProjectDeletionDTO;
+import com.martin1500.dto.UserIdsDTO;
+import com.martin1500.deletion.ProjectDeletionWorker;
+import com.martin1500.exception.BulkUpdateTooLargeException;
+import com.martin1500.exception.ConflictException;
+import com.martin1500.exception.ResourceNotFoundException;
 import com.martin1500.model.Project;
+import com.martin1500.model.ProjectDeletion;
 import com.martin1500.model.User;
+import com.martin1500.model.util.DeletionStatus;
+import com.martin1500.model.util.TaskDisposition;
+import com.martin1500.repository.ProjectDeletionRepository;
 import com.martin1500.repository.ProjectRepository;
 import com.martin1500.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -18,63 +34,152 @@ public class ProjectServiceImpl implements ProjectService{
     private final ProjectRepository projectRepository;
     private final UserRepository userRepository;
     private final UserContextService userContextService;
+    private final ProjectDeletionRepository projectDeletionRepository;
+    private final ProjectDeletionWorker projectDeletionWorker;
+
+    @Value("${projects.members.previewSize:5}")
+    private int memberPreviewSize;
+
+    @Value("${projects.members.page.defaultSize:50}")
+    private int defaultMemberPageSize;
+
+    @Value("${projects.members.page.maxSize:500}")
+    private int maxMemberPageSize;
 
     @Override
+    @Transactional
     public ProjectDTO createProject(ProjectDTO dto) {
         User authenticatedUser = userContextService.getAuthenticatedUser();
 
         Project project = new Project();
         project.setName(dto.getName());
         project.getMembers().add(authenticatedUser);
-        return mapToDTO(projectRepository.save(project));
+        Project createdProject = projectRepository.save(project);
+        // The creator is the only member, so the summary needs no query.
+        return ProjectDTO.builder()
+                .id(createdProject.getId())
+                .name(createdProject.getName())
+                .memberCount(1L)
+                .memberPreview(List.of(new MemberDTO(authenticatedUser.getId(), authenticatedUser.getUsername())))
+                .build();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ProjectDTO> getProjectsForCurrentUser() {
-        User authenticatedUser = userContextService.getAuthenticatedUser();
-        return projectRepository.findByMembersContaining(authenticatedUser).stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        return projectRepository.findSummariesByMemberId(userContextService.getAuthenticatedUserId(), memberPreviewSize);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ProjectDTO getProjectById(Long id) {
-        return mapToDTO(projectRepository.findById(id).orElseThrow());
+        return findSummary(id);
     }
 
     @Override
+    @Transactional
     public ProjectDTO updateProject(Long id, ProjectDTO dto) {
-        Project project = projectRepository.findById(id).orElseThrow();
+        Project project = projectRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Project not found with id: " + id));
         project.setName(dto.getName());
-        return mapToDTO(projectRepository.save(project));
+        projectRepository.saveAndFlush(project);
+        return findSummary(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public MemberPage getMembers(Long projectId, String cursor, Integer size) {
+        int pageSize = Math.max(1, Math.min(size == null ? defaultMemberPageSize : size, maxMemberPageSize));
+        // One row past the page tells whether another page follows.
+        List<MemberDTO> members = projectRepository.findMembers(projectId, MemberCursor.decode(cursor), Limit.of(pageSize + 1));
+        if (members.isEmpty() && projectRepository.findById(projectId).isEmpty()) {
+            throw new ResourceNotFoundException("Project not found with id: " + projectId);
+        }
+        if (members.size() <= pageSize) {
+            return new MemberPage(members, null);
+        }
+        List<MemberDTO> page = members.subList(0, pageSize);
+        return new MemberPage(page, MemberCursor.encode(page.get(pageSize - 1).id()));
+    }
+
+    @Override
+    @Transactional
+    public ProjectDeletionDTO deleteProject(Long id, TaskDisposition tasks) {
+        Optional<ProjectDeletion> latest = projectDeletionRepository.findFirstByProjectIdOrderByIdDesc(id);
+        if (latest.isPresent() && !latest.get().getStatus().isFinished()) {
+            if (latest.get().getTasks() != tasks) {
+                throw new ConflictException("Project " + id + " is already being deleted with tasks="
+                        + latest.get().getTasks());
+            }
+            return ProjectDeletionDTO.of(latest.get());
+        }
+        if (projectRepository.findById(id).isEmpty()) {
+            throw new ResourceNotFoundException("Project not found with id: " + id);
+        }
+        ProjectDeletion deletion = projectDeletionRepository.save(ProjectDeletion.builder()
+                .projectId(id)
+                .tasks(tasks)
+                .status(DeletionStatus.PENDING)
+                .build());
+        projectDeletionWorker.wakeAfterCommit();
+        return ProjectDeletionDTO.of(deletion);
     }
 
     @Override
-    public void deleteProject(Long id) {
-        projectRepository.deleteById(id);
+    @Transactional(readOnly = true)
+    public ProjectDeletionDTO getDeletion(Long projectId) {
+        return projectDeletionRepository.findFirstByProjectIdOrderByIdDesc(projectId)
+                .map(ProjectDeletionDTO::of)
+                .orElseThrow(() -> new ResourceNotFoundException("No deletion requested for project: " + projectId));
     }
 
     @Override
+    @Transactional
     public ProjectDTO addMember(Long projectId, Long userId) {
-        Project project = projectRepository.findById(projectId).orElseThrow();
-        User user = userRepository.findById(userId).orElseThrow();
-        project.getMembers().add(user);
-        return mapToDTO(projectRepository.save(project));
+        return addMembers(projectId, List.of(userId));
     }
 
     @Override
+    @Transactional
     public ProjectDTO removeMember(Long projectId, Long userId) {
-        Project project = projectRepository.findById(projectId).orElseThrow();
-        User user = userRepository.findById(userId).orElseThrow();
-        project.getMembers().remove(user);
-        return mapToDTO(projectRepository.save(project));
+        return removeMembers(projectId, List.of(userId));
     }
 
-    private ProjectDTO mapToDTO(Project project) {
-        return ProjectDTO.builder()
-                .id(project.getId())
-                .name(project.getName())
-                .members(project.getMembers())
-                .build();
+    @Override
+    @Transactional
+    public ProjectDTO addMembers(Long projectId, List<Long> userIds) {
+        Project project = findForMembershipChange(projectId, userIds);
+        projectRepository.addMembers(projectId, userIds);
+        return findSummary(project.getId());
+    }
+
+    @Override
+    @Transactional
+    public ProjectDTO removeMembers(Long projectId, List<Long> userIds) {
+        Project project = findForMembershipChange(projectId, userIds);
+        projectRepository.removeMembers(projectId, userIds);
+        return findSummary(project.getId());
+    }
+
+    /**
+     * Loads the project, usually from the second-level cache, and checks that every user exists.
+     */
+    private Project findForMembershipChange(Long projectId, List<Long> userIds) {
+        if (userIds.size() > UserIdsDTO.MAX_USERS) {
+            throw new BulkUpdateTooLargeException("At most " + UserIdsDTO.MAX_USERS + " users per request");
+        }
+        Project project = projectRepository.findById(projectId)
+                .orElseThrow(() -> new ResourceNotFoundException("Project not found with id: " + projectId));
+        List<Long> missing = userRepository.findMissingIds(userIds);
+        if (!missing.isEmpty()) {
+            throw new ResourceNotFoundException("User not found with id: "
+                    + missing.stream().map(String::valueOf).collect(Collectors.joining(", ")));
+        }
+        return project;
+    }
+
+    private ProjectDTO findSummary(Long id) {
+        return projectRepository.findSummaryById(id, memberPreviewSize)
+                .orElseThrow(() -> new ResourceNotFoundException("Project not found with id: " + id));
     }
 }
@@ -0,0 +1,107 @@
+package com.martin1500.service;
+
+import com.martin1500.dto.TokenPair;
+import com.martin1500.model.RefreshToken;
+import com.martin1500.repository.RefreshTokenRepository;
+import com.martin1500.security.TokenRevocationService;
+import com.martin1500.security.UserDetailsCache;
+import com.martin1500.security.UserPrincipal;
+import com.martin1500.security.VerifiedToken;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final JwtService jwtService;
+    private final TokenRevocationService tokenRevocationService;
+    private final UserDetailsCache userDetailsCache;
+
+    /**
+     * Issues a token pair that starts a new token family, e.g. on login.
+     */
+    @Transactional
+    public TokenPair issue(UserPrincipal principal) {
+        return issueInFamily(principal, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Exchanges a refresh token for a new token pair in the same family. A refresh token can be
+     * exchanged only once: presenting it again is treated as a replay and revokes the whole family,
+     * including the pair issued by the legitimate rotation.
+     */
+    @Transactional(noRollbackFor = JwtException.class)
+    public TokenPair rotate(String refreshToken) {
+        VerifiedToken verified = verifyRefreshToken(refreshToken);
+        RefreshToken stored = refreshTokenRepository.findForUpdate(verified.tokenId())
+                .orElseThrow(() -> new JwtException("Refresh token has been revoked"));
+
+        if (stored.isRevoked() || stored.getUsedAt() != null) {
+            log.warn("Refresh token reuse detected for user {}, revoking token family", stored.getUserId());
+            revokeFamily(stored.getFamilyId());
+            throw new JwtException("Refresh token has been revoked");
+        }
+        stored.setUsedAt(Instant.now());
+
+        UserPrincipal principal = userDetailsCache.get(verified.username())
+                .filter(user -> user.id().equals(stored.getUserId()))
+                .orElseThrow(() -> new JwtException("Refresh token has been revoked"));
+        return issueInFamily(principal, stored.getFamilyId());
+    }
+
+    /**
+     * Ends the session the refresh token belongs to. Access tokens of the same family stop being
+     * accepted immediately.
+     */
+    @Transactional
+    public void logout(String refreshToken) {
+        try {
+            VerifiedToken verified = verifyRefreshToken(refreshToken);
+            revokeFamily(verified.familyId());
+        } catch (JwtException e) {
+            log.debug("Ignoring logout with an unusable refresh token: {}", e.getMessage());
+        }
+    }
+
+    private void revokeFamily(String familyId) {
+        refreshTokenRepository.revokeFamily(familyId);
+        tokenRevocationService.revoke(familyId, Instant.now().plus(jwtService.getAccessTokenLifetime()));
+    }
+
+    private VerifiedToken verifyRefreshToken(String refreshToken) {
+        VerifiedToken verified;
+        try {
+            verified = jwtService.verifyToken(refreshToken);
+        } catch (ExpiredJwtException e) {
+            throw new JwtException("Refresh token has expired");
+        }
+        if (!verified.refreshToken() || verified.tokenId() == null || verified.familyId() == null) {
+            throw new JwtException("Invalid refresh token");
+        }
+        return verified;
+    }
+
+    private TokenPair issueInFamily(UserPrincipal principal, String familyId) {
+        TokenPair tokenPair = jwtService.generateTokenPair(principal, familyId);
+        VerifiedToken refresh = jwtService.verifyToken(tokenPair.refreshToken());
+        refreshTokenRepository.save(RefreshToken.builder()
+                .id(refresh.tokenId())
+                .familyId(familyId)
+                .userId(principal.id())
+                .expiresAt(refresh.expiresAt())
+                .build());
+        return tokenPair;
+    }
+}
@@ -0,0 +1,76 @@
+package com.martin1500.service;
+
+import com.martin1500.dto.TaskDTO;
+import com.martin1500.exception.InvalidCursorException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Opaque cursor over the keyset a task page is sorted by: the values of the last task's sort
+ * properties, in sort order. A cursor is only valid with the sort it was issued for.
+ */
+final class TaskCursor {
+
+    private static final String SEPARATOR = ",";
+
+    private TaskCursor() {
+    }
+
+    static String encode(TaskDTO task, Sort sort) {
+        String raw = sort.stream()
+                .map(order -> String.valueOf(TaskSortKey.of(order.getProperty()).valueOf(task)))
+                .collect(Collectors.joining(SEPARATOR));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static KeysetScrollPosition decode(String cursor, Sort sort) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, -1);
+            List<Sort.Order> orders = sort.toList();
+            if (parts.length != orders.size()) {
+                throw new InvalidCursorException("Invalid cursor: " + cursor);
+            }
+            Map<String, Object> keys = new LinkedHashMap<>();
+            for (int i = 0; i < parts.length; i++) {
+                String property = orders.get(i).getProperty();
+                keys.put(property, TaskSortKey.of(property).parse(parts[i]));
+            }
+            return ScrollPosition.forward(keys);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+    }
+
+    /** Ranked results have no keyset, so their cursor is the offset of the next page. */
+    static String encodeOffset(int offset) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Integer.toString(offset).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static int decodeOffset(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            int offset = Integer.parseInt(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+            if (offset < 0) {
+                throw new InvalidCursorException("Invalid cursor: " + cursor);
+            }
+            return offset;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+    }
+}
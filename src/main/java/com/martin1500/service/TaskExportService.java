@@ -0,0 +1,135 @@
+package com.martin1500.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.martin1500.dto.TaskDTO;
+import com.martin1500.model.Task;
+import com.martin1500.model.User;
+import com.martin1500.repository.TaskRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams the current user's tasks straight from a database cursor to the response. Rows are
+ * written as they are read and the persistence context is cleared every {@code clearInterval}
+ * rows, so memory use does not grow with the size of the export.
+ */
+@Service
+public class TaskExportService {
+
+    private static final String CSV_HEADER = "id,title,description,status,priority,dueDate,createdAt,updatedAt,projectId,comments";
+
+    private final TaskRepository taskRepository;
+    private final UserContextService userContextService;
+    private final EntityManager entityManager;
+    private final ObjectWriter taskWriter;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int clearInterval;
+
+    public TaskExportService(
+            TaskRepository taskRepository,
+            UserContextService userContextService,
+            EntityManager entityManager,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${tasks.export.clearInterval:1000}") int clearInterval
+    ) {
+        this.taskRepository = taskRepository;
+        this.userContextService = userContextService;
+        this.entityManager = entityManager;
+        this.taskWriter = objectMapper.writerFor(TaskDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.clearInterval = clearInterval;
+    }
+
+    /**
+     * Resolves the authenticated user on the calling thread and returns a body that, when
+     * written, streams that user's tasks (optionally limited to one project) in the given format.
+     */
+    public StreamingResponseBody export(TaskExportFormat format, Long projectId) {
+        User authenticatedUser = userContextService.getAuthenticatedUserReference();
+        return outputStream -> readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<Task> tasks = projectId == null
+                    ? taskRepository.streamByCreatedBy(authenticatedUser)
+                    : taskRepository.streamByProjectIdAndCreatedBy(projectId, authenticatedUser)) {
+                switch (format) {
+                    case NDJSON -> writeNdjson(tasks.iterator(), outputStream);
+                    case CSV -> writeCsv(tasks.iterator(), outputStream);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void writeNdjson(Iterator<Task> tasks, OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = taskWriter.getFactory().createGenerator(outputStream)) {
+            int rows = 0;
+            while (tasks.hasNext()) {
+                taskWriter.writeValue(generator, TaskServiceImpl.taskToTaskDTO(tasks.next()));
+                generator.writeRaw('\n');
+                if (++rows % clearInterval == 0) {
+                    entityManager.clear();
+                    generator.flush();
+                }
+            }
+        }
+    }
+
+    private void writeCsv(Iterator<Task> tasks, OutputStream outputStream) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8))) {
+            writer.write(CSV_HEADER);
+            writer.write("\r\n");
+            int rows = 0;
+            while (tasks.hasNext()) {
+                writeCsvRow(tasks.next(), writer);
+                if (++rows % clearInterval == 0) {
+                    entityManager.clear();
+                    writer.flush();
+                }
+            }
+        }
+    }
+
+    private static void writeCsvRow(Task task, Writer writer) throws IOException {
+        Object[] values = {
+                task.getId(), task.getTitle(), task.getDescription(), task.getStatus(), task.getPriority(),
+                task.getDueDate(), task.getCreatedAt(), task.getUpdatedAt(),
+                task.getProject() == null ? null : task.getProject().getId(), task.getComments()
+        };
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writer.write(csvField(values[i].toString()));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,71 @@
+package com.martin1500.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.martin1500.dto.TaskDTO;
+import com.martin1500.exception.InvalidPatchException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Applies a JSON Merge Patch (RFC 7386) to a task: fields present in the patch replace the task's
+ * values, {@code null} clears them, and absent fields are left alone.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskMergePatch {
+
+    static final Set<String> EDITABLE_FIELDS = Set.of("title", "description", "status", "priority", "dueDate",
+            "comments", "projectId");
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    /**
+     * Returns {@code task} with {@code patch} applied. Only the patched fields are validated, so an
+     * overdue task can still be renamed without moving its due date.
+     */
+    TaskDTO apply(TaskDTO task, JsonNode patch) {
+        if (patch == null || !patch.isObject()) {
+            throw new InvalidPatchException("A merge patch must be a JSON object");
+        }
+        List<String> fields = new ArrayList<>();
+        for (Iterator<String> names = patch.fieldNames(); names.hasNext(); ) {
+            String field = names.next();
+            if (!EDITABLE_FIELDS.contains(field)) {
+                throw new InvalidPatchException("Field cannot be patched: " + field);
+            }
+            fields.add(field);
+        }
+
+        TaskDTO patched;
+        try {
+            patched = objectMapper.readerForUpdating(task).readValue(patch);
+        } catch (JsonProcessingException e) {
+            throw new InvalidPatchException("Invalid merge patch: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (String field : fields) {
+            Set<ConstraintViolation<TaskDTO>> violations = validator.validateProperty(patched, field);
+            if (!violations.isEmpty()) {
+                throw new InvalidPatchException(field + ": " + violations.iterator().next().getMessage());
+            }
+        }
+        // Tasks may have no project, but a patch cannot take one away.
+        if (fields.contains("projectId") && patched.getProjectId() == null) {
+            throw new InvalidPatchException("projectId: Project cannot be null");
+        }
+        return patched;
+    }
+}
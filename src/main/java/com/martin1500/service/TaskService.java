@@ -1,9 +1,16 @@
 package com.martin1500.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.martin1500.dto.TaskBulkUpdateDTO;
+import com.martin1500.dto.TaskBulkUpdateResultDTO;
 import com.martin1500.dto.TaskCreateDTO;
 import com.martin1500.dto.TaskDTO;
+import com.martin1500.dto.TaskPage;
+import com.martin1500.dto.TaskStatsDTO;
 import com.martin1500.model.util.Priority;
 import com.martin1500.model.util.Status;
+import com.martin1500.repository.TaskFilter;
+import org.springframework.data.domain.Sort;
 
 import java.util.List;
 
@@ -17,13 +24,41 @@ public interface TaskService {
     **/
     TaskDTO createTask(TaskCreateDTO taskCreateDTO);
 
+    /**
+     * Creates all the given tasks in one transaction, looking up each referenced project once.
+     *
+     * @return The created tasks, in the order given.
+     **/
+    List<TaskDTO> createTasks(List<TaskCreateDTO> taskCreateDTOs);
+
     List<TaskDTO> getTasksForCurrentUser();
 
     TaskDTO getTaskById(Long id);
 
-    TaskDTO updateTask(Long id, TaskDTO taskDTO);
+    default TaskDTO updateTask(Long id, TaskDTO taskDTO) {
+        return updateTask(id, taskDTO, null);
+    }
+
+    /**
+     * @param requiredVersion The version the task must be at for the update to apply, or null for
+     *                        any; otherwise a {@link com.martin1500.exception.PreconditionFailedException} is thrown.
+     **/
+    TaskDTO updateTask(Long id, TaskDTO taskDTO, Long requiredVersion);
+
+    /**
+     * Applies a JSON Merge Patch to one of the current user's tasks. Only the columns whose value
+     * changes are written, and a patch that changes nothing writes nothing.
+     *
+     * @param requiredVersion As for {@link #updateTask(Long, TaskDTO, Long)}.
+     **/
+    TaskDTO patchTask(Long id, JsonNode patch, Long requiredVersion);
+
+    default TaskDTO updateTaskStatus(Long id, Status status) {
+        return updateTaskStatus(id, status, null);
+    }
 
-    TaskDTO updateTaskStatus(Long id, Status status);
+    /** @param requiredVersion As for {@link #updateTask(Long, TaskDTO, Long)}. */
+    TaskDTO updateTaskStatus(Long id, Status status, Long requiredVersion);
 
     List<TaskDTO> getTasksByStatus(Status status);
 
@@ -32,6 +67,62 @@ public interface TaskService {
     List<TaskDTO> getOverdueTasks();
 
     List<TaskDTO> getTasksByProject(Long projectId);
+
+    /**
+     * Paged counterparts of the list methods above, ordered by due date and id.
+     *
+     * @param cursor The {@code nextCursor} of the previous page, or null for the first page.
+     * @param size The page size; null for the default, capped at the configured maximum.
+     **/
+    TaskPage getTasksForCurrentUser(String cursor, Integer size);
+
+    TaskPage getTasksByStatus(Status status, String cursor, Integer size);
+
+    TaskPage getTasksByPriority(Priority priority, String cursor, Integer size);
+
+    TaskPage getOverdueTasks(String cursor, Integer size);
+
+    TaskPage getTasksByProject(Long projectId, String cursor, Integer size);
+
+    /**
+     * Pages through the tasks matching every non-null part of {@code filter} in one query.
+     *
+     * @param sort Any of dueDate, priority, createdAt and id; unsorted means by due date. Ties are
+     *             broken by id, and a cursor only continues the sort it was issued for.
+     **/
+    TaskPage searchTasks(TaskFilter filter, Sort sort, String cursor, Integer size);
+
+    /**
+     * Full-text search over the current user's task titles, descriptions and comments, best match
+     * first. Every word of {@code query} must occur in a result.
+     *
+     * @param projectId Restricts results to one project, or null for all.
+     **/
+    TaskPage searchText(String query, Long projectId, String cursor, Integer size);
+
+    /**
+     * Counts of the current user's tasks by status and priority, plus the overdue count.
+     *
+     * @param projectId Restricts the counts to one project, or null for all.
+     **/
+    TaskStatsDTO getTaskStats(Long projectId);
+
+    /**
+     * Applies the same changes to many of the current user's tasks in one transaction. Tasks that
+     * already have the requested values are not written.
+     **/
+    TaskBulkUpdateResultDTO bulkUpdate(TaskBulkUpdateDTO bulkUpdateDTO);
+
     TaskDTO addAssignee(Long taskId, Long userId);
     TaskDTO removeAssignee(Long taskId, Long userId);
+
+    /**
+     * Assigns all the given users to one of the current user's tasks and adds them to its project's
+     * members. Users already assigned are skipped. Only join table rows are written, so the time
+     * taken does not depend on how many assignees or members there already are.
+     **/
+    TaskDTO addAssignees(Long taskId, List<Long> userIds);
+
+    /** Unassigns all the given users from one of the current user's tasks. **/
+    TaskDTO removeAssignees(Long taskId, List<Long> userIds);
 }
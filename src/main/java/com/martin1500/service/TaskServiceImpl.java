@@ -1,24 +1,54 @@
 package com.martin1500.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.martin1500.dto.TaskBulkUpdateDTO;
+import com.martin1500.dto.TaskBulkUpdateResultDTO;
 import com.martin1500.dto.TaskCreateDTO;
 import com.martin1500.dto.TaskDTO;
+import com.martin1500.dto.TaskPage;
+import com.martin1500.dto.TaskStatsDTO;
+import com.martin1500.dto.UserIdsDTO;
+import com.martin1500.event.TaskChangePublisher;
+import com.martin1500.event.TaskChangedEvent;
+import com.martin1500.event.TaskSnapshot;
+import com.martin1500.exception.BulkUpdateTooLargeException;
+import com.martin1500.exception.PreconditionFailedException;
 import com.martin1500.exception.ResourceNotFoundException;
 import com.martin1500.model.Project;
 import com.martin1500.model.Task;
 import com.martin1500.model.User;
 import com.martin1500.model.util.Priority;
 import com.martin1500.model.util.Status;
+import com.martin1500.overdue.OverdueTask;
+import com.martin1500.overdue.OverdueTaskIndex;
 import com.martin1500.repository.ProjectRepository;
+import com.martin1500.repository.TaskChanges;
+import com.martin1500.repository.TaskFilter;
 import com.martin1500.repository.TaskRepository;
+import com.martin1500.repository.TaskRepositoryCustom;
 import com.martin1500.repository.UserRepository;
+import com.martin1500.search.TaskSearchHits;
+import com.martin1500.search.TaskSearchIndex;
+import com.martin1500.stats.TaskCount;
+import com.martin1500.stats.TaskCounters;
+import com.martin1500.stats.TaskCounts;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,34 +59,110 @@ public class TaskServiceImpl implements TaskService {
     private final UserRepository userRepository;
     private final ProjectRepository projectRepository;
     private final UserContextService userContextService;
+    private final TaskSearchIndex taskSearchIndex;
+    private final OverdueTaskIndex overdueTaskIndex;
+    private final TaskCounters taskCounters;
+    private final TaskChangePublisher taskChangePublisher;
+    private final TaskMergePatch taskMergePatch;
+
+    @Value("${tasks.page.defaultSize:50}")
+    private int defaultPageSize;
+
+    @Value("${tasks.page.maxSize:500}")
+    private int maxPageSize;
 
     @Override
     @Transactional
     public TaskDTO createTask(TaskCreateDTO taskCreateDTO) {
-        User authenticatedUser = userContextService.getAuthenticatedUser();
-        Task newTask = taskCreateDTOtoTask(taskCreateDTO);
-        newTask.setProject(projectRepository.findById(taskCreateDTO.projectId())
-                .orElseThrow(() -> new ResourceNotFoundException("Project not found with id: " + taskCreateDTO.projectId())));
-        newTask.setCreatedBy(authenticatedUser);
-        newTask.setTitle(taskCreateDTO.title());
-        newTask.setStatus(Status.PENDING);
-        newTask.setPriority(taskCreateDTO.priority());
-
-        Task createdTask = taskRepository.save(newTask);
+        User authenticatedUser = userContextService.getAuthenticatedUserReference();
+        Project project = projectRepository.findById(taskCreateDTO.projectId())
+                .orElseThrow(() -> new ResourceNotFoundException("Project not found with id: " + taskCreateDTO.projectId()));
+
+        Task createdTask = taskRepository.save(newTask(taskCreateDTO, project, authenticatedUser));
         return taskToTaskDTO(createdTask);
     }
 
     @Override
-    public List<TaskDTO> getTasksForCurrentUser() {
-        User authenticatedUser = userContextService.getAuthenticatedUser();
-        List<Task> tasks = taskRepository.findByCreatedByOrderByPriorityAscDueDateAsc(authenticatedUser);
+    @Transactional
+    public List<TaskDTO> createTasks(List<TaskCreateDTO> taskCreateDTOs) {
+        User authenticatedUser = userContextService.getAuthenticatedUserReference();
+        Set<Long> projectIds = taskCreateDTOs.stream()
+                .map(TaskCreateDTO::projectId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Project> projects = projectRepository.findAllById(projectIds).stream()
+                .collect(Collectors.toMap(Project::getId, Function.identity()));
+
+        List<Task> newTasks = new ArrayList<>(taskCreateDTOs.size());
+        for (TaskCreateDTO taskCreateDTO : taskCreateDTOs) {
+            Project project = projects.get(taskCreateDTO.projectId());
+            if (project == null) {
+                throw new ResourceNotFoundException("Project not found with id: " + taskCreateDTO.projectId());
+            }
+            newTasks.add(newTask(taskCreateDTO, project, authenticatedUser));
+        }
+        // Ids are assigned here; the inserts themselves are sent in JDBC batches when the transaction flushes.
+        return convertTasksToDTOs(taskRepository.saveAll(newTasks));
+    }
+
+    @Override
+    @Transactional
+    public TaskBulkUpdateResultDTO bulkUpdate(TaskBulkUpdateDTO bulkUpdateDTO) {
+        User authenticatedUser = userContextService.getAuthenticatedUserReference();
+        TaskChanges changes = bulkUpdateDTO.changes();
+        if (changes.projectId() != null && !projectRepository.existsById(changes.projectId())) {
+            throw new ResourceNotFoundException("Project not found with id: " + changes.projectId());
+        }
+
+        List<TaskSnapshot> selected;
+        if (bulkUpdateDTO.ids() != null) {
+            selected = taskRepository.lockSnapshots(authenticatedUser, bulkUpdateDTO.ids());
+        } else {
+            selected = taskRepository.lockSnapshots(authenticatedUser, bulkUpdateDTO.filter(), TaskBulkUpdateDTO.MAX_TASKS + 1);
+            if (selected.size() > TaskBulkUpdateDTO.MAX_TASKS) {
+                throw new BulkUpdateTooLargeException("Filter matches more than " + TaskBulkUpdateDTO.MAX_TASKS + " tasks");
+            }
+        }
+
+        Map<Long, TaskBulkUpdateResultDTO.Result> results = new HashMap<>();
+        List<TaskChangedEvent> events = new ArrayList<>();
+        for (TaskSnapshot before : selected) {
+            TaskSnapshot after = applyChanges(before, changes);
+            if (after.equals(before)) {
+                results.put(before.id(), TaskBulkUpdateResultDTO.Result.UNCHANGED);
+            } else {
+                results.put(before.id(), TaskBulkUpdateResultDTO.Result.UPDATED);
+                events.add(new TaskChangedEvent(before, after));
+            }
+        }
+        if (!events.isEmpty()) {
+            taskRepository.updateTasks(authenticatedUser,
+                    events.stream().map(event -> event.after().id()).toList(), changes);
+            // The UPDATE bypasses the entity listener, so the in-memory views are told here.
+            events.forEach(taskChangePublisher::publishAfterCommit);
+        }
+
+        List<Long> ids = bulkUpdateDTO.ids() != null
+                ? bulkUpdateDTO.ids().stream().distinct().toList()
+                : selected.stream().map(TaskSnapshot::id).toList();
+        List<TaskBulkUpdateResultDTO.Outcome> outcomes = ids.stream()
+                .map(id -> new TaskBulkUpdateResultDTO.Outcome(id,
+                        results.getOrDefault(id, TaskBulkUpdateResultDTO.Result.NOT_FOUND)))
+                .toList();
+        return new TaskBulkUpdateResultDTO(events.size(), outcomes);
+    }
 
-        return convertTasksToDTOs(tasks);
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskDTO> getTasksForCurrentUser() {
+        User authenticatedUser = userContextService.getAuthenticatedUserReference();
+        return taskRepository.findDTOsByCreatedBy(authenticatedUser);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public TaskDTO getTaskById(Long id) {
-        User authenticatedUser = userContextService.getAuthenticatedUser();
+        User authenticatedUser = userContextService.getAuthenticatedUserReference();
         Task task = taskRepository.findByIdAndCreatedBy(id, authenticatedUser)
                 .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + id));
         return taskToTaskDTO(task);
@@ -64,11 +170,10 @@ public class TaskServiceImpl implements TaskService {
 
     @Override
     @Transactional
-    public TaskDTO updateTask(Long id, TaskDTO taskDTO) {
-        User authenticatedUser = userContextService.getAuthenticatedUser();
+    public TaskDTO updateTask(Long id, TaskDTO taskDTO, Long requiredVersion) {
+        User authenticatedUser = userContextService.getAuthenticatedUserReference();
 
-        Task task = taskRepository.findByIdAndCreatedBy(id, authenticatedUser)
-                .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + id));
+        Task task = findForUpdate(id, authenticatedUser, requiredVersion);
 
         task.setTitle(taskDTO.getTitle());
         task.setDescription(taskDTO.getDescription());
@@ -78,110 +183,219 @@ public class TaskServiceImpl implements TaskService {
         task.setUpdatedAt(LocalDateTime.now());
         task.setComments(taskDTO.getComments());
 
-        Task updatedTask = taskRepository.save(task);
+        // Flushed here so the response carries the new version.
+        Task updatedTask = taskRepository.saveAndFlush(task);
 
         return taskToTaskDTO(updatedTask);
     }
 
     @Override
     @Transactional
-    public TaskDTO updateTaskStatus(Long id, Status status) {
-        User authenticatedUser = userContextService.getAuthenticatedUser();
+    public TaskDTO patchTask(Long id, JsonNode patch, Long requiredVersion) {
+        User authenticatedUser = userContextService.getAuthenticatedUserReference();
+        Task task = findForUpdate(id, authenticatedUser, requiredVersion);
+
+        TaskDTO current = taskToTaskDTO(task);
+        TaskDTO patched = taskMergePatch.apply(taskToTaskDTO(task), patch);
+        if (patched.equals(current)) {
+            return current;
+        }
+        task.setTitle(patched.getTitle());
+        task.setDescription(patched.getDescription());
+        task.setStatus(patched.getStatus());
+        task.setPriority(patched.getPriority());
+        task.setDueDate(patched.getDueDate());
+        task.setComments(patched.getComments());
+        if (!Objects.equals(patched.getProjectId(), current.getProjectId())) {
+            task.setProject(projectRepository.findById(patched.getProjectId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Project not found with id: " + patched.getProjectId())));
+        }
+        task.setUpdatedAt(LocalDateTime.now());
+        // Task is @DynamicUpdate: the flush writes the changed columns only.
+        return taskToTaskDTO(taskRepository.saveAndFlush(task));
+    }
+
+    @Override
+    @Transactional
+    public TaskDTO updateTaskStatus(Long id, Status status, Long requiredVersion) {
+        User authenticatedUser = userContextService.getAuthenticatedUserReference();
 
-        Task task = taskRepository.findByIdAndCreatedBy(id, authenticatedUser)
-                .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + id));
+        Task task = findForUpdate(id, authenticatedUser, requiredVersion);
 
         task.setStatus(status);
         task.setUpdatedAt(LocalDateTime.now());
 
-        Task updatedTask = taskRepository.save(task);
+        Task updatedTask = taskRepository.saveAndFlush(task);
         return taskToTaskDTO(updatedTask);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TaskDTO> getTasksByStatus(Status status) {
-        User authenticatedUser = userContextService.getAuthenticatedUser();
-
-        List<Task> tasks = taskRepository.findByCreatedByAndStatus(authenticatedUser, status);
+        User authenticatedUser = userContextService.getAuthenticatedUserReference();
 
-        return convertTasksToDTOs(tasks);
+        return taskRepository.findDTOsByCreatedByAndStatus(authenticatedUser, status);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TaskDTO> getTasksByPriority(Priority priority) {
-        User authenticatedUser = userContextService.getAuthenticatedUser();
+        User authenticatedUser = userContextService.getAuthenticatedUserReference();
 
-        List<Task> tasks = taskRepository.findByCreatedByAndPriority(authenticatedUser, priority);
-
-        return convertTasksToDTOs(tasks);
+        return taskRepository.findDTOsByCreatedByAndPriority(authenticatedUser, priority);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TaskDTO> getOverdueTasks() {
-        User authenticatedUser = userContextService.getAuthenticatedUser();
-        LocalDate currentDate = LocalDate.now();
+        LocalDate today = LocalDate.now();
+        if (!overdueIndexUsable()) {
+            return taskRepository.findOverdueDTOsByCreatedBy(userContextService.getAuthenticatedUserReference(), today);
+        }
+        List<Long> ids = overdueTaskIndex.overdueTaskIds(userContextService.getAuthenticatedUserId(), null, null, maxPageSize + 1);
+        if (ids.size() > maxPageSize) {
+            // Too many ids for one IN list; a single indexed query reads them instead.
+            return taskRepository.findOverdueDTOsByCreatedBy(userContextService.getAuthenticatedUserReference(), today);
+        }
+        return findInOrder(ids).stream()
+                .filter(task -> isOverdue(task, today))
+                .toList();
+    }
 
-        List<Task> tasks = taskRepository.findByCreatedByAndDueDateBefore(authenticatedUser, currentDate);
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskDTO> getTasksByProject(Long projectId) {
+        User authenticatedUser = userContextService.getAuthenticatedUserReference();
+        return taskRepository.findDTOsByProjectIdAndCreatedBy(projectId, authenticatedUser);
+    }
 
-        return convertTasksToDTOs(tasks);
+    @Override
+    @Transactional(readOnly = true)
+    public TaskPage getTasksForCurrentUser(String cursor, Integer size) {
+        User authenticatedUser = userContextService.getAuthenticatedUserReference();
+        return findPage(authenticatedUser, TaskFilter.none(), TaskRepositoryCustom.DUE_DATE_ORDER, cursor, size);
     }
 
     @Override
-    public List<TaskDTO> getTasksByProject(Long projectId) {
-        User authenticatedUser = userContextService.getAuthenticatedUser();
-        List<Task> tasks = taskRepository.findByProjectIdAndCreatedBy(projectId, authenticatedUser);
-        return convertTasksToDTOs(tasks);
+    @Transactional(readOnly = true)
+    public TaskPage getTasksByStatus(Status status, String cursor, Integer size) {
+        User authenticatedUser = userContextService.getAuthenticatedUserReference();
+        return findPage(authenticatedUser, TaskFilter.byStatus(status), TaskRepositoryCustom.DUE_DATE_ORDER, cursor, size);
     }
 
     @Override
-    @Transactional
-    public TaskDTO addAssignee(Long taskId, Long userId) {
-        User authenticatedUser = userContextService.getAuthenticatedUser();
-        Task task = taskRepository.findByIdAndCreatedBy(taskId, authenticatedUser)
-                .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + taskId));
-        User assignee = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+    @Transactional(readOnly = true)
+    public TaskPage getTasksByPriority(Priority priority, String cursor, Integer size) {
+        User authenticatedUser = userContextService.getAuthenticatedUserReference();
+        return findPage(authenticatedUser, TaskFilter.byPriority(priority), TaskRepositoryCustom.DUE_DATE_ORDER, cursor, size);
+    }
 
-        if (task.getAssignees() == null) {
-            task.setAssignees(new HashSet<>());
+    @Override
+    @Transactional(readOnly = true)
+    public TaskPage getOverdueTasks(String cursor, Integer size) {
+        LocalDate today = LocalDate.now();
+        Sort sort = TaskRepositoryCustom.DUE_DATE_ORDER;
+        if (!overdueIndexUsable()) {
+            return findPage(userContextService.getAuthenticatedUserReference(), TaskFilter.overdue(today), sort, cursor, size);
         }
-        if (assignee.getAssignedTasks() == null) {
-            assignee.setAssignedTasks(new HashSet<>());
+        int pageSize = pageSize(size);
+        Map<String, Object> after = TaskCursor.decode(cursor, sort).getKeys();
+        List<OverdueTask> indexed = overdueTaskIndex.overdueTasks(userContextService.getAuthenticatedUserId(),
+                (LocalDate) after.get("dueDate"), (Long) after.get("id"), pageSize + 1);
+        boolean more = indexed.size() > pageSize;
+        List<OverdueTask> page = more ? indexed.subList(0, pageSize) : indexed;
+        // The cursor follows the index, so tasks deleted or changed since it was read neither end
+        // the listing early nor move the next page.
+        String nextCursor = null;
+        if (more) {
+            OverdueTask last = page.get(page.size() - 1);
+            nextCursor = TaskCursor.encode(TaskDTO.builder().id(last.id()).dueDate(last.dueDate()).build(), sort);
         }
+        List<TaskDTO> tasks = findInOrder(page.stream().map(OverdueTask::id).toList());
+        return new TaskPage(tasks.stream().filter(task -> isOverdue(task, today)).toList(), nextCursor);
+    }
 
-        task.getAssignees().add(assignee);
-        assignee.getAssignedTasks().add(task);
+    @Override
+    @Transactional(readOnly = true)
+    public TaskPage getTasksByProject(Long projectId, String cursor, Integer size) {
+        User authenticatedUser = userContextService.getAuthenticatedUserReference();
+        return findPage(authenticatedUser, TaskFilter.byProject(projectId), TaskRepositoryCustom.DUE_DATE_ORDER, cursor, size);
+    }
 
-        Project project = task.getProject();
-        if (project != null) {
-            if (project.getMembers() == null) {
-                project.setMembers(new HashSet<>());
-            }
-            project.getMembers().add(assignee);
-            if (assignee.getProjects() == null) {
-                assignee.setProjects(new HashSet<>());
-            }
-            assignee.getProjects().add(project);
+    @Override
+    @Transactional(readOnly = true)
+    public TaskPage searchTasks(TaskFilter filter, Sort sort, String cursor, Integer size) {
+        User authenticatedUser = userContextService.getAuthenticatedUserReference();
+        return findPage(authenticatedUser, filter, TaskSortKey.normalize(sort), cursor, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskPage searchText(String query, Long projectId, String cursor, Integer size) {
+        int pageSize = pageSize(size);
+        int offset = TaskCursor.decodeOffset(cursor);
+        TaskSearchHits hits = taskSearchIndex.search(userContextService.getAuthenticatedUserId(), projectId, query, offset, pageSize);
+        if (hits.taskIds().isEmpty()) {
+            return new TaskPage(List.of(), null);
         }
+        List<TaskDTO> tasks = findInOrder(hits.taskIds());
+        int nextOffset = offset + pageSize;
+        return new TaskPage(tasks, nextOffset < hits.total() ? TaskCursor.encodeOffset(nextOffset) : null);
+    }
 
-        Task updatedTask = taskRepository.save(task);
-        return taskToTaskDTO(updatedTask);
+    @Override
+    @Transactional(readOnly = true)
+    public TaskStatsDTO getTaskStats(Long projectId) {
+        Long userId = userContextService.getAuthenticatedUserId();
+        if (taskCounters.isReady() && overdueIndexUsable()) {
+            return toStatsDTO(taskCounters.counts(userId, projectId), overdueTaskIndex.overdueCount(userId, projectId));
+        }
+        User authenticatedUser = userContextService.getAuthenticatedUserReference();
+        LocalDate today = LocalDate.now();
+        List<TaskCount> rows = projectId == null
+                ? taskRepository.countTasksByCreatedBy(authenticatedUser, today)
+                : taskRepository.countTasksByCreatedByAndProjectId(authenticatedUser, projectId, today);
+        return toStatsDTO(TaskCounts.of(rows), rows.stream().mapToLong(TaskCount::overdue).sum());
+    }
+
+    @Override
+    @Transactional
+    public TaskDTO addAssignee(Long taskId, Long userId) {
+        return addAssignees(taskId, List.of(userId));
     }
 
     @Override
     @Transactional
     public TaskDTO removeAssignee(Long taskId, Long userId) {
-        User authenticatedUser = userContextService.getAuthenticatedUser();
-        Task task = taskRepository.findByIdAndCreatedBy(taskId, authenticatedUser)
-                .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + taskId));
-        User assignee = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
-        task.getAssignees().remove(assignee);
-        Task updatedTask = taskRepository.save(task);
-        return taskToTaskDTO(updatedTask);
+        return removeAssignees(taskId, List.of(userId));
+    }
+
+    @Override
+    @Transactional
+    public TaskDTO addAssignees(Long taskId, List<Long> userIds) {
+        Task task = findForAssignment(taskId, userIds);
+        // Neither the task's assignees nor the project's members are loaded; rows are inserted as needed.
+        int added = taskRepository.addAssignees(taskId, userIds);
+        if (task.getProject() != null) {
+            projectRepository.addMembers(task.getProject().getId(), userIds);
+        }
+        if (added > 0) {
+            assignmentChanged(task);
+        }
+        return taskToTaskDTO(task);
+    }
+
+    @Override
+    @Transactional
+    public TaskDTO removeAssignees(Long taskId, List<Long> userIds) {
+        Task task = findForAssignment(taskId, userIds);
+        if (taskRepository.removeAssignees(taskId, userIds) > 0) {
+            assignmentChanged(task);
+        }
+        return taskToTaskDTO(task);
     }
 
-    private TaskDTO taskToTaskDTO(Task task){
+    static TaskDTO taskToTaskDTO(Task task){
         return TaskDTO.builder()
                 .id(task.getId())
                 .title(task.getTitle())
@@ -189,23 +403,145 @@ public class TaskServiceImpl implements TaskService {
                 .priority(task.getPriority())
                 .dueDate(task.getDueDate())
                 .status(task.getStatus())
-                .projectId(task.getProject().getId())
+                .projectId(task.getProject() == null ? null : task.getProject().getId())
                 .comments(task.getComments())
                 .createdAt(task.getCreatedAt())
+                .updatedAt(task.getUpdatedAt())
+                .version(task.getVersion())
                 .build();
     }
 
-    private Task taskCreateDTOtoTask(TaskCreateDTO taskDTO){
+    private static TaskStatsDTO toStatsDTO(TaskCounts counts, long overdue) {
+        Map<Status, Map<Priority, Long>> byStatusAndPriority = new EnumMap<>(Status.class);
+        Map<Status, Long> byStatus = new EnumMap<>(Status.class);
+        Map<Priority, Long> byPriority = new EnumMap<>(Priority.class);
+        for (Status status : Status.values()) {
+            Map<Priority, Long> row = new EnumMap<>(Priority.class);
+            for (Priority priority : Priority.values()) {
+                long count = counts.get(status, priority);
+                row.put(priority, count);
+                byStatus.merge(status, count, Long::sum);
+                byPriority.merge(priority, count, Long::sum);
+            }
+            byStatusAndPriority.put(status, row);
+        }
+        return new TaskStatsDTO(byStatusAndPriority, byStatus, byPriority, counts.total(), overdue);
+    }
+
+    /**
+     * Assignees are excluded from the task's version, so no task update is written and the
+     * entity listener stays silent; the change still alters the user's assignee-filtered lists.
+     */
+    private void assignmentChanged(Task task) {
+        TaskSnapshot snapshot = TaskSnapshot.of(task);
+        taskChangePublisher.publishAfterCommit(new TaskChangedEvent(snapshot, snapshot));
+    }
+
+    /**
+     * Loads the user's task for an update. The version is checked here against the client's copy
+     * and again by the UPDATE itself against concurrent requests.
+     */
+    private Task findForUpdate(Long id, User user, Long requiredVersion) {
+        Task task = taskRepository.findByIdAndCreatedBy(id, user)
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + id));
+        if (requiredVersion != null && !requiredVersion.equals(task.getVersion())) {
+            throw new PreconditionFailedException("Task " + id + " is at version " + task.getVersion()
+                    + ", not " + requiredVersion);
+        }
+        return task;
+    }
+
+    /**
+     * Loads the user's task for an assignment change and checks that every user exists.
+     */
+    private Task findForAssignment(Long taskId, List<Long> userIds) {
+        if (userIds.size() > UserIdsDTO.MAX_USERS) {
+            throw new BulkUpdateTooLargeException("At most " + UserIdsDTO.MAX_USERS + " users per request");
+        }
+        Task task = taskRepository.findByIdAndCreatedBy(taskId, userContextService.getAuthenticatedUserReference())
+                .orElseThrow(() -> new ResourceNotFoundException("Task not found with id: " + taskId));
+        List<Long> missing = userRepository.findMissingIds(userIds);
+        if (!missing.isEmpty()) {
+            throw new ResourceNotFoundException("User not found with id: "
+                    + missing.stream().map(String::valueOf).collect(Collectors.joining(", ")));
+        }
+        return task;
+    }
+
+    private static TaskSnapshot applyChanges(TaskSnapshot task, TaskChanges changes) {
+        return new TaskSnapshot(task.id(), task.createdById(),
+                changes.projectId() != null ? changes.projectId() : task.projectId(),
+                task.title(), task.description(), task.comments(),
+                changes.status() != null ? changes.status() : task.status(),
+                changes.priority() != null ? changes.priority() : task.priority(),
+                changes.dueDate() != null ? changes.dueDate() : task.dueDate());
+    }
+
+    /** A new, pending task as createTask and createTasks save it. */
+    private Task newTask(TaskCreateDTO taskDTO, Project project, User createdBy) {
         return Task.builder()
+                .title(taskDTO.title())
+                .status(Status.PENDING)
                 .priority(taskDTO.priority())
                 .dueDate(taskDTO.dueDate())
                 .comments(taskDTO.comments())
+                .project(project)
+                .createdBy(createdBy)
                 .build();
     }
 
-    private List<TaskDTO> convertTasksToDTOs(List<Task> tasks) {
+    /**
+     * Reads one row past the page to learn whether another page follows.
+     */
+    private TaskPage findPage(User user, TaskFilter filter, Sort sort, String cursor, Integer size) {
+        int pageSize = pageSize(size);
+        List<TaskDTO> tasks = taskRepository.findTaskPage(user, filter, sort, TaskCursor.decode(cursor, sort), pageSize + 1);
+        if (tasks.size() <= pageSize) {
+            return new TaskPage(tasks, null);
+        }
+        List<TaskDTO> page = tasks.subList(0, pageSize);
+        TaskDTO last = page.get(pageSize - 1);
+        return new TaskPage(page, TaskCursor.encode(last, sort));
+    }
+
+    /**
+     * Reads the given tasks of the current user in the order of {@code ids}. Rows are re-read so
+     * results reflect the table; a task deleted since an in-memory index listed it just drops out.
+     */
+    private List<TaskDTO> findInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, TaskDTO> rows = taskRepository.findDTOsByIdInAndCreatedBy(ids, userContextService.getAuthenticatedUserReference())
+                .stream()
+                .collect(Collectors.toMap(TaskDTO::getId, Function.identity()));
+        return ids.stream()
+                .map(rows::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * The overdue index only sees committed changes. A caller's read-write transaction may hold
+     * task changes it has not seen yet, so such reads go to the database, as do reads made before
+     * the index has been loaded.
+     */
+    private boolean overdueIndexUsable() {
+        return overdueTaskIndex.isReady() && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    /** Guards against a change committed after the overdue index was read. */
+    private static boolean isOverdue(TaskDTO task, LocalDate today) {
+        return task.getStatus() != null && task.getStatus() != Status.COMPLETED && task.getDueDate().isBefore(today);
+    }
+
+    private int pageSize(Integer size) {
+        return Math.max(1, Math.min(size == null ? defaultPageSize : size, maxPageSize));
+    }
+
+    static List<TaskDTO> convertTasksToDTOs(List<Task> tasks) {
         return tasks.stream()
-                .map(this::taskToTaskDTO)
+                .map(TaskServiceImpl::taskToTaskDTO)
                 .collect(Collectors.toList());
     }
 }
\ No newline at end of file
@@ -0,0 +1,75 @@
+package com.martin1500.service;
+
+import com.martin1500.dto.TaskDTO;
+import com.martin1500.exception.InvalidSortException;
+import com.martin1500.model.util.Priority;
+import com.martin1500.repository.TaskRepositoryCustom;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Task properties a page can be sorted by. They are all non-null columns, which keyset paging
+ * relies on. Priority sorts from LOW to HIGH; no index serves that order, so the filtered rows are
+ * sorted.
+ */
+enum TaskSortKey {
+    DUE_DATE("dueDate", LocalDate::parse, TaskDTO::getDueDate),
+    PRIORITY("priority", Priority::valueOf, TaskDTO::getPriority),
+    CREATED_AT("createdAt", LocalDateTime::parse, TaskDTO::getCreatedAt),
+    ID("id", Long::valueOf, TaskDTO::getId);
+
+    private final String property;
+    private final Function<String, Object> parser;
+    private final Function<TaskDTO, Object> accessor;
+
+    TaskSortKey(String property, Function<String, Object> parser, Function<TaskDTO, Object> accessor) {
+        this.property = property;
+        this.parser = parser;
+        this.accessor = accessor;
+    }
+
+    Object parse(String value) {
+        return parser.apply(value);
+    }
+
+    Object valueOf(TaskDTO task) {
+        return accessor.apply(task);
+    }
+
+    static TaskSortKey of(String property) {
+        return Arrays.stream(values())
+                .filter(key -> key.property.equals(property))
+                .findFirst()
+                .orElseThrow(() -> new InvalidSortException("Cannot sort tasks by: " + property));
+    }
+
+    /**
+     * Validates {@code requested} and appends {@code id} as the tie-breaker; unsorted requests get
+     * the default due date order. Repeated properties keep their first direction.
+     */
+    static Sort normalize(Sort requested) {
+        if (requested == null || requested.isUnsorted()) {
+            return TaskRepositoryCustom.DUE_DATE_ORDER;
+        }
+        Set<String> seen = new LinkedHashSet<>();
+        List<Sort.Order> orders = new ArrayList<>();
+        for (Sort.Order order : requested) {
+            of(order.getProperty());
+            if (seen.add(order.getProperty())) {
+                orders.add(order);
+            }
+        }
+        if (seen.add(ID.property)) {
+            orders.add(Sort.Order.asc(ID.property));
+        }
+        return Sort.by(orders);
+    }
+}
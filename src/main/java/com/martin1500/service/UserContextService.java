@@ -2,6 +2,8 @@ package com.martin1500.service;
 
 import com.martin1500.model.User;
 import com.martin1500.repository.UserRepository;
+import com.martin1500.security.UserDetailsCache;
+import com.martin1500.security.UserPrincipal;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -14,13 +16,41 @@ import org.springframework.stereotype.Service;
 public class UserContextService {
 
     private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
 
-    public User getAuthenticatedUser() {
+    /**
+     * Resolves the id of the authenticated user. Principals built from token claims already carry
+     * it, so no query is issued for them.
+     */
+    public Long getAuthenticatedUserId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication != null && authentication.getPrincipal() instanceof UserDetails userDetails) {
-            return userRepository.findByUsername(userDetails.getUsername())
-                    .orElseThrow(() -> new UsernameNotFoundException("User not found: " + userDetails.getUsername()));
+        if (authentication != null) {
+            if (authentication.getPrincipal() instanceof UserPrincipal principal) {
+                return principal.id();
+            }
+            if (authentication.getPrincipal() instanceof User user) {
+                return user.getId();
+            }
+            if (authentication.getPrincipal() instanceof UserDetails userDetails) {
+                return userDetailsCache.get(userDetails.getUsername())
+                        .map(UserPrincipal::id)
+                        .orElseThrow(() -> new UsernameNotFoundException("User not found: " + userDetails.getUsername()));
+            }
         }
         throw new IllegalStateException("No authenticated user found.");
     }
+
+    /**
+     * Returns an uninitialized reference to the authenticated user, suitable for query parameters
+     * and associations. Reading anything but the id from it triggers a load.
+     */
+    public User getAuthenticatedUserReference() {
+        return userRepository.getReferenceById(getAuthenticatedUserId());
+    }
+
+    public User getAuthenticatedUser() {
+        Long userId = getAuthenticatedUserId();
+        return userRepository.findById(userId)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + userId));
+    }
 }
@@ -0,0 +1,11 @@
+package com.martin1500.stats;
+
+import com.martin1500.model.util.Priority;
+import com.martin1500.model.util.Status;
+
+/**
+ * One row of a grouped task count: how many of a user's tasks in a project have the given status
+ * and priority, and how many of those are overdue.
+ */
+public record TaskCount(Long createdById, Long projectId, Status status, Priority priority, Long tasks, Long overdue) {
+}
@@ -0,0 +1,107 @@
+package com.martin1500.stats;
+
+import com.martin1500.event.TaskChangedEvent;
+import com.martin1500.event.TaskSnapshot;
+import com.martin1500.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Keeps {@link TaskCounters} in step with the task table: applies every committed task change,
+ * loads the counts in the background once the application is up and reconciles them with the
+ * database every {@code tasks.stats.reconcileInterval} milliseconds.
+ */
+@Component
+public class TaskCountReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskCountReconciler.class);
+
+    private final TaskCounters counters;
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean reconcileOnStartup;
+    private final int startupAttempts;
+
+    public TaskCountReconciler(TaskCounters counters,
+                               TaskRepository taskRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${tasks.stats.reconcileOnStartup:true}") boolean reconcileOnStartup,
+                               @Value("${tasks.stats.startupAttempts:3}") int startupAttempts) {
+        this.counters = counters;
+        this.taskRepository = taskRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.reconcileOnStartup = reconcileOnStartup;
+        this.startupAttempts = startupAttempts;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground() {
+        if (reconcileOnStartup) {
+            Thread thread = new Thread(this::load, "task-count-load");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /** Counts tasks changed while the table is read are retried a few times; until then readers use the database. */
+    void load() {
+        for (int attempt = 1; attempt <= startupAttempts; attempt++) {
+            if (reconcile()) {
+                return;
+            }
+        }
+        log.info("Task counts still changing after {} attempts; the next reconciliation will finish loading them", startupAttempts);
+    }
+
+    @Scheduled(initialDelayString = "${tasks.stats.reconcileInterval:300000}",
+            fixedDelayString = "${tasks.stats.reconcileInterval:300000}")
+    public void reconcileScheduled() {
+        reconcile();
+    }
+
+    /** Returns whether every count could be reconciled. */
+    public boolean reconcile() {
+        long start = System.nanoTime();
+        try {
+            Map<TaskCounters.Scope, Long> before = counters.snapshot();
+            List<TaskCount> rows = readOnlyTransaction.execute(status -> taskRepository.countTasks(LocalDate.now()));
+            boolean complete = counters.reconcile(before, rows);
+            log.debug("Reconciled task counts from {} groups in {} ms", rows.size(), (System.nanoTime() - start) / 1_000_000);
+            return complete;
+        } catch (RuntimeException e) {
+            log.error("Reconciling task counts failed", e);
+            return false;
+        }
+    }
+
+    @EventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (event.isDeletion()) {
+            counters.add(event.before(), -1);
+        } else if (event.isCreation()) {
+            counters.add(event.after(), 1);
+        } else if (countedChanged(event.before(), event.after())) {
+            counters.add(event.before(), -1);
+            counters.add(event.after(), 1);
+        }
+    }
+
+    private static boolean countedChanged(TaskSnapshot before, TaskSnapshot after) {
+        return before.status() != after.status()
+                || before.priority() != after.priority()
+                || !Objects.equals(before.projectId(), after.projectId());
+    }
+}
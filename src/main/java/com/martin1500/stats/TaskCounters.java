@@ -0,0 +1,141 @@
+package com.martin1500.stats;
+
+import com.martin1500.event.TaskSnapshot;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live task counts by status and priority for every user, overall and per project. Each count is
+ * a {@link LongAdder}, so concurrent changes never contend on a lock and are never lost.
+ * <p>
+ * Counts drift if a change is missed, so {@link TaskCountReconciler} periodically compares them
+ * with the database. Every scope numbers the changes applied to it; a scope that took a change
+ * while the database was being read, or while it was being corrected, is left for the next round.
+ * A change is applied only after it commits, so one that commits before the read but is applied
+ * after its scope was corrected is counted twice until the next round.
+ */
+@Component
+public class TaskCounters {
+
+    private static final long[] NONE = new long[TaskCounts.CELLS];
+
+    private final Map<Scope, Counter> counters = new ConcurrentHashMap<>();
+
+    private volatile boolean ready;
+
+    /** Counts {@code task} {@code delta} times in its user's and its project's counts. */
+    public void add(TaskSnapshot task, int delta) {
+        int cell = TaskCounts.cell(task.status(), task.priority());
+        counter(new Scope(task.createdById(), null)).add(cell, delta);
+        if (task.projectId() != null) {
+            counter(new Scope(task.createdById(), task.projectId())).add(cell, delta);
+        }
+    }
+
+    /** The user's counts, across all projects when {@code projectId} is null. */
+    public TaskCounts counts(Long createdById, Long projectId) {
+        return new TaskCounts(read(new Scope(createdById, projectId)));
+    }
+
+    /** False until a reconciliation has completed without skipping any count; counts may be incomplete. */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /** How many changes each scope has taken so far. */
+    Map<Scope, Long> snapshot() {
+        Map<Scope, Long> snapshot = new HashMap<>();
+        counters.forEach((scope, counter) -> snapshot.put(scope, counter.changes.get()));
+        return snapshot;
+    }
+
+    /**
+     * Sets every count to what the database reported, unless its scope took a change since
+     * {@code before} was taken or while it was being set. Returns whether no scope had to be
+     * skipped.
+     */
+    boolean reconcile(Map<Scope, Long> before, List<TaskCount> rows) {
+        Map<Scope, long[]> actual = new HashMap<>();
+        for (TaskCount row : rows) {
+            int cell = TaskCounts.cell(row.status(), row.priority());
+            actual.computeIfAbsent(new Scope(row.createdById(), null), scope -> new long[TaskCounts.CELLS])[cell] += row.tasks();
+            if (row.projectId() != null) {
+                actual.computeIfAbsent(new Scope(row.createdById(), row.projectId()), scope -> new long[TaskCounts.CELLS])[cell] += row.tasks();
+            }
+        }
+        Set<Scope> scopes = new HashSet<>(counters.keySet());
+        scopes.addAll(actual.keySet());
+        boolean complete = true;
+        for (Scope scope : scopes) {
+            Counter counter = counter(scope);
+            long changes = counter.changes.get();
+            if (changes != before.getOrDefault(scope, 0L)) {
+                complete = false;
+                continue;
+            }
+            long[] current = counter.read();
+            long[] target = actual.getOrDefault(scope, NONE);
+            for (int cell = 0; cell < TaskCounts.CELLS; cell++) {
+                if (target[cell] != current[cell]) {
+                    counter.cells[cell].add(target[cell] - current[cell]);
+                }
+            }
+            if (counter.changes.get() != changes) {
+                // A change applied meanwhile may have been overwritten, or counted on top of the
+                // database row that already held it
+                complete = false;
+            }
+        }
+        if (complete) {
+            ready = true;
+        }
+        return complete;
+    }
+
+    private Counter counter(Scope scope) {
+        return counters.computeIfAbsent(scope, key -> new Counter());
+    }
+
+    private long[] read(Scope scope) {
+        Counter counter = counters.get(scope);
+        return counter != null ? counter.read() : NONE.clone();
+    }
+
+    /** The counts of one scope, and how many changes have been applied to them. */
+    private static final class Counter {
+
+        private final LongAdder[] cells = new LongAdder[TaskCounts.CELLS];
+        private final AtomicLong changes = new AtomicLong();
+
+        private Counter() {
+            Arrays.setAll(cells, cell -> new LongAdder());
+        }
+
+        private void add(int cell, int delta) {
+            // Numbered first, so a reconciliation that sees the count changed also sees the number move
+            changes.incrementAndGet();
+            cells[cell].add(delta);
+        }
+
+        private long[] read() {
+            long[] values = new long[TaskCounts.CELLS];
+            for (int cell = 0; cell < values.length; cell++) {
+                values[cell] = cells[cell].sum();
+            }
+            return values;
+        }
+    }
+
+    /** A user's tasks in one project, or in all of them when {@code projectId} is null. */
+    record Scope(Long createdById, Long projectId) {
+    }
+}
@@ -0,0 +1,43 @@
+package com.martin1500.stats;
+
+import com.martin1500.model.util.Priority;
+import com.martin1500.model.util.Status;
+
+import java.util.Arrays;
+
+/**
+ * Task counts by status and priority. Tasks without a status count towards {@link #total()} only.
+ */
+public final class TaskCounts {
+
+    private static final Status[] STATUSES = Status.values();
+    private static final Priority[] PRIORITIES = Priority.values();
+    static final int CELLS = (STATUSES.length + 1) * PRIORITIES.length;
+
+    private final long[] cells;
+
+    TaskCounts(long[] cells) {
+        this.cells = cells;
+    }
+
+    public static TaskCounts of(Iterable<TaskCount> rows) {
+        long[] cells = new long[CELLS];
+        for (TaskCount row : rows) {
+            cells[cell(row.status(), row.priority())] += row.tasks();
+        }
+        return new TaskCounts(cells);
+    }
+
+    public long get(Status status, Priority priority) {
+        return cells[cell(status, priority)];
+    }
+
+    public long total() {
+        return Arrays.stream(cells).sum();
+    }
+
+    static int cell(Status status, Priority priority) {
+        int row = status == null ? STATUSES.length : status.ordinal();
+        return row * PRIORITIES.length + priority.ordinal();
+    }
+}
@@ -0,0 +1,3 @@
+-- TaskListVersions: bumped in every transaction that changes the user's tasks, so list ETags
+-- follow writes made on any instance.
+alter table users add column task_list_version bigint default 0 not null;
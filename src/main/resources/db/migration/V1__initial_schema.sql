@@ -0,0 +1,49 @@
+-- Schema as previously generated by hibernate.ddl-auto=update. Existing databases are baselined at this version.
+
+create table users (
+    id bigint generated by default as identity,
+    username varchar(255) not null unique,
+    email varchar(255) not null unique,
+    password varchar(100) not null,
+    role varchar(255) check (role in ('USER', 'ADMIN')),
+    primary key (id)
+);
+
+create table project (
+    id bigint generated by default as identity,
+    name varchar(255) not null,
+    primary key (id)
+);
+
+create table project_members (
+    project_id bigint not null,
+    user_id bigint not null,
+    primary key (project_id, user_id),
+    constraint fk_project_members_project foreign key (project_id) references project (id),
+    constraint fk_project_members_user foreign key (user_id) references users (id)
+);
+
+create table task (
+    id bigint generated by default as identity,
+    title varchar(255),
+    description varchar(255),
+    status varchar(255) check (status in ('PENDING', 'IN_PROGRESS', 'COMPLETED')),
+    priority varchar(255) not null check (priority in ('LOW', 'MEDIUM', 'HIGH')),
+    due_date date not null,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    created_by_id bigint not null,
+    project_id bigint,
+    comments varchar(255),
+    primary key (id),
+    constraint fk_task_created_by foreign key (created_by_id) references users (id),
+    constraint fk_task_project foreign key (project_id) references project (id)
+);
+
+create table task_assignees (
+    task_id bigint not null,
+    user_id bigint not null,
+    primary key (task_id, user_id),
+    constraint fk_task_assignees_task foreign key (task_id) references task (id),
+    constraint fk_task_assignees_user foreign key (user_id) references users (id)
+);
@@ -0,0 +1,21 @@
+-- One index per TaskRepository access path. Every task query is scoped to its creator, so
+-- created_by_id leads; the trailing (due_date, id) matches the keyset order of the paged queries.
+
+-- findByCreatedByOrderByDueDateAscIdAsc, findByCreatedByAndDueDateBefore*, export streams
+create index idx_task_created_by_due_date on task (created_by_id, due_date, id);
+
+-- findByCreatedByAndStatus*
+create index idx_task_created_by_status on task (created_by_id, status, due_date, id);
+
+-- findByCreatedByAndPriority*, findByCreatedByOrderByPriorityAscDueDateAsc
+create index idx_task_created_by_priority on task (created_by_id, priority, due_date, id);
+
+-- existsByTitleAndCreatedBy
+create index idx_task_created_by_title on task (created_by_id, title);
+
+-- findByProjectIdAndCreatedBy*, export by project, and the project_id foreign key
+create index idx_task_project_created_by on task (project_id, created_by_id, due_date, id);
+
+-- The primary keys cover lookups by task and by project; these cover the reverse direction.
+create index idx_task_assignees_user on task_assignees (user_id, task_id);
+create index idx_project_members_user on project_members (user_id, project_id);
@@ -0,0 +1,3 @@
+-- Optimistic locking: every update of a task or project row checks and increments its version.
+alter table task add column version bigint not null default 0;
+alter table project add column version bigint not null default 0;
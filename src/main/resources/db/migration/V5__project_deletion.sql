@@ -0,0 +1,17 @@
+-- Background project deletions. A row outlives its project so the outcome can still be looked up.
+create table project_deletion (
+    id bigint generated by default as identity,
+    project_id bigint not null,
+    tasks varchar(255) not null check (tasks in ('DETACH', 'DELETE')),
+    status varchar(255) not null check (status in ('PENDING', 'RUNNING', 'COMPLETED', 'FAILED')),
+    tasks_processed bigint not null default 0,
+    members_removed bigint not null default 0,
+    error varchar(255),
+    requested_at timestamp(6),
+    finished_at timestamp(6),
+    primary key (id)
+);
+
+-- The latest deletion of a project, and the queue of unfinished ones.
+create index idx_project_deletion_project on project_deletion (project_id, id);
+create index idx_project_deletion_status on project_deletion (status, id);
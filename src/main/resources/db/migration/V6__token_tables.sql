@@ -0,0 +1,24 @@
+-- Refresh token rotation and access token revocation. These came after the schema that existing
+-- databases are baselined at, so they are created here; "if not exists" covers databases where
+-- hibernate.ddl-auto=update created them first.
+
+create table if not exists refresh_token (
+    id varchar(255) not null,
+    family_id varchar(255) not null,
+    user_id bigint not null,
+    expires_at timestamp(6) with time zone not null,
+    used_at timestamp(6) with time zone,
+    revoked boolean not null,
+    primary key (id)
+);
+
+create index if not exists idx_refresh_token_family on refresh_token (family_id);
+create index if not exists idx_refresh_token_expires_at on refresh_token (expires_at);
+
+create table if not exists revoked_token (
+    id varchar(255) not null,
+    expires_at timestamp(6) with time zone not null,
+    primary key (id)
+);
+
+create index if not exists idx_revoked_token_expires_at on revoked_token (expires_at);
@@ -0,0 +1,3 @@
+-- lockSnapshotsInProject: project deletions take a project's tasks in id order, a chunk at a time.
+-- idx_task_project_created_by cannot give that order, so every chunk would sort all remaining tasks.
+create index idx_task_project_id on task (project_id, id);
@@ -0,0 +1,4 @@
+-- TokenRevocationService.sync: each instance picks up the ids other instances revoked recently.
+alter table revoked_token add column if not exists revoked_at timestamp(6) with time zone default current_timestamp not null;
+
+create index if not exists idx_revoked_token_revoked_at on revoked_token (revoked_at);
@@ -0,0 +1,4 @@
+-- created_at is a keyset sort key (TaskSortKey): a row with a null key would drop out of every page.
+update task set created_at = coalesce(updated_at, current_timestamp) where created_at is null;
+
+alter table task alter column created_at set not null;
@@ -1,7 +1,12 @@
 package com.martin1500.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.martin1500.dto.TaskBatchCreateDTO;
+import com.martin1500.dto.TaskBulkUpdateDTO;
+import com.martin1500.dto.TaskBulkUpdateResultDTO;
 import com.martin1500.dto.TaskCreateDTO;
 import com.martin1500.dto.TaskDTO;
+import com.martin1500.dto.TaskStatsDTO;
 import com.martin1500.dto.TokenPair;
 import com.martin1500.model.Project;
 import com.martin1500.model.Task;
@@ -10,8 +15,11 @@ import com.martin1500.model.util.Priority;
 import com.martin1500.model.util.Role;
 import com.martin1500.model.util.Status;
 import com.martin1500.repository.ProjectRepository;
+import com.martin1500.repository.TaskChanges;
+import com.martin1500.repository.TaskFilter;
 import com.martin1500.repository.TaskRepository;
 import com.martin1500.repository.UserRepository;
+import com.martin1500.security.UserPrincipal;
 import com.martin1500.service.JwtService;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
@@ -32,8 +40,11 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -90,7 +101,7 @@ public class TaskControllerIntegrationTest {
         authenticatedUser.setRole(Role.USER);
         authenticatedUser = userRepository.save(authenticatedUser);
 
-        TokenPair tokenPair = jwtService.generateTokenPair(authenticatedUser.getUsername());
+        TokenPair tokenPair = jwtService.generateTokenPair(UserPrincipal.from(authenticatedUser));
         accessToken = tokenPair.accessToken();
     }
 
@@ -127,6 +138,121 @@ public class TaskControllerIntegrationTest {
         assertEquals(project.getId(), savedTask.getProject().getId());
     }
 
+    @Test
+    void createTasks_ShouldCreateAllTasksInOrder() {
+        Project first = projectRepository.save(Project.builder().name("Project 1").build());
+        Project second = projectRepository.save(Project.builder().name("Project 2").build());
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setBearerAuth(accessToken);
+        TaskBatchCreateDTO batch = new TaskBatchCreateDTO(List.of(
+                new TaskCreateDTO("Task 1", Priority.LOW, first.getId(), LocalDate.now().plusDays(1), null),
+                new TaskCreateDTO("Task 2", Priority.HIGH, second.getId(), LocalDate.now().plusDays(2), null),
+                new TaskCreateDTO("Task 3", Priority.MEDIUM, first.getId(), LocalDate.now().plusDays(3), "last")));
+
+        ResponseEntity<List<TaskDTO>> response = restTemplate.exchange("/api/tasks/batch", HttpMethod.POST,
+                new HttpEntity<>(batch, headers), new ParameterizedTypeReference<>() {});
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of("Task 1", "Task 2", "Task 3"), response.getBody().stream().map(TaskDTO::getTitle).toList());
+        assertEquals(List.of(first.getId(), second.getId(), first.getId()),
+                response.getBody().stream().map(TaskDTO::getProjectId).toList());
+        assertTrue(response.getBody().stream().allMatch(task -> task.getId() != null && task.getStatus() == Status.PENDING));
+        assertEquals(3, taskRepository.count());
+    }
+
+    @Test
+    void createTasks_ShouldCreateNothingWhenAnyTaskIsInvalid() {
+        Project project = projectRepository.save(Project.builder().name("Project 1").build());
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setBearerAuth(accessToken);
+        TaskCreateDTO valid = new TaskCreateDTO("Task 1", Priority.LOW, project.getId(), LocalDate.now().plusDays(1), null);
+
+        ResponseEntity<Map<String, String>> invalid = restTemplate.exchange("/api/tasks/batch", HttpMethod.POST,
+                new HttpEntity<>(new TaskBatchCreateDTO(List.of(valid,
+                        new TaskCreateDTO("Task 2", Priority.LOW, project.getId(), LocalDate.now().minusDays(1), null))), headers),
+                new ParameterizedTypeReference<>() {});
+        ResponseEntity<String> missingProject = restTemplate.exchange("/api/tasks/batch", HttpMethod.POST,
+                new HttpEntity<>(new TaskBatchCreateDTO(List.of(valid,
+                        new TaskCreateDTO("Task 2", Priority.LOW, 999L, LocalDate.now().plusDays(1), null))), headers),
+                String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, invalid.getStatusCode());
+        assertEquals("Due date must be in the future", invalid.getBody().get("tasks[1].dueDate"));
+        assertEquals(HttpStatus.NOT_FOUND, missingProject.getStatusCode());
+        assertEquals(0, taskRepository.count());
+    }
+
+    @Test
+    void bulkUpdate_ShouldReportOutcomePerTask() {
+        Project project = projectRepository.save(Project.builder().name("Project 1").build());
+        User other = userRepository.save(User.builder().username("other" + System.currentTimeMillis())
+                .email("other" + System.currentTimeMillis() + "@gmail.com").password("password").role(Role.USER).build());
+        Task pending = taskRepository.save(Task.builder().title("Task 1").createdBy(authenticatedUser).project(project)
+                .dueDate(LocalDate.now().plusDays(1)).priority(Priority.LOW).status(Status.PENDING).build());
+        Task completed = taskRepository.save(Task.builder().title("Task 2").createdBy(authenticatedUser).project(project)
+                .dueDate(LocalDate.now().plusDays(1)).priority(Priority.LOW).status(Status.COMPLETED).build());
+        Task foreign = taskRepository.save(Task.builder().title("Task 3").createdBy(other).project(project)
+                .dueDate(LocalDate.now().plusDays(1)).priority(Priority.LOW).status(Status.PENDING).build());
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setBearerAuth(accessToken);
+        TaskBulkUpdateDTO bulkUpdate = new TaskBulkUpdateDTO(List.of(pending.getId(), completed.getId(), foreign.getId(), 999L),
+                null, new TaskChanges(Status.COMPLETED, null, null, null));
+        LocalDateTime completedAt = taskRepository.findById(completed.getId()).orElseThrow().getUpdatedAt();
+
+        ResponseEntity<TaskBulkUpdateResultDTO> response = restTemplate.exchange("/api/tasks/bulk", HttpMethod.PATCH,
+                new HttpEntity<>(bulkUpdate, headers), TaskBulkUpdateResultDTO.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody().updated());
+        assertEquals(List.of(TaskBulkUpdateResultDTO.Result.UPDATED, TaskBulkUpdateResultDTO.Result.UNCHANGED,
+                        TaskBulkUpdateResultDTO.Result.NOT_FOUND, TaskBulkUpdateResultDTO.Result.NOT_FOUND),
+                response.getBody().results().stream().map(TaskBulkUpdateResultDTO.Outcome::result).toList());
+        Task updated = taskRepository.findById(pending.getId()).orElseThrow();
+        assertEquals(Status.COMPLETED, updated.getStatus());
+        assertNotNull(updated.getUpdatedAt());
+        assertEquals(completedAt, taskRepository.findById(completed.getId()).orElseThrow().getUpdatedAt());
+        assertEquals(Status.PENDING, taskRepository.findById(foreign.getId()).orElseThrow().getStatus());
+
+        ResponseEntity<TaskStatsDTO> stats = restTemplate.exchange("/api/tasks/stats", HttpMethod.GET,
+                new HttpEntity<>(headers), TaskStatsDTO.class);
+        assertEquals(2L, stats.getBody().byStatus().get(Status.COMPLETED));
+    }
+
+    @Test
+    void bulkUpdate_ShouldUpdateTasksMatchingFilter() {
+        Project project = projectRepository.save(Project.builder().name("Project 1").build());
+        Project target = projectRepository.save(Project.builder().name("Project 2").build());
+        for (Priority priority : List.of(Priority.LOW, Priority.LOW, Priority.HIGH)) {
+            taskRepository.save(Task.builder().title("Task " + priority).createdBy(authenticatedUser).project(project)
+                    .dueDate(LocalDate.now().plusDays(1)).priority(priority).status(Status.PENDING).build());
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setBearerAuth(accessToken);
+        TaskChanges changes = new TaskChanges(null, Priority.MEDIUM, LocalDate.now().plusDays(7), target.getId());
+
+        ResponseEntity<TaskBulkUpdateResultDTO> response = restTemplate.exchange("/api/tasks/bulk", HttpMethod.PATCH,
+                new HttpEntity<>(new TaskBulkUpdateDTO(null, TaskFilter.byPriority(Priority.LOW), changes), headers),
+                TaskBulkUpdateResultDTO.class);
+        ResponseEntity<String> ambiguous = restTemplate.exchange("/api/tasks/bulk", HttpMethod.PATCH,
+                new HttpEntity<>(new TaskBulkUpdateDTO(List.of(1L), TaskFilter.none(), changes), headers), String.class);
+        ResponseEntity<String> missingProject = restTemplate.exchange("/api/tasks/bulk", HttpMethod.PATCH,
+                new HttpEntity<>(new TaskBulkUpdateDTO(null, TaskFilter.none(), new TaskChanges(null, null, null, 999L)), headers),
+                String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2, response.getBody().updated());
+        List<Task> moved = taskRepository.findAll().stream().filter(task -> task.getPriority() == Priority.MEDIUM).toList();
+        assertEquals(2, moved.size());
+        assertTrue(moved.stream().allMatch(task -> task.getProject().getId().equals(target.getId())
+                && task.getDueDate().equals(LocalDate.now().plusDays(7))));
+        assertEquals(HttpStatus.BAD_REQUEST, ambiguous.getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, missingProject.getStatusCode());
+    }
+
     @Test
     void getTasks_ShouldReturnTasksForAuthenticatedUser() {
         Project project = projectRepository.save(Project.builder().name("Project 1").build());
@@ -151,6 +277,274 @@ public class TaskControllerIntegrationTest {
         assertTrue(tasks.stream().anyMatch(t -> t.getComments().equals("Task 2 comments")));
     }
 
+    @Test
+    void getTasks_ShouldPageWithCursor() {
+        Project project = projectRepository.save(Project.builder().name("Project 1").build());
+        for (int i = 1; i <= 3; i++) {
+            taskRepository.save(Task.builder().title("Task " + i).createdBy(authenticatedUser).priority(Priority.LOW)
+                    .dueDate(LocalDate.now().plusDays(i)).project(project).build());
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(accessToken);
+        HttpEntity<Void> request = new HttpEntity<>(headers);
+
+        ResponseEntity<List<TaskDTO>> firstPage = restTemplate.exchange(
+                "/api/tasks?size=2", HttpMethod.GET, request, new ParameterizedTypeReference<>() {});
+
+        assertEquals(HttpStatus.OK, firstPage.getStatusCode());
+        assertEquals(List.of("Task 1", "Task 2"), firstPage.getBody().stream().map(TaskDTO::getTitle).toList());
+        String cursor = firstPage.getHeaders().getFirst("X-Next-Cursor");
+        assertNotNull(cursor);
+        assertTrue(firstPage.getHeaders().getFirst(HttpHeaders.LINK).contains("cursor=" + cursor));
+
+        ResponseEntity<List<TaskDTO>> secondPage = restTemplate.exchange(
+                "/api/tasks?size=2&cursor=" + cursor, HttpMethod.GET, request, new ParameterizedTypeReference<>() {});
+
+        assertEquals(List.of("Task 3"), secondPage.getBody().stream().map(TaskDTO::getTitle).toList());
+        assertNull(secondPage.getHeaders().getFirst("X-Next-Cursor"));
+
+        ResponseEntity<List<TaskDTO>> unpaged = restTemplate.exchange(
+                "/api/tasks?size=2&unpaged=true", HttpMethod.GET, request, new ParameterizedTypeReference<>() {});
+
+        assertEquals(3, unpaged.getBody().size());
+    }
+
+    @Test
+    void getTasks_ShouldRejectInvalidCursor() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(accessToken);
+
+        ResponseEntity<String> response = restTemplate.exchange(
+                "/api/tasks?cursor=bogus", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void exportTasks_ShouldStreamCsv() {
+        Project project = projectRepository.save(Project.builder().name("Project 1").build());
+        taskRepository.save(Task.builder().title("Task 1, urgent").createdBy(authenticatedUser).priority(Priority.LOW)
+                .dueDate(LocalDate.now().plusDays(1)).comments("say \"hi\"").project(project).build());
+        taskRepository.save(Task.builder().title("Task 2").createdBy(authenticatedUser).priority(Priority.HIGH)
+                .dueDate(LocalDate.now().plusDays(2)).project(project).build());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(accessToken);
+
+        ResponseEntity<String> response = restTemplate.exchange(
+                "/api/tasks/export?format=csv&projectId=" + project.getId(), HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(response.getHeaders().getContentType().isCompatibleWith(MediaType.parseMediaType("text/csv")));
+        String[] lines = response.getBody().split("\r\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("id,title,"));
+        assertTrue(lines[1].contains(",\"Task 1, urgent\",,"));
+        assertTrue(lines[1].endsWith(",\"say \"\"hi\"\"\""));
+        assertTrue(lines[2].contains(",Task 2,"));
+    }
+
+    @Test
+    void exportTasks_ShouldStreamNdjson() throws Exception {
+        Project project = projectRepository.save(Project.builder().name("Project 1").build());
+        taskRepository.save(Task.builder().title("Task 1").createdBy(authenticatedUser).priority(Priority.LOW)
+                .dueDate(LocalDate.now().plusDays(1)).project(project).build());
+        taskRepository.save(Task.builder().title("Task 2").createdBy(authenticatedUser).priority(Priority.HIGH)
+                .dueDate(LocalDate.now().plusDays(2)).project(project).build());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(accessToken);
+
+        ResponseEntity<String> response = restTemplate.exchange(
+                "/api/tasks/export?format=ndjson", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(response.getHeaders().getContentType().isCompatibleWith(MediaType.APPLICATION_NDJSON));
+        List<String> lines = response.getBody().lines().toList();
+        assertEquals(2, lines.size());
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        assertEquals("Task 1", objectMapper.readValue(lines.get(0), TaskDTO.class).getTitle());
+        assertEquals("Task 2", objectMapper.readValue(lines.get(1), TaskDTO.class).getTitle());
+    }
+
+    @Test
+    void searchTasks_ShouldCombineFiltersAndPageInRequestedOrder() {
+        Project project = projectRepository.save(Project.builder().name("Project 1").build());
+        Project other = projectRepository.save(Project.builder().name("Project 2").build());
+        taskRepository.save(Task.builder().title("Task 1").createdBy(authenticatedUser).status(Status.PENDING)
+                .priority(Priority.HIGH).dueDate(LocalDate.now().plusDays(1)).project(project).build());
+        taskRepository.save(Task.builder().title("Task 2").createdBy(authenticatedUser).status(Status.IN_PROGRESS)
+                .priority(Priority.HIGH).dueDate(LocalDate.now().plusDays(3)).project(project).build());
+        taskRepository.save(Task.builder().title("Task 3").createdBy(authenticatedUser).status(Status.COMPLETED)
+                .priority(Priority.HIGH).dueDate(LocalDate.now().plusDays(2)).project(project).build());
+        taskRepository.save(Task.builder().title("Task 4").createdBy(authenticatedUser).status(Status.PENDING)
+                .priority(Priority.LOW).dueDate(LocalDate.now().plusDays(2)).project(project).build());
+        taskRepository.save(Task.builder().title("Task 5").createdBy(authenticatedUser).status(Status.PENDING)
+                .priority(Priority.HIGH).dueDate(LocalDate.now().plusDays(2)).project(other).build());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(accessToken);
+        HttpEntity<Void> request = new HttpEntity<>(headers);
+        String search = "/api/tasks/search?status=PENDING&status=IN_PROGRESS&priority=HIGH&projectId=" + project.getId()
+                + "&dueTo=" + LocalDate.now().plusDays(5) + "&sort=dueDate,desc&size=1";
+
+        ResponseEntity<List<TaskDTO>> firstPage = restTemplate.exchange(
+                search, HttpMethod.GET, request, new ParameterizedTypeReference<>() {});
+
+        assertEquals(HttpStatus.OK, firstPage.getStatusCode());
+        assertEquals(List.of("Task 2"), firstPage.getBody().stream().map(TaskDTO::getTitle).toList());
+        String cursor = firstPage.getHeaders().getFirst("X-Next-Cursor");
+        assertNotNull(cursor);
+
+        ResponseEntity<List<TaskDTO>> secondPage = restTemplate.exchange(
+                search + "&cursor=" + cursor, HttpMethod.GET, request, new ParameterizedTypeReference<>() {});
+
+        assertEquals(List.of("Task 1"), secondPage.getBody().stream().map(TaskDTO::getTitle).toList());
+        assertNull(secondPage.getHeaders().getFirst("X-Next-Cursor"));
+    }
+
+    @Test
+    void searchTasks_ShouldSortPriorityFromLowToHigh() {
+        for (Priority priority : List.of(Priority.MEDIUM, Priority.HIGH, Priority.LOW, Priority.MEDIUM)) {
+            taskRepository.save(Task.builder().title(priority + " task").createdBy(authenticatedUser)
+                    .status(Status.PENDING).priority(priority).dueDate(LocalDate.now().plusDays(1)).build());
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(accessToken);
+        HttpEntity<Void> request = new HttpEntity<>(headers);
+        List<Priority> priorities = new ArrayList<>();
+        String cursor = null;
+        do {
+            ResponseEntity<List<TaskDTO>> page = restTemplate.exchange(
+                    "/api/tasks/search?sort=priority,desc&size=1" + (cursor == null ? "" : "&cursor=" + cursor),
+                    HttpMethod.GET, request, new ParameterizedTypeReference<>() {});
+            assertEquals(HttpStatus.OK, page.getStatusCode());
+            page.getBody().forEach(task -> priorities.add(task.getPriority()));
+            cursor = page.getHeaders().getFirst("X-Next-Cursor");
+        } while (cursor != null);
+
+        assertEquals(List.of(Priority.HIGH, Priority.MEDIUM, Priority.MEDIUM, Priority.LOW), priorities);
+    }
+
+    @Test
+    void searchTasks_ShouldRejectUnknownSortProperty() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(accessToken);
+
+        ResponseEntity<String> response = restTemplate.exchange(
+                "/api/tasks/search?sort=comments", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void searchTasksByText_ShouldFollowCreatesAndUpdates() {
+        Project project = projectRepository.save(Project.builder().name("Project 1").build());
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setBearerAuth(accessToken);
+
+        TaskCreateDTO created = new TaskCreateDTO("Quarterly report", Priority.HIGH, project.getId(),
+                LocalDate.now().plusDays(1), "numbers for the board");
+        TaskDTO task = restTemplate.exchange("/api/tasks", HttpMethod.POST, new HttpEntity<>(created, headers), TaskDTO.class).getBody();
+
+        ResponseEntity<List<TaskDTO>> found = restTemplate.exchange("/api/tasks/search/text?q=board report",
+                HttpMethod.GET, new HttpEntity<>(headers), new ParameterizedTypeReference<>() {});
+
+        assertEquals(HttpStatus.OK, found.getStatusCode());
+        assertEquals(List.of(task.getId()), found.getBody().stream().map(TaskDTO::getId).toList());
+
+        task.setTitle("Annual summary");
+        task.setComments("for the auditors");
+        restTemplate.exchange("/api/tasks/" + task.getId(), HttpMethod.PUT, new HttpEntity<>(task, headers), TaskDTO.class);
+
+        ResponseEntity<List<TaskDTO>> stale = restTemplate.exchange("/api/tasks/search/text?q=report",
+                HttpMethod.GET, new HttpEntity<>(headers), new ParameterizedTypeReference<>() {});
+        ResponseEntity<List<TaskDTO>> updated = restTemplate.exchange("/api/tasks/search/text?q=auditors&projectId=" + project.getId(),
+                HttpMethod.GET, new HttpEntity<>(headers), new ParameterizedTypeReference<>() {});
+
+        assertTrue(stale.getBody().isEmpty());
+        assertEquals(List.of("Annual summary"), updated.getBody().stream().map(TaskDTO::getTitle).toList());
+    }
+
+    @Test
+    void getOverdueTasks_ShouldSkipCompletedTasksAndFollowStatusChanges() {
+        Project project = projectRepository.save(Project.builder().name("Project 1").build());
+        Task overdue = taskRepository.save(Task.builder().title("Late").createdBy(authenticatedUser).project(project)
+                .dueDate(LocalDate.now().minusDays(2)).priority(Priority.LOW).status(Status.PENDING).build());
+        taskRepository.save(Task.builder().title("Done").createdBy(authenticatedUser).project(project)
+                .dueDate(LocalDate.now().minusDays(3)).priority(Priority.LOW).status(Status.COMPLETED).build());
+        taskRepository.save(Task.builder().title("Upcoming").createdBy(authenticatedUser).project(project)
+                .dueDate(LocalDate.now().plusDays(1)).priority(Priority.LOW).status(Status.PENDING).build());
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(accessToken);
+
+        ResponseEntity<List<TaskDTO>> response = restTemplate.exchange("/api/tasks/overdue",
+                HttpMethod.GET, new HttpEntity<>(headers), new ParameterizedTypeReference<>() {});
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of("Late"), response.getBody().stream().map(TaskDTO::getTitle).toList());
+
+        restTemplate.exchange("/api/tasks/" + overdue.getId() + "/status/COMPLETED", HttpMethod.PUT,
+                new HttpEntity<>(headers), TaskDTO.class);
+        ResponseEntity<List<TaskDTO>> afterCompletion = restTemplate.exchange("/api/tasks/overdue?unpaged=true",
+                HttpMethod.GET, new HttpEntity<>(headers), new ParameterizedTypeReference<>() {});
+
+        assertTrue(afterCompletion.getBody().isEmpty());
+    }
+
+    @Test
+    void getOverdueTasksUnpaged_ShouldListMoreThanAPage() {
+        // One more than tasks.page.maxSize, which no longer fits a single IN list
+        List<Task> late = new ArrayList<>();
+        for (int i = 0; i < 501; i++) {
+            late.add(Task.builder().title("Late " + i).createdBy(authenticatedUser).dueDate(LocalDate.now().minusDays(1 + i % 7))
+                    .priority(Priority.LOW).status(Status.PENDING).build());
+        }
+        taskRepository.saveAll(late);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(accessToken);
+
+        ResponseEntity<List<TaskDTO>> response = restTemplate.exchange("/api/tasks/overdue?unpaged=true",
+                HttpMethod.GET, new HttpEntity<>(headers), new ParameterizedTypeReference<>() {});
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(501, response.getBody().size());
+    }
+
+    @Test
+    void getTaskStats_ShouldCountByStatusAndPriority() {
+        Project project = projectRepository.save(Project.builder().name("Project 1").build());
+        Project other = projectRepository.save(Project.builder().name("Project 2").build());
+        Task task = taskRepository.save(Task.builder().title("Late").createdBy(authenticatedUser).project(project)
+                .dueDate(LocalDate.now().minusDays(1)).priority(Priority.HIGH).status(Status.PENDING).build());
+        taskRepository.save(Task.builder().title("Open").createdBy(authenticatedUser).project(project)
+                .dueDate(LocalDate.now().plusDays(1)).priority(Priority.LOW).status(Status.PENDING).build());
+        taskRepository.save(Task.builder().title("Elsewhere").createdBy(authenticatedUser).project(other)
+                .dueDate(LocalDate.now().plusDays(1)).priority(Priority.LOW).status(Status.COMPLETED).build());
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(accessToken);
+
+        restTemplate.exchange("/api/tasks/" + task.getId() + "/status/IN_PROGRESS", HttpMethod.PUT,
+                new HttpEntity<>(headers), TaskDTO.class);
+        TaskStatsDTO stats = restTemplate.exchange("/api/tasks/stats", HttpMethod.GET,
+                new HttpEntity<>(headers), TaskStatsDTO.class).getBody();
+        TaskStatsDTO projectStats = restTemplate.exchange("/api/tasks/stats/project/" + project.getId(), HttpMethod.GET,
+                new HttpEntity<>(headers), TaskStatsDTO.class).getBody();
+
+        assertEquals(3, stats.total());
+        assertEquals(1, stats.overdue());
+        assertEquals(1, stats.counts().get(Status.IN_PROGRESS).get(Priority.HIGH));
+        assertEquals(0, stats.counts().get(Status.PENDING).get(Priority.HIGH));
+        assertEquals(1, stats.byStatus().get(Status.COMPLETED));
+        assertEquals(2, stats.byPriority().get(Priority.LOW));
+        assertEquals(2, projectStats.total());
+        assertEquals(1, projectStats.byStatus().get(Status.PENDING));
+        assertEquals(1, projectStats.overdue());
+    }
+
     @Test
     void getTaskById_ShouldReturnTaskDTO() {
         Project project = projectRepository.save(Project.builder().name("Project 1").build());
@@ -232,6 +626,31 @@ public class TaskControllerIntegrationTest {
         assertEquals(project.getId(), response.getBody().getProjectId());
     }
 
+    @Test
+    void patchTask_ShouldApplyOnlyFieldsPresent() {
+        Project project = projectRepository.save(Project.builder().name("Project 1").build());
+        Task task = taskRepository.save(Task.builder().title("Task 1").description("Description").createdBy(authenticatedUser)
+                .project(project).dueDate(LocalDate.now().plusDays(1)).priority(Priority.LOW).status(Status.PENDING)
+                .comments("Comments").build());
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.valueOf("application/merge-patch+json"));
+        headers.setBearerAuth(accessToken);
+
+        ResponseEntity<TaskDTO> response = restTemplate.exchange("/api/tasks/" + task.getId(), HttpMethod.PATCH,
+                new HttpEntity<>("{\"status\": \"IN_PROGRESS\", \"comments\": null}", headers), TaskDTO.class);
+        ResponseEntity<String> invalid = restTemplate.exchange("/api/tasks/" + task.getId(), HttpMethod.PATCH,
+                new HttpEntity<>("{\"priority\": null}", headers), String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        Task patched = taskRepository.findById(task.getId()).orElseThrow();
+        assertEquals(Status.IN_PROGRESS, patched.getStatus());
+        assertNull(patched.getComments());
+        assertEquals("Task 1", patched.getTitle());
+        assertEquals("Description", patched.getDescription());
+        assertEquals(Priority.LOW, patched.getPriority());
+        assertEquals(HttpStatus.BAD_REQUEST, invalid.getStatusCode());
+    }
+
     @Test
     void updateTask_ShouldReturnNotFoundForInvalidId() {
         Project project = projectRepository.save(Project.builder().name("Project 1").build());
@@ -74,17 +74,30 @@ public class TestAuthController {
     }
 
     @Test
-    void testRefreshToken_WithValidRefreshToken_ShouldReturnNewAccessTokenAndOkStatus() throws Exception {
+    void testRefreshToken_WithValidRefreshToken_ShouldReturnRotatedTokenPairAndOkStatus() throws Exception {
         RefreshRequest refreshRequest = new RefreshRequest("refreshToken456");
-        String newAccessToken = "newAccessToken789";
-        when(authService.refreshToken(any(RefreshRequest.class))).thenReturn(newAccessToken);
+        when(authService.refreshToken(any(RefreshRequest.class)))
+                .thenReturn(new AuthResponse("newAccessToken789", "newRefreshToken012"));
 
         mockMvc.perform(post("/api/auth/refresh")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(refreshRequest)))
                 .andExpect(status().isOk())
-                .andExpect(content().string(newAccessToken));
+                .andExpect(jsonPath("$.accessToken").value("newAccessToken789"))
+                .andExpect(jsonPath("$.refreshToken").value("newRefreshToken012"));
 
         verify(authService).refreshToken(any(RefreshRequest.class));
     }
+
+    @Test
+    void testLogout_ShouldReturnNoContent() throws Exception {
+        RefreshRequest refreshRequest = new RefreshRequest("refreshToken456");
+
+        mockMvc.perform(post("/api/auth/logout")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(refreshRequest)))
+                .andExpect(status().isNoContent());
+
+        verify(authService).logout(any(RefreshRequest.class));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,148 @@
+package com.martin1500.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.martin1500.dto.TokenPair;
+import com.martin1500.model.Project;
+import com.martin1500.model.User;
+import com.martin1500.model.util.Role;
+import com.martin1500.repository.ProjectRepository;
+import com.martin1500.repository.UserRepository;
+import com.martin1500.security.UserPrincipal;
+import com.martin1500.service.JwtService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Projects are returned with a member count and a short preview; the full membership is read a
+ * page at a time from {@code /api/projects/{id}/members}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class TestProjectMembers {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private List<User> members;
+    private Project project;
+    private Project empty;
+    private HttpHeaders headers;
+
+    @BeforeEach
+    void setUp() {
+        members = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            members.add(userRepository.save(User.builder().username("member" + i).email("member" + i + "@gmail.com")
+                    .password("password123").role(Role.USER).build()));
+        }
+        project = projectRepository.save(Project.builder().name("Crowded").members(new HashSet<>(members)).build());
+        empty = projectRepository.save(Project.builder().name("Empty").members(new HashSet<>()).build());
+        projectRepository.save(Project.builder().name("Other").members(new HashSet<>(Set.of(members.get(6)))).build());
+
+        TokenPair tokens = jwtService.generateTokenPair(UserPrincipal.from(members.get(0)));
+        headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setBearerAuth(tokens.accessToken());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from project_members");
+        jdbcTemplate.update("delete from project");
+        jdbcTemplate.update("delete from refresh_token");
+        jdbcTemplate.update("delete from users");
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void getProjects_ShouldCountAndPreviewMembers() throws Exception {
+        JsonNode projects = get("/api/projects");
+
+        assertEquals(1, projects.size(), "Only the caller's projects");
+        JsonNode crowded = projects.get(0);
+        assertEquals(project.getId(), crowded.get("id").asLong());
+        assertEquals(7, crowded.get("memberCount").asLong());
+        assertEquals(5, crowded.get("memberPreview").size());
+        assertEquals(members.get(0).getId(), crowded.get("memberPreview").get(0).get("id").asLong());
+        assertEquals("member0", crowded.get("memberPreview").get(0).get("username").asText());
+        assertEquals(Set.of("id", "username"), fieldNames(crowded.get("memberPreview").get(0)));
+
+        JsonNode none = get("/api/projects/" + empty.getId());
+        assertEquals(0, none.get("memberCount").asLong());
+        assertEquals(0, none.get("memberPreview").size());
+    }
+
+    @Test
+    void getMembers_ShouldPageByUserId() throws Exception {
+        List<Long> seen = new ArrayList<>();
+        String url = "/api/projects/" + project.getId() + "/members?size=3";
+        int pages = 0;
+        while (url != null) {
+            ResponseEntity<String> response = exchange(url);
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            objectMapper.readTree(response.getBody()).forEach(member -> seen.add(member.get("id").asLong()));
+            String cursor = response.getHeaders().getFirst(TaskController.NEXT_CURSOR_HEADER);
+            url = cursor == null ? null : "/api/projects/" + project.getId() + "/members?size=3&cursor=" + cursor;
+            pages++;
+        }
+
+        assertEquals(3, pages);
+        assertEquals(members.stream().map(User::getId).toList(), seen);
+    }
+
+    @Test
+    void getMembers_ShouldRejectUnknownProjectAndBadCursor() {
+        assertEquals(HttpStatus.NOT_FOUND, exchange("/api/projects/" + Long.MAX_VALUE + "/members").getStatusCode());
+        assertEquals(HttpStatus.OK, exchange("/api/projects/" + empty.getId() + "/members").getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST,
+                exchange("/api/projects/" + project.getId() + "/members?cursor=not-a-cursor").getStatusCode());
+    }
+
+    private JsonNode get(String url) throws Exception {
+        ResponseEntity<String> response = exchange(url);
+        assertEquals(HttpStatus.OK, response.getStatusCode(), response.getBody());
+        return objectMapper.readTree(response.getBody());
+    }
+
+    private ResponseEntity<String> exchange(String url) {
+        return restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+
+    private static Set<String> fieldNames(JsonNode node) {
+        Set<String> names = new HashSet<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+}
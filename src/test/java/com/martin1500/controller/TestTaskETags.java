@@ -0,0 +1,170 @@
+package com.martin1500.controller;
+
+import com.martin1500.dto.TokenPair;
+import com.martin1500.model.Project;
+import com.martin1500.model.Task;
+import com.martin1500.model.User;
+import com.martin1500.model.util.Priority;
+import com.martin1500.model.util.Role;
+import com.martin1500.model.util.Status;
+import com.martin1500.repository.ProjectRepository;
+import com.martin1500.repository.TaskRepository;
+import com.martin1500.repository.UserRepository;
+import com.martin1500.security.UserPrincipal;
+import com.martin1500.service.JwtService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Conditional requests on tasks: strong ETags from the task version on single tasks, weak ETags
+ * from the user's stored change count on lists, {@code If-None-Match} revalidation and
+ * {@code If-Match} updates.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class TestTaskETags {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Task task;
+    private HttpHeaders headers;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.save(User.builder().username("etagUser").email("etagUser@gmail.com")
+                .password("password123").role(Role.USER).build());
+        Project project = projectRepository.save(Project.builder().name("Tagged").build());
+        task = taskRepository.save(Task.builder().title("Task").createdBy(user).project(project)
+                .status(Status.PENDING).priority(Priority.LOW).dueDate(LocalDate.now().plusDays(1)).build());
+
+        TokenPair tokens = jwtService.generateTokenPair(UserPrincipal.from(user));
+        headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setBearerAuth(tokens.accessToken());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from task");
+        jdbcTemplate.update("delete from project");
+        jdbcTemplate.update("delete from refresh_token");
+        jdbcTemplate.update("delete from users");
+    }
+
+    @Test
+    void getTaskById_ShouldRevalidateAgainstVersion() {
+        ResponseEntity<String> first = exchange(HttpMethod.GET, "/api/tasks/" + task.getId(), null, null);
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertEquals("\"0\"", first.getHeaders().getETag());
+        assertEquals("no-cache, private", first.getHeaders().getCacheControl());
+
+        ResponseEntity<String> revalidated = exchange(HttpMethod.GET, "/api/tasks/" + task.getId(), null,
+                Map.of(HttpHeaders.IF_NONE_MATCH, "\"0\""));
+        assertEquals(HttpStatus.NOT_MODIFIED, revalidated.getStatusCode());
+        assertNull(revalidated.getBody());
+    }
+
+    @Test
+    void updates_ShouldRequireMatchingVersion() {
+        ResponseEntity<String> stale = exchange(HttpMethod.PUT, "/api/tasks/" + task.getId() + "/status/COMPLETED", null,
+                Map.of(HttpHeaders.IF_MATCH, "\"7\""));
+        assertEquals(HttpStatus.PRECONDITION_FAILED, stale.getStatusCode());
+        assertEquals(HttpStatus.PRECONDITION_FAILED, exchange(HttpMethod.PATCH, "/api/tasks/" + task.getId(),
+                Map.of("title", "Renamed"), Map.of(HttpHeaders.IF_MATCH, "W/\"0\"")).getStatusCode());
+        assertEquals(Status.PENDING, taskRepository.findById(task.getId()).orElseThrow().getStatus());
+
+        ResponseEntity<String> updated = exchange(HttpMethod.PATCH, "/api/tasks/" + task.getId(),
+                Map.of("title", "Renamed"), Map.of(HttpHeaders.IF_MATCH, "\"0\""));
+        assertEquals(HttpStatus.OK, updated.getStatusCode());
+        assertEquals("\"1\"", updated.getHeaders().getETag());
+
+        ResponseEntity<String> unconditional = exchange(HttpMethod.PUT, "/api/tasks/" + task.getId() + "/status/COMPLETED",
+                null, Map.of());
+        assertEquals(HttpStatus.OK, unconditional.getStatusCode());
+        assertEquals("\"2\"", unconditional.getHeaders().getETag());
+    }
+
+    @Test
+    void save_ShouldRejectUpdateOfStaleCopy() {
+        Task stale = taskRepository.findById(task.getId()).orElseThrow();
+        Task current = taskRepository.findById(task.getId()).orElseThrow();
+        current.setStatus(Status.IN_PROGRESS);
+        taskRepository.save(current);
+
+        stale.setTitle("Overwritten");
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> taskRepository.save(stale));
+    }
+
+    @Test
+    void taskLists_ShouldRevalidateUntilATaskChanges() {
+        ResponseEntity<String> first = exchange(HttpMethod.GET, "/api/tasks", null, null);
+        String etag = first.getHeaders().getETag();
+        assertTrue(etag.startsWith("W/\""), etag);
+        assertEquals("no-cache, private", first.getHeaders().getCacheControl());
+        assertNotEquals(etag, exchange(HttpMethod.GET, "/api/tasks/overdue", null, null).getHeaders().getETag(),
+                "Overdue lists also change with the date");
+
+        ResponseEntity<String> revalidated = exchange(HttpMethod.GET, "/api/tasks?size=1", null,
+                Map.of(HttpHeaders.IF_NONE_MATCH, etag));
+        assertEquals(HttpStatus.NOT_MODIFIED, revalidated.getStatusCode());
+        assertEquals(etag, revalidated.getHeaders().getETag());
+
+        exchange(HttpMethod.PUT, "/api/tasks/" + task.getId() + "/status/COMPLETED", null, null);
+
+        ResponseEntity<String> changed = exchange(HttpMethod.GET, "/api/tasks", null, Map.of(HttpHeaders.IF_NONE_MATCH, etag));
+        assertEquals(HttpStatus.OK, changed.getStatusCode());
+        assertNotEquals(etag, changed.getHeaders().getETag());
+        assertTrue(changed.getBody().contains("COMPLETED"));
+    }
+
+    @Test
+    void taskLists_ShouldFollowChangesMadeOnOtherInstances() {
+        String etag = exchange(HttpMethod.GET, "/api/tasks", null, null).getHeaders().getETag();
+
+        // Another instance's write bumps the same row; nothing is published here.
+        jdbcTemplate.update("update task set title = 'Renamed elsewhere' where id = ?", task.getId());
+        jdbcTemplate.update("update users set task_list_version = task_list_version + 1 where id = ?",
+                task.getCreatedBy().getId());
+
+        ResponseEntity<String> changed = exchange(HttpMethod.GET, "/api/tasks", null, Map.of(HttpHeaders.IF_NONE_MATCH, etag));
+        assertEquals(HttpStatus.OK, changed.getStatusCode());
+        assertNotEquals(etag, changed.getHeaders().getETag());
+        assertTrue(changed.getBody().contains("Renamed elsewhere"));
+    }
+
+    private ResponseEntity<String> exchange(HttpMethod method, String url, Object body, Map<String, String> extraHeaders) {
+        HttpHeaders requestHeaders = new HttpHeaders();
+        requestHeaders.addAll(headers);
+        if (extraHeaders != null) {
+            extraHeaders.forEach(requestHeaders::set);
+        }
+        return restTemplate.exchange(url, method, new HttpEntity<>(body, requestHeaders), String.class);
+    }
+}
@@ -0,0 +1,214 @@
+package com.martin1500.deletion;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.martin1500.dto.TokenPair;
+import com.martin1500.model.Project;
+import com.martin1500.model.ProjectDeletion;
+import com.martin1500.model.Task;
+import com.martin1500.model.User;
+import com.martin1500.model.util.DeletionStatus;
+import com.martin1500.model.util.Priority;
+import com.martin1500.model.util.Role;
+import com.martin1500.model.util.Status;
+import com.martin1500.model.util.TaskDisposition;
+import com.martin1500.repository.ProjectDeletionRepository;
+import com.martin1500.repository.ProjectRepository;
+import com.martin1500.repository.TaskRepository;
+import com.martin1500.repository.UserRepository;
+import com.martin1500.security.UserPrincipal;
+import com.martin1500.service.JwtService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Deletes projects through the API with a chunk size of two, so tasks and memberships take several
+ * chunks, and follows each deletion through its status endpoint.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"projects.deletion.chunkSize=2", "projects.deletion.chunkPause=0"})
+public class TestProjectDeletion {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectDeletionRepository projectDeletionRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private List<User> members;
+    private Project project;
+    private Project other;
+    private List<Task> tasks;
+    private HttpHeaders headers;
+
+    @BeforeEach
+    void setUp() {
+        members = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            members.add(userRepository.save(User.builder().username("deleting" + i).email("deleting" + i + "@gmail.com")
+                    .password("password123").role(Role.USER).build()));
+        }
+        project = projectRepository.save(Project.builder().name("Doomed").members(new HashSet<>(members)).build());
+        other = projectRepository.save(Project.builder().name("Kept").members(new HashSet<>(members)).build());
+        tasks = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            tasks.add(taskRepository.save(Task.builder().title("Task " + i).createdBy(members.get(i % 3))
+                    .project(project).status(Status.PENDING).priority(Priority.LOW)
+                    .dueDate(LocalDate.now().plusDays(i)).assignees(Set.of(members.get(0), members.get(1))).build()));
+        }
+        taskRepository.save(Task.builder().title("Elsewhere").createdBy(members.get(0)).project(other)
+                .status(Status.PENDING).priority(Priority.LOW).dueDate(LocalDate.now())
+                .assignees(Set.of(members.get(0))).build());
+
+        TokenPair tokens = jwtService.generateTokenPair(UserPrincipal.from(members.get(0)));
+        headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setBearerAuth(tokens.accessToken());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from project_deletion");
+        jdbcTemplate.update("delete from task_assignees");
+        jdbcTemplate.update("delete from task");
+        jdbcTemplate.update("delete from project_members");
+        jdbcTemplate.update("delete from project");
+        jdbcTemplate.update("delete from refresh_token");
+        jdbcTemplate.update("delete from users");
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void deleteProject_ShouldDeleteTasksInChunks() throws Exception {
+        ResponseEntity<String> accepted = exchange(HttpMethod.DELETE, "/api/projects/" + project.getId() + "?tasks=DELETE");
+
+        assertEquals(HttpStatus.ACCEPTED, accepted.getStatusCode(), accepted.getBody());
+        assertTrue(accepted.getHeaders().getLocation().getPath().endsWith("/api/projects/" + project.getId() + "/deletion"));
+        JsonNode deletion = awaitDeletion(accepted.getHeaders().getLocation().getPath());
+        assertEquals("DELETE", deletion.get("tasks").asText());
+        assertEquals(5, deletion.get("tasksProcessed").asLong());
+        assertEquals(3, deletion.get("membersRemoved").asLong());
+        assertFalse(deletion.get("finishedAt").isNull());
+
+        assertEquals(0, count("select count(*) from task where project_id = ?", project.getId()));
+        assertEquals(1, count("select count(*) from task"), "Other projects' tasks stay");
+        assertEquals(1, count("select count(*) from task_assignees"));
+        assertEquals(3, count("select count(*) from project_members"));
+        assertEquals(HttpStatus.NOT_FOUND, exchange(HttpMethod.GET, "/api/projects/" + project.getId()).getStatusCode());
+        assertEquals(1, objectMapper.readTree(exchange(HttpMethod.GET, "/api/projects").getBody()).size());
+    }
+
+    @Test
+    void deleteProject_ShouldKeepDetachedTasks() throws Exception {
+        ResponseEntity<String> accepted = exchange(HttpMethod.DELETE, "/api/projects/" + project.getId());
+
+        assertEquals(HttpStatus.ACCEPTED, accepted.getStatusCode(), accepted.getBody());
+        JsonNode deletion = awaitDeletion("/api/projects/" + project.getId() + "/deletion");
+        assertEquals("DETACH", deletion.get("tasks").asText());
+        assertEquals(5, deletion.get("tasksProcessed").asLong());
+
+        for (Task task : tasks) {
+            Task detached = taskRepository.findById(task.getId()).orElseThrow();
+            assertNull(detached.getProject());
+            assertEquals(task.getVersion() + 1, detached.getVersion());
+        }
+        assertEquals(11, count("select count(*) from task_assignees"), "Detached tasks keep their assignees");
+        assertEquals(0, count("select count(*) from project where id = ?", project.getId()));
+
+        JsonNode stats = objectMapper.readTree(exchange(HttpMethod.GET, "/api/tasks/stats/project/" + project.getId()).getBody());
+        assertEquals(0, stats.get("total").asLong(), "Counters follow the detached tasks");
+
+        ResponseEntity<String> read = exchange(HttpMethod.GET, "/api/tasks/" + tasks.get(0).getId());
+        assertEquals(HttpStatus.OK, read.getStatusCode(), read.getBody());
+        assertTrue(objectMapper.readTree(read.getBody()).path("projectId").isMissingNode());
+        ResponseEntity<String> patched = restTemplate.exchange("/api/tasks/" + tasks.get(0).getId(), HttpMethod.PATCH,
+                new HttpEntity<>(Map.of("priority", "HIGH"), headers), String.class);
+        assertEquals(HttpStatus.OK, patched.getStatusCode(), patched.getBody());
+        assertEquals("HIGH", objectMapper.readTree(patched.getBody()).get("priority").asText());
+        ResponseEntity<String> export = exchange(HttpMethod.GET, "/api/tasks/export");
+        assertEquals(HttpStatus.OK, export.getStatusCode(), export.getBody());
+        assertEquals(3, export.getBody().lines().count(), "Detached tasks are exported with the rest");
+    }
+
+    @Test
+    void deleteProject_ShouldRejectOtherDispositionWhilePending() throws Exception {
+        // Saved directly, so the worker is not woken and the deletion stays pending.
+        ProjectDeletion pending = projectDeletionRepository.save(ProjectDeletion.builder().projectId(project.getId())
+                .tasks(TaskDisposition.DELETE).status(DeletionStatus.PENDING).build());
+
+        ResponseEntity<String> conflict = exchange(HttpMethod.DELETE, "/api/projects/" + project.getId() + "?tasks=DETACH");
+        assertEquals(HttpStatus.CONFLICT, conflict.getStatusCode(), conflict.getBody());
+
+        ResponseEntity<String> same = exchange(HttpMethod.DELETE, "/api/projects/" + project.getId() + "?tasks=DELETE");
+        assertEquals(HttpStatus.ACCEPTED, same.getStatusCode(), same.getBody());
+        assertEquals(pending.getId(), objectMapper.readTree(same.getBody()).get("id").asLong());
+        assertEquals(1, count("select count(*) from project_deletion"));
+    }
+
+    @Test
+    void deleteProject_ShouldRejectUnknownProject() {
+        assertEquals(HttpStatus.NOT_FOUND, exchange(HttpMethod.DELETE, "/api/projects/" + Long.MAX_VALUE).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, exchange(HttpMethod.GET, "/api/projects/" + Long.MAX_VALUE + "/deletion").getStatusCode());
+    }
+
+    private JsonNode awaitDeletion(String statusPath) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (true) {
+            ResponseEntity<String> response = exchange(HttpMethod.GET, statusPath);
+            assertEquals(HttpStatus.OK, response.getStatusCode(), response.getBody());
+            JsonNode deletion = objectMapper.readTree(response.getBody());
+            String status = deletion.get("status").asText();
+            if (status.equals("COMPLETED") || status.equals("FAILED")) {
+                assertEquals("COMPLETED", status, deletion.get("error").asText());
+                return deletion;
+            }
+            assertTrue(System.currentTimeMillis() < deadline, "Deletion did not finish");
+            Thread.sleep(20);
+        }
+    }
+
+    private long count(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Long.class, args);
+    }
+
+    private ResponseEntity<String> exchange(HttpMethod method, String url) {
+        return restTemplate.exchange(url, method, new HttpEntity<>(headers), String.class);
+    }
+}
@@ -0,0 +1,227 @@
+package com.martin1500.observability;
+
+import com.martin1500.dto.TaskBatchCreateDTO;
+import com.martin1500.dto.TokenPair;
+import com.martin1500.model.Project;
+import com.martin1500.model.Task;
+import com.martin1500.model.User;
+import com.martin1500.model.util.Priority;
+import com.martin1500.model.util.Role;
+import com.martin1500.model.util.Status;
+import com.martin1500.repository.ProjectRepository;
+import com.martin1500.repository.TaskRepository;
+import com.martin1500.repository.UserRepository;
+import com.martin1500.security.UserPrincipal;
+import com.martin1500.service.JwtService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the API with statement counting on: every endpoint has to stay within its {@link SqlBudget}
+ * however many projects, members and assignees the user's tasks touch.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "observability.sqlBudget.enabled=true")
+@Import(TestSqlBudget.OverBudgetController.class)
+class TestSqlBudget {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User owner;
+    private List<User> others;
+    private List<Project> projects;
+    private Task task;
+    private HttpHeaders headers;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(user("owner"));
+        others = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            others.add(userRepository.save(user("member" + i)));
+        }
+        projects = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            projects.add(projectRepository.save(Project.builder().name("Project " + i)
+                    .members(Set.of(owner, others.get(i))).build()));
+        }
+        for (int i = 0; i < 12; i++) {
+            task = taskRepository.save(Task.builder().title("Task " + i).createdBy(owner).priority(Priority.LOW)
+                    .dueDate(LocalDate.now().minusDays(i % 4)).project(projects.get(i % 3))
+                    .assignees(Set.of(others.get(i % 3))).build());
+        }
+
+        TokenPair tokens = jwtService.generateTokenPair(UserPrincipal.from(owner));
+        headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setBearerAuth(tokens.accessToken());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from project_deletion");
+        jdbcTemplate.update("delete from task_assignees");
+        jdbcTemplate.update("delete from task");
+        jdbcTemplate.update("delete from project_members");
+        jdbcTemplate.update("delete from project");
+        jdbcTemplate.update("delete from refresh_token");
+        jdbcTemplate.update("delete from users");
+    }
+
+    @Test
+    void taskEndpoints_ShouldStayWithinBudget() {
+        Long projectId = projects.get(0).getId();
+        assertOk(HttpMethod.GET, "/api/tasks", null);
+        assertOk(HttpMethod.GET, "/api/tasks?unpaged=true", null);
+        assertOk(HttpMethod.GET, "/api/tasks/status/PENDING", null);
+        assertOk(HttpMethod.GET, "/api/tasks/priority/LOW", null);
+        assertOk(HttpMethod.GET, "/api/tasks/overdue", null);
+        assertOk(HttpMethod.GET, "/api/tasks/project/" + projectId, null);
+        assertOk(HttpMethod.GET, "/api/tasks/" + task.getId(), null);
+        assertOk(HttpMethod.GET, "/api/tasks/search?status=PENDING&status=IN_PROGRESS&priority=LOW&projectId=" + projectId
+                + "&assigneeId=" + others.get(0).getId() + "&title=Task&dueFrom=" + LocalDate.now().minusDays(7)
+                + "&sort=priority,desc&sort=createdAt", null);
+        assertOk(HttpMethod.GET, "/api/tasks/search/text?q=task&projectId=" + projectId, null);
+        assertOk(HttpMethod.GET, "/api/tasks/stats", null);
+        assertOk(HttpMethod.GET, "/api/tasks/stats/project/" + projectId, null);
+        assertOk(HttpMethod.POST, "/api/tasks", Map.of("title", "New task", "priority", "HIGH", "projectId", projectId,
+                "dueDate", LocalDate.now().plusDays(1).toString()));
+        assertOk(HttpMethod.PUT, "/api/tasks/" + task.getId(),
+                Map.of("title", "Renamed", "status", "IN_PROGRESS", "priority", "HIGH",
+                        "dueDate", LocalDate.now().plusDays(1).toString()));
+        assertOk(HttpMethod.PATCH, "/api/tasks/" + task.getId(), Map.of("priority", "LOW", "projectId", projects.get(2).getId()));
+        assertOk(HttpMethod.PUT, "/api/tasks/" + task.getId() + "/status/COMPLETED", null);
+        assertOk(HttpMethod.POST, "/api/tasks/" + task.getId() + "/assignees/" + others.get(0).getId(), null);
+        assertOk(HttpMethod.DELETE, "/api/tasks/" + task.getId() + "/assignees/" + others.get(0).getId(), null);
+        List<Long> otherIds = others.stream().map(User::getId).toList();
+        assertOk(HttpMethod.POST, "/api/tasks/" + task.getId() + "/assignees/batch", Map.of("userIds", otherIds));
+        assertOk(HttpMethod.DELETE, "/api/tasks/" + task.getId() + "/assignees?userIds=" + otherIds.get(0) + "," + otherIds.get(1), null);
+    }
+
+    @Test
+    void batchCreate_ShouldInsertInJdbcBatches() {
+        List<Map<String, Object>> tasks = new ArrayList<>();
+        for (int i = 0; i < TaskBatchCreateDTO.MAX_TASKS; i++) {
+            tasks.add(Map.of("title", "Imported " + i, "priority", "MEDIUM", "projectId", projects.get(i % 3).getId(),
+                    "dueDate", LocalDate.now().plusDays(1 + i % 30).toString()));
+        }
+
+        // A statement per insert would exceed the budget many times over.
+        assertOk(HttpMethod.POST, "/api/tasks/batch", Map.of("tasks", tasks));
+        assertEquals(12 + TaskBatchCreateDTO.MAX_TASKS, taskRepository.count());
+    }
+
+    @Test
+    void bulkUpdate_ShouldUpdateInOneStatement() {
+        List<Long> ids = taskRepository.findAll().stream().map(Task::getId).toList();
+        assertOk(HttpMethod.PATCH, "/api/tasks/bulk", Map.of("ids", ids,
+                "changes", Map.of("status", "IN_PROGRESS", "projectId", projects.get(1).getId())));
+        assertOk(HttpMethod.PATCH, "/api/tasks/bulk", Map.of(
+                "filter", Map.of("statuses", List.of("IN_PROGRESS"), "assigneeId", others.get(0).getId()),
+                "changes", Map.of("status", "COMPLETED", "priority", "HIGH")));
+        assertEquals(4, taskRepository.findAll().stream().filter(t -> t.getStatus() == Status.COMPLETED).count());
+    }
+
+    @Test
+    void projectEndpoints_ShouldStayWithinBudget() throws InterruptedException {
+        Long projectId = projects.get(0).getId();
+        assertOk(HttpMethod.GET, "/api/projects", null);
+        assertOk(HttpMethod.GET, "/api/projects/" + projectId, null);
+        assertOk(HttpMethod.GET, "/api/projects/" + projectId + "/members?size=1", null);
+        assertOk(HttpMethod.POST, "/api/projects", Map.of("name", "New project"));
+        assertOk(HttpMethod.PUT, "/api/projects/" + projectId, Map.of("name", "Renamed"));
+        assertOk(HttpMethod.POST, "/api/projects/" + projectId + "/members", Map.of("userId", others.get(1).getId()));
+        assertOk(HttpMethod.DELETE, "/api/projects/" + projectId + "/members/" + others.get(1).getId(), null);
+        List<Long> otherIds = others.stream().map(User::getId).toList();
+        assertOk(HttpMethod.POST, "/api/projects/" + projectId + "/members/batch", Map.of("userIds", otherIds));
+        assertOk(HttpMethod.DELETE, "/api/projects/" + projectId + "/members?userIds=" + otherIds.get(1) + "," + otherIds.get(2), null);
+
+        Long emptyProjectId = projectRepository.save(Project.builder().name("Empty").members(Set.of(owner)).build()).getId();
+        ResponseEntity<String> deleted = restTemplate.exchange("/api/projects/" + emptyProjectId, HttpMethod.DELETE,
+                new HttpEntity<>(headers), String.class);
+        assertEquals(HttpStatus.ACCEPTED, deleted.getStatusCode(), deleted.getBody());
+        assertOk(HttpMethod.GET, "/api/projects/" + emptyProjectId + "/deletion", null);
+        awaitDeletion(emptyProjectId);
+    }
+
+    @Test
+    void handler_ShouldFailWhenOverBudget() {
+        ResponseEntity<String> response = restTemplate.exchange("/test/over-budget", HttpMethod.GET,
+                new HttpEntity<>(headers), String.class);
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertTrue(response.getBody().contains("budget is 0"));
+    }
+
+    /** The deletion runs in the background; the tables are only cleared once it is done. */
+    private void awaitDeletion(Long projectId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!"COMPLETED".equals(jdbcTemplate.queryForObject(
+                "select status from project_deletion where project_id = ?", String.class, projectId))) {
+            assertTrue(System.currentTimeMillis() < deadline, "Deletion did not finish");
+            Thread.sleep(20);
+        }
+    }
+
+    private void assertOk(HttpMethod method, String url, Object body) {
+        ResponseEntity<String> response = restTemplate.exchange(url, method, new HttpEntity<>(body, headers), String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode(), method + " " + url + ": " + response.getBody());
+    }
+
+    private static User user(String name) {
+        User user = new User();
+        user.setUsername(name);
+        user.setEmail(name + "@example.com");
+        user.setPassword("password");
+        user.setRole(Role.USER);
+        return user;
+    }
+
+    @TestConfiguration
+    @RestController
+    static class OverBudgetController {
+
+        @Autowired
+        private UserRepository userRepository;
+
+        @GetMapping("/test/over-budget")
+        @SqlBudget(0)
+        public long countUsers() {
+            return userRepository.count();
+        }
+    }
+}
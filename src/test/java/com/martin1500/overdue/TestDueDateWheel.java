@@ -0,0 +1,80 @@
+package com.martin1500.overdue;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestDueDateWheel {
+
+    private static final long START = LocalDate.of(2025, 1, 1).toEpochDay();
+
+    @Test
+    void advanceTo_ShouldExpireEveryTaskOnTheDayAfterItIsDue() {
+        DueDateWheel wheel = new DueDateWheel(START);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+        // Deadlines spread over every level, including ones that move down several levels.
+        for (long id = 1; id <= 5_000; id++) {
+            long dueDay = START + random.nextInt(1 << (6 + random.nextInt(13)));
+            if (wheel.schedule(task(id, dueDay))) {
+                expected.put(id, dueDay + 1);
+            }
+        }
+        for (long id = 1; id <= 5_000; id += 7) {
+            wheel.cancel(id);
+            expected.remove(id);
+        }
+
+        Map<Long, Long> actual = new HashMap<>();
+        long day = START;
+        while (wheel.size() > 0) {
+            day += 1 + random.nextInt(40);
+            long today = day;
+            wheel.advanceTo(today, task -> {
+                assertTrue(task.overdueFrom() <= today, "Expired early: " + task);
+                actual.put(task.id(), task.overdueFrom());
+            });
+        }
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void schedule_ShouldRefuseTasksAlreadyOverdue() {
+        DueDateWheel wheel = new DueDateWheel(START);
+
+        assertFalse(wheel.schedule(task(1, START - 1)));
+        assertTrue(wheel.schedule(task(2, START)));
+
+        List<Long> expired = new ArrayList<>();
+        wheel.advanceTo(START + 1, task -> expired.add(task.id()));
+        assertEquals(List.of(2L), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void schedule_ShouldReplaceEarlierScheduleAndHandleFarDeadlines() {
+        DueDateWheel wheel = new DueDateWheel(START);
+        wheel.schedule(task(1, START + 3));
+        wheel.schedule(task(1, START + 100_000));
+        wheel.schedule(task(2, LocalDate.MAX.toEpochDay() - 1));
+
+        List<Long> expired = new ArrayList<>();
+        wheel.advanceTo(START + 1_000, task -> expired.add(task.id()));
+        assertTrue(expired.isEmpty());
+        wheel.advanceTo(START + 100_001, task -> expired.add(task.id()));
+        assertEquals(List.of(1L), expired);
+        assertEquals(1, wheel.size());
+    }
+
+    private static OverdueTask task(long id, long dueDay) {
+        return new OverdueTask(id, 1L, null, LocalDate.ofEpochDay(dueDay));
+    }
+}
@@ -0,0 +1,91 @@
+package com.martin1500.overdue;
+
+import com.martin1500.event.TaskSnapshot;
+import com.martin1500.model.util.Priority;
+import com.martin1500.model.util.Status;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestOverdueTaskIndex {
+
+    private static final long USER = 1L;
+    private static final long OTHER_USER = 2L;
+    private static final LocalDate TODAY = LocalDate.of(2025, 3, 10);
+
+    private OverdueTaskIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new OverdueTaskIndex(new SimpleMeterRegistry(), TODAY);
+    }
+
+    @Test
+    void track_ShouldListOpenTasksPastTheirDueDateInDueDateOrder() {
+        assertTrue(index.track(task(1, USER, Status.PENDING, TODAY.minusDays(1))).isPresent());
+        index.track(task(2, USER, Status.IN_PROGRESS, TODAY.minusDays(5)));
+        index.track(task(3, USER, Status.COMPLETED, TODAY.minusDays(3)));
+        index.track(task(4, USER, Status.PENDING, TODAY));
+        index.track(task(5, OTHER_USER, Status.PENDING, TODAY.minusDays(2)));
+
+        assertEquals(List.of(2L, 1L), index.overdueTaskIds(USER, null, null, 10));
+        assertEquals(List.of(1L), index.overdueTaskIds(USER, TODAY.minusDays(5), 2L, 10));
+        assertEquals(List.of(5L), index.overdueTaskIds(OTHER_USER, null, null, 10));
+        assertEquals(1, index.scheduledCount());
+    }
+
+    @Test
+    void track_ShouldFollowCompletionReopeningAndDueDateChanges() {
+        index.track(task(1, USER, Status.PENDING, TODAY.minusDays(1)));
+
+        assertTrue(index.track(task(1, USER, Status.COMPLETED, TODAY.minusDays(1))).isEmpty());
+        assertEquals(List.of(), index.overdueTaskIds(USER, null, null, 10));
+
+        assertTrue(index.track(task(1, USER, Status.PENDING, TODAY.minusDays(1))).isPresent());
+        assertTrue(index.track(task(1, USER, Status.IN_PROGRESS, TODAY.minusDays(2))).isEmpty(),
+                "Already overdue, so not newly overdue");
+
+        index.track(task(1, USER, Status.IN_PROGRESS, TODAY.plusDays(1)));
+        assertEquals(List.of(), index.overdueTaskIds(USER, null, null, 10));
+
+        index.untrack(1L);
+        assertEquals(0, index.scheduledCount());
+    }
+
+    @Test
+    void advanceTo_ShouldMoveTasksIntoOverdueSetAsDaysPass() {
+        index.track(task(1, USER, Status.PENDING, TODAY));
+        index.track(task(2, USER, Status.PENDING, TODAY.plusDays(30)));
+        index.track(task(3, USER, Status.PENDING, TODAY.plusDays(400)));
+
+        assertEquals(List.of(), index.advanceTo(TODAY));
+        assertEquals(List.of(1L), index.advanceTo(TODAY.plusDays(1)).stream().map(OverdueTask::id).toList());
+        assertEquals(List.of(2L), index.advanceTo(TODAY.plusDays(100)).stream().map(OverdueTask::id).toList());
+        assertEquals(List.of(1L, 2L), index.overdueTaskIds(USER, null, null, 10));
+        assertEquals(1, index.scheduledCount());
+    }
+
+    @Test
+    void trackIfAbsent_ShouldNotOverrideChangesMadeDuringRebuild() {
+        index.startRebuild();
+        index.track(task(1, USER, Status.COMPLETED, TODAY.minusDays(1)));
+        index.untrack(2L);
+
+        index.trackIfAbsent(task(1, USER, Status.PENDING, TODAY.minusDays(1)));
+        index.trackIfAbsent(task(2, USER, Status.PENDING, TODAY.minusDays(1)));
+        index.trackIfAbsent(task(3, USER, Status.PENDING, TODAY.minusDays(1)));
+        index.finishRebuild();
+
+        assertTrue(index.isReady());
+        assertEquals(List.of(3L), index.overdueTaskIds(USER, null, null, 10));
+    }
+
+    private static TaskSnapshot task(long id, long createdById, Status status, LocalDate dueDate) {
+        return new TaskSnapshot(id, createdById, 10L, "Task " + id, null, null, status, Priority.LOW, dueDate);
+    }
+}
@@ -0,0 +1,221 @@
+package com.martin1500.reactive;
+
+import com.martin1500.dto.TaskDTO;
+import com.martin1500.model.Project;
+import com.martin1500.model.Task;
+import com.martin1500.model.User;
+import com.martin1500.model.util.Priority;
+import com.martin1500.model.util.Role;
+import com.martin1500.model.util.Status;
+import com.martin1500.repository.ProjectRepository;
+import com.martin1500.repository.TaskRepository;
+import com.martin1500.repository.UserRepository;
+import com.martin1500.security.TokenRevocationService;
+import com.martin1500.security.UserPrincipal;
+import com.martin1500.service.JwtService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the reactive read API on a random port, with two event loop threads, against the embedded
+ * H2 database through its R2DBC driver; the data is written through JPA as usual.
+ */
+@SpringBootTest(properties = {"reactive.read.enabled=true", "reactive.read.port=0", "reactive.read.eventLoopThreads=2"})
+public class TestReactiveTaskReadApi {
+
+    private static final int READERS = 500;
+
+    @Autowired
+    private ReactiveReadServer server;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User owner;
+    private Project project;
+    private List<Task> tasks;
+    private String accessToken;
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(user("reader"));
+        User other = userRepository.save(user("otherReader"));
+        project = projectRepository.save(Project.builder().name("Dashboard").members(new HashSet<>(Set.of(owner))).build());
+
+        LocalDate today = LocalDate.now();
+        tasks = new ArrayList<>();
+        tasks.add(task(owner, "Late", Status.PENDING, Priority.HIGH, today.minusDays(2), project));
+        tasks.add(task(owner, "Late but done", Status.COMPLETED, Priority.LOW, today.minusDays(1), project));
+        tasks.add(task(owner, "Started", Status.IN_PROGRESS, Priority.HIGH, today.plusDays(3), null));
+        tasks.add(task(owner, "Later", Status.PENDING, Priority.MEDIUM, today.plusDays(5), project));
+        task(other, "Not mine", Status.PENDING, Priority.HIGH, today.minusDays(3), project);
+
+        accessToken = jwtService.generateTokenPair(UserPrincipal.from(owner)).accessToken();
+        client = WebTestClient.bindToServer().baseUrl("http://localhost:" + server.getPort()).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from revoked_token");
+        jdbcTemplate.update("delete from task");
+        jdbcTemplate.update("delete from project_members");
+        jdbcTemplate.update("delete from project");
+        jdbcTemplate.update("delete from refresh_token");
+        jdbcTemplate.update("delete from users");
+        entityManagerFactory.getCache().evictAll();
+        tokenRevocationService.rebuild();
+    }
+
+    @Test
+    void getTasks_ShouldStreamOwnTasksInFinderOrder() {
+        // By priority name, then due date, as findDTOsByCreatedBy
+        assertEquals(List.of("Late", "Started", "Late but done", "Later"), titles(get("/api/tasks")));
+
+        TaskDTO late = get("/api/tasks").get(0);
+        assertEquals(tasks.get(0).getId(), late.getId());
+        assertEquals(Status.PENDING, late.getStatus());
+        assertEquals(LocalDate.now().minusDays(2), late.getDueDate());
+        assertEquals(project.getId(), late.getProjectId());
+        assertEquals(0L, late.getVersion());
+        assertNotNull(late.getCreatedAt());
+    }
+
+    @Test
+    void filteredListings_ShouldMatchServletFinders() {
+        assertEquals(List.of("Late", "Later"), titles(get("/api/tasks/status/PENDING")));
+        assertEquals(List.of("Late", "Started"), titles(get("/api/tasks/priority/HIGH")));
+        assertEquals(List.of("Late"), titles(get("/api/tasks/overdue")));
+        assertEquals(List.of("Late", "Late but done", "Later"), titles(get("/api/tasks/project/" + project.getId())));
+        assertEquals(List.of(), get("/api/tasks/project/" + Long.MAX_VALUE));
+    }
+
+    @Test
+    void getTasks_ShouldStreamNdjsonWhenAccepted() {
+        List<TaskDTO> streamed = client.get().uri("/api/tasks")
+                .headers(headers -> headers.setBearerAuth(accessToken))
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(TaskDTO.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertEquals(titles(get("/api/tasks")), titles(streamed));
+    }
+
+    @Test
+    void badPathVariables_ShouldBeRejected() {
+        client.get().uri("/api/tasks/status/DONE").headers(headers -> headers.setBearerAuth(accessToken))
+                .exchange().expectStatus().isBadRequest();
+        client.get().uri("/api/tasks/project/first").headers(headers -> headers.setBearerAuth(accessToken))
+                .exchange().expectStatus().isBadRequest();
+    }
+
+    @Test
+    void requests_ShouldNeedValidAccessToken() {
+        client.get().uri("/api/tasks").exchange().expectStatus().isUnauthorized();
+        client.get().uri("/api/tasks").headers(headers -> headers.setBearerAuth("not.a.token"))
+                .exchange().expectStatus().isUnauthorized();
+
+        String refreshToken = jwtService.generateTokenPair(UserPrincipal.from(owner)).refreshToken();
+        client.get().uri("/api/tasks").headers(headers -> headers.setBearerAuth(refreshToken))
+                .exchange().expectStatus().isUnauthorized();
+
+        tokenRevocationService.revoke(jwtService.verifyToken(accessToken).tokenId(), Instant.now().plus(1, ChronoUnit.DAYS));
+        client.get().uri("/api/tasks").headers(headers -> headers.setBearerAuth(accessToken))
+                .exchange().expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void concurrentReaders_ShouldAllBeServed() {
+        // One connection per reader; the default client pool would queue most of them.
+        ConnectionProvider connections = ConnectionProvider.builder("readers").maxConnections(READERS).build();
+        WebClient webClient = WebClient.builder()
+                .baseUrl("http://localhost:" + server.getPort())
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections)))
+                .build();
+
+        List<Integer> counts = Flux.range(0, READERS)
+                .flatMap(i -> webClient.get().uri("/api/tasks")
+                        .headers(headers -> headers.setBearerAuth(accessToken))
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .retrieve()
+                        .bodyToFlux(TaskDTO.class)
+                        .count(), READERS)
+                .map(Long::intValue)
+                .collectList()
+                .block();
+        connections.dispose();
+
+        assertEquals(READERS, counts.size());
+        assertTrue(counts.stream().allMatch(count -> count == tasks.size()), counts.toString());
+    }
+
+    private List<TaskDTO> get(String uri) {
+        return client.get().uri(uri)
+                .headers(headers -> headers.setBearerAuth(accessToken))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.OK)
+                .expectBodyList(TaskDTO.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    private Task task(User createdBy, String title, Status status, Priority priority, LocalDate dueDate, Project project) {
+        return taskRepository.save(Task.builder().title(title).createdBy(createdBy).status(status).priority(priority)
+                .dueDate(dueDate).project(project).build());
+    }
+
+    private static List<String> titles(List<TaskDTO> tasks) {
+        return tasks.stream().map(TaskDTO::getTitle).toList();
+    }
+
+    private static User user(String username) {
+        return User.builder().username(username).email(username + "@gmail.com")
+                .password("password123").role(Role.USER).build();
+    }
+}
@@ -0,0 +1,214 @@
+package com.martin1500.repository;
+
+import com.martin1500.dto.ProjectDTO;
+import com.martin1500.exception.ResourceNotFoundException;
+import com.martin1500.model.Project;
+import com.martin1500.model.User;
+import com.martin1500.model.util.DeletionStatus;
+import com.martin1500.model.util.Role;
+import com.martin1500.model.util.TaskDisposition;
+import com.martin1500.service.ProjectService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reads through the second-level and query cache and checks that updates, membership changes and
+ * deletes are never hidden by a cached copy. Each read runs in its own transaction, so nothing is
+ * served from the persistence context.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability(tracing = false)
+public class TestSecondLevelCache {
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    private Statistics statistics;
+    private User owner;
+    private User other;
+    private Project project;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(user("cacheOwner"));
+        other = userRepository.save(user("cacheOther"));
+        project = projectRepository.save(Project.builder().name("Cached").members(new HashSet<>(Set.of(owner))).build());
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from project_deletion");
+        jdbcTemplate.update("delete from project_members");
+        jdbcTemplate.update("delete from project");
+        jdbcTemplate.update("delete from users");
+        // The rows went behind Hibernate's back.
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void findById_ShouldBeServedFromCache() {
+        findProject();
+        findProject();
+        findUser(other.getId());
+        findUser(other.getId());
+
+        assertTrue(statistics.getDomainDataRegionStatistics(Project.CACHE_REGION).getHitCount() >= 1);
+        assertTrue(statistics.getDomainDataRegionStatistics(User.CACHE_REGION).getHitCount() >= 1);
+    }
+
+    @Test
+    void projectSummary_ShouldBeServedFromQueryCache() {
+        projectService.getProjectById(project.getId());
+        long statements = statistics.getPrepareStatementCount();
+
+        ProjectDTO summary = projectService.getProjectById(project.getId());
+
+        assertEquals(1L, summary.getMemberCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertEquals(statements, statistics.getPrepareStatementCount(), "A cache hit should not run SQL");
+    }
+
+    @Test
+    void updateProject_ShouldReplaceCachedCopy() {
+        findProject();
+
+        projectService.updateProject(project.getId(), ProjectDTO.builder().name("Renamed").build());
+
+        Project cached = findProject();
+        assertEquals("Renamed", cached.getName());
+        assertEquals(1L, cached.getVersion());
+        assertEquals("Renamed", projectService.getProjectById(project.getId()).getName());
+    }
+
+    @Test
+    void memberChanges_ShouldInvalidateCachedMembersAndQueries() {
+        assertEquals(Set.of(owner.getId()), memberIds());
+
+        projectService.addMember(project.getId(), other.getId());
+        assertEquals(Set.of(owner.getId(), other.getId()), memberIds());
+        assertEquals(Set.of(owner.getId(), other.getId()), previewIds());
+
+        projectService.removeMember(project.getId(), owner.getId());
+        assertEquals(Set.of(other.getId()), memberIds());
+        assertEquals(Set.of(other.getId()), previewIds());
+    }
+
+    @Test
+    void userUpdate_ShouldReplaceCachedCopy() {
+        findUser(other.getId());
+
+        transactionTemplate.executeWithoutResult(status ->
+                userRepository.findById(other.getId()).orElseThrow().setEmail("changed@gmail.com"));
+
+        assertEquals("changed@gmail.com", findUser(other.getId()).getEmail());
+    }
+
+    @Test
+    void deletes_ShouldEvictCachedCopies() throws InterruptedException {
+        memberIds();
+        projectService.getProjectById(project.getId());
+
+        projectService.deleteProject(project.getId(), TaskDisposition.DETACH);
+        awaitDeletion();
+
+        assertFalse(inTransaction(() -> projectRepository.findById(project.getId()).isPresent()));
+        assertThrows(ResourceNotFoundException.class, () -> projectService.getProjectById(project.getId()));
+
+        findUser(other.getId());
+        transactionTemplate.executeWithoutResult(status -> userRepository.deleteById(other.getId()));
+
+        assertFalse(inTransaction(() -> userRepository.findById(other.getId()).isPresent()));
+    }
+
+    @Test
+    void prometheus_ShouldExposeCacheStatistics() {
+        findProject();
+        findProject();
+
+        String scrape = restTemplate.getForObject("/actuator/prometheus", String.class);
+
+        assertTrue(scrape.contains("hibernate_second_level_cache_requests"), "Hibernate region statistics");
+        assertTrue(scrape.contains("region=\"" + Project.CACHE_REGION + "\""));
+        assertTrue(scrape.contains("hibernate_cache_query_requests"), "Query cache statistics");
+        assertTrue(scrape.contains("cache=\"" + Project.MEMBERS_CACHE_REGION + "\""), "JCache statistics");
+    }
+
+    private Project findProject() {
+        return inTransaction(() -> projectRepository.findById(project.getId()).orElseThrow());
+    }
+
+    private User findUser(Long id) {
+        return inTransaction(() -> userRepository.findById(id).orElseThrow());
+    }
+
+    /** Through the cached members collection. */
+    private Set<Long> memberIds() {
+        return inTransaction(() -> {
+            Set<Long> ids = new HashSet<>();
+            projectRepository.findById(project.getId()).orElseThrow().getMembers().forEach(user -> ids.add(user.getId()));
+            return ids;
+        });
+    }
+
+    /** Through the cached summary query. */
+    private Set<Long> previewIds() {
+        Set<Long> ids = new HashSet<>();
+        projectService.getProjectById(project.getId()).getMemberPreview().forEach(member -> ids.add(member.id()));
+        return ids;
+    }
+
+    /** Project deletions run in the background. */
+    private void awaitDeletion() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!projectService.getDeletion(project.getId()).status().isFinished()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Deletion did not finish");
+            Thread.sleep(20);
+        }
+        assertEquals(DeletionStatus.COMPLETED, projectService.getDeletion(project.getId()).status());
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        return transactionTemplate.execute(status -> work.get());
+    }
+
+    private static User user(String username) {
+        return User.builder().username(username).email(username + "@gmail.com")
+                .password("password123").role(Role.USER).build();
+    }
+}
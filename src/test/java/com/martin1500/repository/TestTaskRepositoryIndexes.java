@@ -0,0 +1,283 @@
+package com.martin1500.repository;
+
+import com.martin1500.model.Project;
+import com.martin1500.model.Task;
+import com.martin1500.model.User;
+import com.martin1500.model.util.Priority;
+import com.martin1500.model.util.Role;
+import com.martin1500.model.util.Status;
+import com.martin1500.stats.TaskCount;
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs {@code EXPLAIN} on the SQL each repository query generates and checks that every table is
+ * read through an index from the migrations. H2 also creates an index per foreign key, which
+ * PostgreSQL does not; when H2 picks one of those, a migration index with the same leading column
+ * must exist for PostgreSQL to use instead. {@code ANALYZE} commits, so the fixture is committed
+ * and removed again after each test instead of being rolled back.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.martin1500.repository.TestTaskRepositoryIndexes$CapturingStatementInspector")
+public class TestTaskRepositoryIndexes {
+
+    private static final Pattern INDEX_COMMENT = Pattern.compile("/\\* PUBLIC\\.([A-Z0-9_.]+)");
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User user;
+    private Project project;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            user = userRepository.save(User.builder().username("indexUser").email("indexUser@gmail.com")
+                    .password("password123").role(Role.USER).build());
+            project = projectRepository.save(Project.builder().name("Indexed").members(Set.of(user)).build());
+            for (int i = 0; i < 200; i++) {
+                taskRepository.save(Task.builder().title("Task " + i).createdBy(user).project(project)
+                        .status(Status.values()[i % 3]).priority(Priority.values()[i % 3])
+                        .dueDate(LocalDate.now().plusDays(i % 50)).assignees(Set.of(user)).build());
+            }
+        });
+        // Without statistics H2 treats every index as equally selective.
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from task_assignees where user_id = ?", user.getId());
+        jdbcTemplate.update("delete from task where created_by_id = ?", user.getId());
+        jdbcTemplate.update("delete from project_members where project_id = ?", project.getId());
+        jdbcTemplate.update("delete from project where id = ?", project.getId());
+        jdbcTemplate.update("delete from users where id = ?", user.getId());
+    }
+
+    @Test
+    void findDTOsByCreatedBy_ShouldUseIndex() {
+        String sql = capture(() -> taskRepository.findDTOsByCreatedBy(user));
+        assertUsesIndexes(sql, List.of("IDX_TASK_CREATED_BY"), user.getId());
+    }
+
+    @Test
+    void findDTOsByCreatedByAndStatus_ShouldUseIndex() {
+        String sql = capture(() -> taskRepository.findDTOsByCreatedByAndStatus(user, Status.PENDING));
+        assertUsesIndexes(sql, List.of("IDX_TASK_CREATED_BY_STATUS"), user.getId(), "PENDING");
+
+        sql = capture(() -> taskRepository.findTaskPage(user, TaskFilter.byStatus(Status.PENDING), ScrollPosition.keyset(), 10));
+        assertUsesIndexes(sql, List.of("IDX_TASK_CREATED_BY_STATUS"), user.getId(), "PENDING", 10);
+    }
+
+    @Test
+    void findDTOsByCreatedByAndPriority_ShouldUseIndex() {
+        String sql = capture(() -> taskRepository.findDTOsByCreatedByAndPriority(user, Priority.LOW));
+        assertUsesIndexes(sql, List.of("IDX_TASK_CREATED_BY_PRIORITY"), user.getId(), "LOW");
+
+        sql = capture(() -> taskRepository.findTaskPage(user, TaskFilter.byPriority(Priority.LOW), ScrollPosition.keyset(), 10));
+        assertUsesIndexes(sql, List.of("IDX_TASK_CREATED_BY_PRIORITY"), user.getId(), "LOW", 10);
+    }
+
+    @Test
+    void findOverdueDTOsByCreatedBy_ShouldUseIndex() {
+        LocalDate today = LocalDate.now().plusDays(10);
+        String sql = capture(() -> taskRepository.findOverdueDTOsByCreatedBy(user, today));
+        assertUsesIndexes(sql, List.of("IDX_TASK_CREATED_BY_DUE_DATE", "IDX_TASK_CREATED_BY_STATUS"), user.getId(), today);
+
+        sql = capture(() -> taskRepository.findTaskPage(user, TaskFilter.dueBefore(today), ScrollPosition.keyset(), 10));
+        assertUsesIndexes(sql, List.of("IDX_TASK_CREATED_BY_DUE_DATE"), user.getId(), today.minusDays(1), 10);
+
+        sql = capture(() -> taskRepository.findTaskPage(user, TaskFilter.overdue(today), ScrollPosition.keyset(), 10));
+        assertUsesIndexes(sql, List.of("IDX_TASK_CREATED_BY_DUE_DATE", "IDX_TASK_CREATED_BY_STATUS"),
+                user.getId(), "PENDING", "IN_PROGRESS", today.minusDays(1), 10);
+    }
+
+    @Test
+    void findTaskPage_ShouldSeekThroughIndex() {
+        KeysetScrollPosition position = ScrollPosition.forward(Map.of("dueDate", LocalDate.now(), "id", 5L));
+        String sql = capture(() -> taskRepository.findTaskPage(user, TaskFilter.none(), position, 10));
+        assertUsesIndexes(sql, List.of("IDX_TASK_CREATED_BY_DUE_DATE"),
+                user.getId(), LocalDate.now(), LocalDate.now(), 5L, 10);
+    }
+
+    @Test
+    void searchCombinations_ShouldUseIndex() {
+        LocalDate from = LocalDate.now().plusDays(5);
+        LocalDate to = LocalDate.now().plusDays(12);
+        TaskFilter statusesAndDueRange = new TaskFilter(Set.of(Status.PENDING, Status.IN_PROGRESS), null, from, to,
+                null, null, null);
+        String sql = capture(() -> taskRepository.findTaskPage(user, statusesAndDueRange, ScrollPosition.keyset(), 10));
+        assertUsesIndexes(sql, List.of("IDX_TASK_CREATED_BY_STATUS", "IDX_TASK_CREATED_BY_DUE_DATE"),
+                user.getId(), "PENDING", "IN_PROGRESS", from, to, 10);
+
+        TaskFilter projectStatusPriority = new TaskFilter(Set.of(Status.IN_PROGRESS), Priority.HIGH, null, null,
+                project.getId(), null, null);
+        sql = capture(() -> taskRepository.findTaskPage(user, projectStatusPriority, ScrollPosition.keyset(), 10));
+        assertUsesIndexes(sql, List.of("IDX_TASK_CREATED_BY_STATUS", "IDX_TASK_CREATED_BY_PRIORITY", "IDX_TASK_PROJECT_CREATED_BY"),
+                user.getId(), "IN_PROGRESS", "HIGH", project.getId(), 10);
+
+        TaskFilter assignee = new TaskFilter(null, null, null, null, null, user.getId(), null);
+        sql = capture(() -> taskRepository.findTaskPage(user, assignee, ScrollPosition.keyset(), 10));
+        assertUsesIndexes(sql, List.of("IDX_TASK_CREATED_BY", "IDX_TASK_ASSIGNEES_USER"), user.getId(), user.getId(), 10);
+
+        TaskFilter titlePrefix = new TaskFilter(null, null, null, null, null, null, "Task 1");
+        sql = capture(() -> taskRepository.findTaskPage(user, titlePrefix, ScrollPosition.keyset(), 10));
+        assertUsesIndexes(sql, List.of("IDX_TASK_CREATED_BY"), user.getId(), "Task 1%", 10);
+    }
+
+    @Test
+    void existsByTitleAndCreatedBy_ShouldUseIndex() {
+        String sql = capture(() -> taskRepository.existsByTitleAndCreatedBy("Task 7", user));
+        assertUsesIndexes(sql, List.of("IDX_TASK_CREATED_BY_TITLE"), "Task 7", user.getId(), 1);
+    }
+
+    @Test
+    void findDTOsByProjectIdAndCreatedBy_ShouldUseIndex() {
+        String sql = capture(() -> taskRepository.findDTOsByProjectIdAndCreatedBy(project.getId(), user));
+        assertUsesIndexes(sql, List.of("IDX_TASK_PROJECT_CREATED_BY"), project.getId(), user.getId());
+
+        sql = capture(() -> taskRepository.findTaskPage(user, TaskFilter.byProject(project.getId()), ScrollPosition.keyset(), 10));
+        assertUsesIndexes(sql, List.of("IDX_TASK_PROJECT_CREATED_BY"), user.getId(), project.getId(), 10);
+    }
+
+    @Test
+    void lockSnapshotsInProject_ShouldReadChunkInIndexOrder() {
+        String sql = capture(() -> taskRepository.lockSnapshotsInProject(project.getId(), 10));
+        assertUsesIndexes(sql, List.of("IDX_TASK_PROJECT_ID"), project.getId(), 10);
+    }
+
+    @Test
+    void exportStreams_ShouldUseIndex() {
+        String sql = capture(() -> {
+            try (Stream<Task> tasks = taskRepository.streamByCreatedBy(user)) {
+                tasks.findFirst();
+            }
+        });
+        assertUsesIndexes(sql, List.of("IDX_TASK_CREATED_BY"), user.getId());
+
+        sql = capture(() -> {
+            try (Stream<Task> tasks = taskRepository.streamByProjectIdAndCreatedBy(project.getId(), user)) {
+                tasks.findFirst();
+            }
+        });
+        assertUsesIndexes(sql, List.of("IDX_TASK_PROJECT_CREATED_BY", "IDX_TASK_CREATED_BY"), project.getId(), user.getId());
+    }
+
+    @Test
+    void countTasksByCreatedBy_ShouldGroupThroughIndex() {
+        LocalDate today = LocalDate.now().plusDays(10);
+        List<TaskCount> counts = taskRepository.countTasksByCreatedBy(user, today);
+        assertEquals(200, counts.stream().mapToLong(TaskCount::tasks).sum());
+        // 40 tasks are due in the next ten days; 13 of them are completed.
+        assertEquals(27, counts.stream().mapToLong(TaskCount::overdue).sum());
+
+        String sql = capture(() -> taskRepository.countTasksByCreatedBy(user, today));
+        assertUsesIndexes(sql, List.of("IDX_TASK_CREATED_BY"), today, user.getId());
+
+        sql = capture(() -> taskRepository.countTasksByCreatedByAndProjectId(user, project.getId(), today));
+        assertUsesIndexes(sql, List.of("IDX_TASK_PROJECT_CREATED_BY", "IDX_TASK_CREATED_BY"), today, user.getId(), project.getId());
+    }
+
+    @Test
+    void joinTablesByUser_ShouldUseIndex() {
+        String sql = capture(() -> entityManager.find(User.class, user.getId()).getAssignedTasks().size(), "task_assignees");
+        assertUsesIndexes(sql, List.of("IDX_TASK_ASSIGNEES_USER"), user.getId());
+
+        sql = capture(() -> entityManager.find(User.class, user.getId()).getProjects().size(), "project_members");
+        assertUsesIndexes(sql, List.of("IDX_PROJECT_MEMBERS_USER"), user.getId());
+    }
+
+    private String capture(Runnable query) {
+        return capture(query, "task");
+    }
+
+    /**
+     * Returns the first statement run by {@code query} that reads from {@code table}.
+     */
+    private String capture(Runnable query, String table) {
+        CapturingStatementInspector.STATEMENTS.clear();
+        transactionTemplate.executeWithoutResult(status -> query.run());
+        return CapturingStatementInspector.STATEMENTS.stream()
+                .filter(sql -> sql.startsWith("select") && sql.contains(" from " + table + " "))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No query on " + table + " in " + CapturingStatementInspector.STATEMENTS));
+    }
+
+    /**
+     * Asserts that the plan contains no table scan and that at least one index it uses (or, for an
+     * H2 foreign key index, one of the migration indexes standing in for it) starts with one of
+     * {@code expectedPrefixes}.
+     */
+    private void assertUsesIndexes(String sql, List<String> expectedPrefixes, Object... parameters) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, parameters);
+        Matcher matcher = INDEX_COMMENT.matcher(plan);
+        boolean expectedIndexUsed = false;
+        while (matcher.find()) {
+            String access = matcher.group(1);
+            assertFalse(access.toUpperCase().endsWith(".TABLESCAN"), "Table scan in plan:\n" + plan);
+            List<String> indexes = access.startsWith("FK_") ? migrationIndexesLike(access) : List.of(access);
+            assertFalse(indexes.isEmpty(), "No migration index covers " + access + " in plan:\n" + plan);
+            expectedIndexUsed |= indexes.stream().anyMatch(index -> expectedPrefixes.stream().anyMatch(index::startsWith));
+        }
+        assertTrue(expectedIndexUsed, "Expected an index starting with " + expectedPrefixes + " in plan:\n" + plan);
+    }
+
+    /**
+     * Migration indexes on the same table whose leading column is the column of the given H2
+     * foreign key index.
+     */
+    private List<String> migrationIndexesLike(String foreignKeyIndex) {
+        return jdbcTemplate.queryForList("""
+                select i.index_name from information_schema.index_columns i
+                join information_schema.index_columns fk
+                  on fk.table_name = i.table_name and fk.column_name = i.column_name and fk.ordinal_position = 1
+                where fk.index_name = ? and i.ordinal_position = 1 and i.index_name like 'IDX\\_%'
+                """, String.class, foreignKeyIndex);
+    }
+
+    public static class CapturingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.martin1500.search;
+
+import com.martin1500.event.TaskSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestTaskSearchIndex {
+
+    private static final long USER = 1L;
+    private static final long OTHER_USER = 2L;
+
+    private TaskSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TaskSearchIndex(new SimpleMeterRegistry(), 10000);
+    }
+
+    @Test
+    void search_ShouldRequireEveryWordAndRankTitleMatchesFirst() {
+        index.index(task(1, USER, 10L, "Quarterly report", "numbers for the board", null));
+        index.index(task(2, USER, 10L, "Board meeting", "present the quarterly report", null));
+        index.index(task(3, USER, 10L, "Report bug", null, "crash on login"));
+
+        assertEquals(List.of(1L, 2L), index.search(USER, null, "quarterly REPORT", 0, 10).taskIds());
+        assertEquals(List.of(3L), index.search(USER, null, "report crash", 0, 10).taskIds());
+        assertEquals(List.of(), index.search(USER, null, "report missing", 0, 10).taskIds());
+    }
+
+    @Test
+    void search_ShouldBeScopedToUserAndProject() {
+        index.index(task(1, USER, 10L, "Deploy release", null, null));
+        index.index(task(2, USER, 20L, "Deploy hotfix", null, null));
+        index.index(task(3, OTHER_USER, 10L, "Deploy release", null, null));
+
+        assertEquals(2, index.search(USER, null, "deploy", 0, 10).total());
+        assertEquals(List.of(2L), index.search(USER, 20L, "deploy", 0, 10).taskIds());
+        assertEquals(List.of(3L), index.search(OTHER_USER, null, "deploy", 0, 10).taskIds());
+    }
+
+    @Test
+    void search_ShouldIgnoreCaseAndAccents() {
+        index.index(task(1, USER, null, "Café menu", "Résumé review", null));
+
+        assertEquals(List.of(1L), index.search(USER, null, "cafe RESUME", 0, 10).taskIds());
+    }
+
+    @Test
+    void search_ShouldPageThroughRankedResults() {
+        for (long id = 1; id <= 25; id++) {
+            index.index(task(id, USER, null, "Sprint task " + id, null, null));
+        }
+
+        TaskSearchHits first = index.search(USER, null, "sprint", 0, 10);
+        TaskSearchHits last = index.search(USER, null, "sprint", 20, 10);
+
+        assertEquals(25, first.total());
+        assertEquals(10, first.taskIds().size());
+        assertEquals(5, last.taskIds().size());
+        assertTrue(first.taskIds().stream().noneMatch(last.taskIds()::contains));
+    }
+
+    @Test
+    void search_ShouldRankTheSameWhenCountingStops() {
+        // Past 20 matches this index stops counting and skips postings that cannot make the page.
+        TaskSearchIndex capped = new TaskSearchIndex(new SimpleMeterRegistry(), 20);
+        SplittableRandom random = new SplittableRandom(7);
+        for (long id = 1; id <= 5000; id++) {
+            TaskSnapshot task = task(id, USER, id % 5, words(random, 4), words(random, 10), null);
+            index.index(task);
+            capped.index(task);
+        }
+
+        for (String query : List.of("w0", "w1", "w0 w3", "w2 w7")) {
+            for (Long projectId : Arrays.asList(null, 3L)) {
+                TaskSearchHits counted = index.search(USER, projectId, query, 0, 10);
+                TaskSearchHits pruned = capped.search(USER, projectId, query, 0, 10);
+                assertEquals(counted.taskIds(), pruned.taskIds(), query + " in " + projectId);
+                assertEquals(Math.min(counted.total(), 20), pruned.total(), query + " in " + projectId);
+            }
+        }
+        assertEquals(index.search(USER, null, "w0", 10, 10).taskIds(), capped.search(USER, null, "w0", 10, 10).taskIds());
+    }
+
+    @Test
+    void index_ShouldReplaceAndRemoveTasks() {
+        index.index(task(1, USER, null, "Old title", null, null));
+        index.index(task(1, USER, null, "New title", null, null));
+
+        assertEquals(List.of(), index.search(USER, null, "old", 0, 10).taskIds());
+        assertEquals(List.of(1L), index.search(USER, null, "new", 0, 10).taskIds());
+
+        index.remove(USER, 1L);
+
+        assertEquals(List.of(), index.search(USER, null, "title", 0, 10).taskIds());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void remove_ShouldCompactWithoutLosingLiveTasks() {
+        for (long id = 1; id <= 3000; id++) {
+            index.index(task(id, USER, id % 2, "Task number " + id, id % 3 == 0 ? "fizz" : null, null));
+        }
+        long before = index.memoryBytes();
+        for (long id = 1; id <= 2500; id++) {
+            index.remove(USER, id);
+        }
+
+        assertTrue(index.memoryBytes() < before);
+        assertEquals(500, index.search(USER, null, "task", 0, 10).total());
+        assertEquals(List.of(2700L), index.search(USER, null, "number 2700", 0, 10).taskIds());
+        assertEquals(167, index.search(USER, null, "fizz", 0, 10).total());
+        assertEquals(250, index.search(USER, 1L, "task", 0, 10).total());
+    }
+
+    @Test
+    void rebuild_ShouldNotOverrideLiveChanges() {
+        index.startRebuild();
+        index.index(task(1, USER, null, "Updated while loading", null, null));
+        index.remove(USER, 2L);
+
+        index.indexIfAbsent(task(1, USER, null, "Stale row", null, null));
+        index.indexIfAbsent(task(2, USER, null, "Deleted row", null, null));
+        index.indexIfAbsent(task(3, USER, null, "Untouched row", null, null));
+        index.finishRebuild();
+
+        assertTrue(index.isReady());
+        assertEquals(List.of(1L), index.search(USER, null, "updated", 0, 10).taskIds());
+        assertEquals(List.of(3L), index.search(USER, null, "row", 0, 10).taskIds());
+    }
+
+    /** Words of a 50-word vocabulary, the lower-numbered ones far more common. */
+    private static String words(SplittableRandom random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.append('w').append((int) Math.pow(50, random.nextDouble()) - 1).append(' ');
+        }
+        return text.toString();
+    }
+
+    private static TaskSnapshot task(long id, long createdById, Long projectId, String title, String description, String comments) {
+        return new TaskSnapshot(id, createdById, projectId, title, description, comments, null, null, null);
+    }
+}
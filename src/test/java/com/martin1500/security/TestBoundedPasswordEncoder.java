@@ -0,0 +1,84 @@
+package com.martin1500.security;
+
+import com.martin1500.exception.PasswordHashingUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestBoundedPasswordEncoder {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newFixedThreadPool(2);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+    }
+
+    @Test
+    void matches_ShouldRejectFastWhenPoolAndQueueAreFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        PasswordEncoder blocking = new BCryptPasswordEncoder(4) {
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return true;
+            }
+        };
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(blocking, 4, 1, 1, 10_000, meterRegistry);
+
+        callers.submit(() -> encoder.matches("password", "hash"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        callers.submit(() -> encoder.matches("password", "hash"));
+        waitForQueueDepth(1);
+
+        assertThrows(PasswordHashingUnavailableException.class, () -> encoder.matches("password", "hash"));
+        assertEquals(1.0, meterRegistry.get("auth.password.hashing.rejected").counter().count());
+        encoder.destroy();
+    }
+
+    @Test
+    void encode_ShouldUseConfiguredCost() {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(5, 1, 1, 10_000, meterRegistry);
+
+        String hash = encoder.encode("password");
+
+        assertTrue(hash.startsWith("$2a$05$"), "Hash should be produced with the configured cost");
+        assertTrue(encoder.matches("password", hash));
+        encoder.destroy();
+    }
+
+    @Test
+    void upgradeEncoding_ShouldRequestRehashWhenCostDiffers() {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(5, 1, 1, 10_000, meterRegistry);
+
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("password")));
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("password")));
+        assertFalse(encoder.upgradeEncoding(new BCryptPasswordEncoder(5).encode("password")));
+        encoder.destroy();
+    }
+
+    private void waitForQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("auth.password.hashing.queue").gauge().value() < depth) {
+            assertTrue(System.nanoTime() < deadline, "Queue never reached depth " + depth);
+            Thread.sleep(10);
+        }
+    }
+}
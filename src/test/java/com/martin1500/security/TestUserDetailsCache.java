@@ -0,0 +1,109 @@
+package com.martin1500.security;
+
+import com.martin1500.model.User;
+import com.martin1500.model.util.Role;
+import com.martin1500.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@Transactional
+public class TestUserDetailsCache {
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        userDetailsCache.invalidateAll();
+        user = userRepository.saveAndFlush(User.builder()
+                .username("cachedUser")
+                .email("cachedUser@gmail.com")
+                .password("password123")
+                .role(Role.USER)
+                .build());
+    }
+
+    @Test
+    void get_ShouldServeRepeatedLookupsFromCache() {
+        UserPrincipal first = userDetailsCache.get("cachedUser").orElseThrow();
+        UserPrincipal second = userDetailsCache.get("cachedUser").orElseThrow();
+
+        assertSame(first, second, "The second lookup should be a cache hit");
+        assertEquals(user.getId(), first.id());
+    }
+
+    @Test
+    void get_ShouldReloadAfterRoleChange() {
+        assertEquals(Role.USER, userDetailsCache.get("cachedUser").orElseThrow().role());
+
+        user.setRole(Role.ADMIN);
+        userRepository.saveAndFlush(user);
+
+        assertEquals(Role.ADMIN, userDetailsCache.get("cachedUser").orElseThrow().role());
+    }
+
+    @Test
+    void get_ShouldForgetOldUsernameAfterRename() {
+        userDetailsCache.get("cachedUser").orElseThrow();
+
+        user.setUsername("renamedUser");
+        userRepository.saveAndFlush(user);
+
+        assertEquals(Optional.empty(), userDetailsCache.get("cachedUser"));
+        assertEquals(user.getId(), userDetailsCache.get("renamedUser").orElseThrow().id());
+    }
+
+    @Test
+    void evict_ShouldDropEntryAfterBulkUpdate() {
+        assertEquals(Role.USER, userDetailsCache.get("cachedUser").orElseThrow().role());
+
+        // Bulk updates skip entity callbacks, so the caller evicts
+        entityManager.createQuery("update User u set u.role = :role where u.id = :id")
+                .setParameter("role", Role.ADMIN)
+                .setParameter("id", user.getId())
+                .executeUpdate();
+        entityManager.clear();
+        assertEquals(Role.USER, userDetailsCache.get("cachedUser").orElseThrow().role());
+        userDetailsCache.evict(List.of(user.getId()));
+
+        assertEquals(Role.ADMIN, userDetailsCache.get("cachedUser").orElseThrow().role());
+    }
+
+    @Test
+    void get_ShouldNotCacheRowReadWhileInvalidated() {
+        UserRepository repository = mock(UserRepository.class);
+        UserDetailsCache cache = new UserDetailsCache(repository, new SimpleMeterRegistry(), 100, 60_000);
+        User stale = User.builder().id(42L).username("racingUser").role(Role.USER).build();
+        // The change commits, and its invalidation runs, while the old row is being read
+        when(repository.findByUsername("racingUser")).thenAnswer(invocation -> {
+            cache.invalidate(42L);
+            return Optional.of(stale);
+        }).thenReturn(Optional.of(stale));
+
+        assertEquals(42L, cache.get("racingUser").orElseThrow().id());
+        cache.get("racingUser");
+
+        verify(repository, times(2)).findByUsername("racingUser");
+    }
+}
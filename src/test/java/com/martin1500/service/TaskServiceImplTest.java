@@ -2,6 +2,7 @@ package com.martin1500.service;
 
 import com.martin1500.dto.TaskCreateDTO;
 import com.martin1500.dto.TaskDTO;
+import com.martin1500.exception.ResourceNotFoundException;
 import com.martin1500.model.Project;
 import com.martin1500.model.Task;
 import com.martin1500.model.User;
@@ -28,6 +29,7 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 import java.time.LocalDate;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -252,6 +254,34 @@ public class TaskServiceImplTest {
         Task updatedTask = taskRepository.findById(task.getId()).orElseThrow();
         assertTrue(updatedTask.getAssignees().contains(assignee));
     }
+
+    @Test
+    @Transactional
+    void addAssignees_ShouldWriteOnlyMissingRows() {
+        Project project = projectRepository.save(Project.builder().name("Project 1")
+                .members(new HashSet<>(Set.of(authenticatedUser))).build());
+        Task task = taskRepository.save(Task.builder().title("Task 1").project(project).createdBy(authenticatedUser)
+                .dueDate(LocalDate.now().plusDays(1)).priority(Priority.LOW).status(Status.PENDING)
+                .assignees(new HashSet<>()).build());
+        User first = userRepository.save(User.builder().username("first").email("first@gmail.com")
+                .password("password123").role(Role.USER).build());
+        User second = userRepository.save(User.builder().username("second").email("second@gmail.com")
+                .password("password123").role(Role.USER).build());
+
+        taskService.addAssignees(task.getId(), List.of(first.getId()));
+        taskService.addAssignees(task.getId(), List.of(first.getId(), second.getId(), authenticatedUser.getId()));
+
+        assertEquals(Set.of(first, second, authenticatedUser), taskRepository.findById(task.getId()).orElseThrow().getAssignees());
+        assertEquals(Set.of(first, second, authenticatedUser), projectRepository.findById(project.getId()).orElseThrow().getMembers());
+
+        taskService.removeAssignees(task.getId(), List.of(first.getId(), second.getId()));
+
+        assertEquals(Set.of(authenticatedUser), taskRepository.findById(task.getId()).orElseThrow().getAssignees());
+        assertEquals(3, projectRepository.findById(project.getId()).orElseThrow().getMembers().size(),
+                "Unassigning leaves project membership alone");
+        assertThrows(ResourceNotFoundException.class,
+                () -> taskService.addAssignees(task.getId(), List.of(first.getId(), Long.MAX_VALUE)));
+    }
 }
 
 
@@ -4,6 +4,8 @@ import com.martin1500.dto.*;
 import com.martin1500.model.User;
 import com.martin1500.model.util.Role;
 import com.martin1500.repository.UserRepository;
+import com.martin1500.security.UserDetailsCache;
+import com.martin1500.security.UserPrincipal;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -30,7 +32,10 @@ public class TestAuthService {
     private UserRepository userRepository;
 
     @Mock
-    private JwtService jwtService;
+    private UserDetailsCache userDetailsCache;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
 
     @Mock
     private AuthenticationManager authenticationManager;
@@ -57,13 +62,13 @@ public class TestAuthService {
 
         // Mocks
         when(passwordEncoder.encode(password)).thenReturn(encodedPassword);
-        when(jwtService.generateTokenPair(username)).thenReturn(new TokenPair(accessToken, refreshToken));
+        when(refreshTokenService.issue(any(UserPrincipal.class))).thenReturn(new TokenPair(accessToken, refreshToken));
 
         AuthResponse response = authService.register(request);
 
         verify(passwordEncoder).encode(password);
         verify(userRepository).save(any(User.class));
-        verify(jwtService).generateTokenPair(username);
+        verify(refreshTokenService).issue(argThat((UserPrincipal principal) -> principal.username().equals(username)));
 
         assertNotNull(response);
         assertEquals(accessToken, response.accessToken());
@@ -78,19 +83,17 @@ public class TestAuthService {
         String refreshToken = "mockRefreshToken";
 
         LoginRequest loginRequest = new LoginRequest(username, password);
-        User user = new User();
-        user.setUsername(username);
-        user.setPassword(password);
+        UserPrincipal principal = new UserPrincipal(1L, username, password, Role.USER);
 
         // Mocks
-        when(userRepository.findByUsername(username)).thenReturn(Optional.of(user));
-        when(jwtService.generateTokenPair(username)).thenReturn(new TokenPair(accessToken, refreshToken));
+        when(userDetailsCache.get(username)).thenReturn(Optional.of(principal));
+        when(refreshTokenService.issue(principal)).thenReturn(new TokenPair(accessToken, refreshToken));
 
         AuthResponse response = authService.login(loginRequest);
 
         verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
-        verify(userRepository).findByUsername(username);
-        verify(jwtService).generateTokenPair(username);
+        verify(userDetailsCache).get(username);
+        verify(refreshTokenService).issue(principal);
 
         assertNotNull(response);
         assertEquals(accessToken, response.accessToken());
@@ -98,19 +101,30 @@ public class TestAuthService {
     }
 
     @Test
-    void refreshToken_ValidRefreshToken_ReturnsNewAccessToken() {
+    void refreshToken_ValidRefreshToken_ReturnsRotatedTokenPair() {
         String refreshToken = "mockRefreshToken";
         String newAccessToken = "newMockAccessToken";
+        String newRefreshToken = "newMockRefreshToken";
         RefreshRequest request = new RefreshRequest(refreshToken);
 
         // Mocks
-        when(jwtService.refreshAccessToken(refreshToken)).thenReturn(newAccessToken);
+        when(refreshTokenService.rotate(refreshToken)).thenReturn(new TokenPair(newAccessToken, newRefreshToken));
 
-        String result = authService.refreshToken(request);
+        AuthResponse result = authService.refreshToken(request);
 
-        verify(jwtService).refreshAccessToken(refreshToken);
+        verify(refreshTokenService).rotate(refreshToken);
 
         assertNotNull(result);
-        assertEquals(newAccessToken, result);
+        assertEquals(newAccessToken, result.accessToken());
+        assertEquals(newRefreshToken, result.refreshToken());
+    }
+
+    @Test
+    void logout_RevokesRefreshTokenFamily() {
+        RefreshRequest request = new RefreshRequest("mockRefreshToken");
+
+        authService.logout(request);
+
+        verify(refreshTokenService).logout("mockRefreshToken");
     }
 }
@@ -1,6 +1,11 @@
 package com.martin1500.service;
 
+import com.martin1500.model.util.Role;
 import com.martin1500.security.JwtAuthenticationFilter;
+import com.martin1500.security.TokenRevocationService;
+import com.martin1500.security.UserPrincipal;
+import com.martin1500.security.VerifiedToken;
+import io.jsonwebtoken.MalformedJwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -20,6 +25,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 
 import java.io.IOException;
+import java.time.Instant;
 import java.util.List;
 
 import static org.mockito.Mockito.*;
@@ -36,6 +42,9 @@ public class TestJwtAuthenticationFilter {
     @Mock
     private UserDetailsService userDetailsService;
 
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
     @Mock
     private SecurityContext securityContext;
 
@@ -60,8 +69,7 @@ public class TestJwtAuthenticationFilter {
         UserDetails userDetails = new User(username, "password", List.of(new SimpleGrantedAuthority("ROLE_USER")));
 
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(jwtService.extractUsername(token)).thenReturn(username);
-        when(jwtService.isTokenValid(token, userDetails)).thenReturn(true);
+        when(jwtService.verifyToken(token)).thenReturn(new VerifiedToken("jti", username, null, null, null, false, Instant.now().plusSeconds(60)));
         when(userDetailsService.loadUserByUsername(username)).thenReturn(userDetails);
         when(securityContext.getAuthentication()).thenReturn(null);
 
@@ -75,6 +83,69 @@ public class TestJwtAuthenticationFilter {
         verify(filterChain).doFilter(request, response);
     }
 
+    @Test
+    void doFilterInternal_TokenWithUserClaims_BuildsPrincipalWithoutLoadingUser() throws ServletException, IOException {
+        String token = "valid.token";
+        String username = "dev.martin1500";
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(jwtService.verifyToken(token)).thenReturn(new VerifiedToken("jti", username, 42L, Role.USER, "family", false, Instant.now().plusSeconds(60)));
+        when(securityContext.getAuthentication()).thenReturn(null);
+
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        verify(securityContext).setAuthentication(argThat(auth ->
+                auth.getPrincipal() instanceof UserPrincipal principal &&
+                        principal.id().equals(42L) &&
+                        auth.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("USER"))
+        ));
+        verifyNoInteractions(userDetailsService);
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void doFilterInternal_RevokedTokenFamily_ContinuesWithoutAuthentication() throws ServletException, IOException {
+        String token = "revoked.token";
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(jwtService.verifyToken(token)).thenReturn(new VerifiedToken("jti", "dev.martin1500", 42L, Role.USER, "family", false, Instant.now().plusSeconds(60)));
+        when(tokenRevocationService.isRevoked("jti")).thenReturn(false);
+        when(tokenRevocationService.isRevoked("family")).thenReturn(true);
+
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        verify(securityContext, never()).setAuthentication(any());
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void doFilterInternal_RefreshTokenAsBearer_ContinuesWithoutAuthentication() throws ServletException, IOException {
+        String token = "refresh.token";
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(jwtService.verifyToken(token)).thenReturn(new VerifiedToken("jti", "dev.martin1500", 42L, Role.USER, "family", true, Instant.now().plusSeconds(60)));
+
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        verify(securityContext, never()).setAuthentication(any());
+        verifyNoInteractions(tokenRevocationService);
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void doFilterInternal_InvalidToken_ContinuesWithoutAuthentication() throws ServletException, IOException {
+        String token = "invalid.token";
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(jwtService.verifyToken(token)).thenThrow(new MalformedJwtException("Malformed token"));
+
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        verify(securityContext, never()).setAuthentication(any());
+        verifyNoInteractions(userDetailsService);
+        verify(filterChain).doFilter(request, response);
+    }
+
     @AfterEach
     void tearDown() {
         SecurityContextHolder.clearContext();
@@ -3,6 +3,9 @@ package com.martin1500.service;
 import com.martin1500.TaskTrackerApplication;
 
 import com.martin1500.dto.TokenPair;
+import com.martin1500.model.util.Role;
+import com.martin1500.security.UserPrincipal;
+import com.martin1500.security.VerifiedToken;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
@@ -42,7 +45,7 @@ public class TestJwtService {
         Key signKey = (Key) getSignKeyMethod.invoke(jwtService);
 
         // When
-        TokenPair tokenPair = jwtService.generateTokenPair(username);
+        TokenPair tokenPair = jwtService.generateTokenPair(principal(username));
 
         // Then
         assertNotNull(tokenPair.accessToken(), "The generated access token should not be null");
@@ -56,6 +59,7 @@ public class TestJwtService {
                 .getBody();
         assertEquals(username, accessClaims.getSubject(), "Access token subject should match username");
         assertTrue(accessClaims.getExpiration().after(new Date()), "Access token should not be expired");
+        assertNull(accessClaims.get("typ"), "Access token should not be typed as a refresh token");
 
         // Verify refresh token
         Claims refreshClaims = Jwts.parserBuilder()
@@ -65,6 +69,7 @@ public class TestJwtService {
                 .getBody();
         assertEquals(username, refreshClaims.getSubject(), "Refresh token subject should match username");
         assertTrue(refreshClaims.getExpiration().after(new Date()), "Refresh token should not be expired");
+        assertEquals("refresh", refreshClaims.get("typ"), "Refresh token should be typed as a refresh token");
     }
 
     @Test
@@ -80,7 +85,7 @@ public class TestJwtService {
         Key signKey = (Key) getSignKeyMethod.invoke(jwtService);
 
         // When
-        String accessToken = jwtService.generateAccessToken(username);
+        String accessToken = jwtService.generateTokenPair(principal(username)).accessToken();
 
         // Then
         assertNotNull(accessToken, "The generated access token should not be null");
@@ -99,7 +104,7 @@ public class TestJwtService {
         String username = "testUser";
 
         // When & Then
-        String accessToken = jwtService.generateAccessToken(username);
+        String accessToken = jwtService.generateTokenPair(principal(username)).accessToken();
         assertNotNull(accessToken, "Token should still be generated with null claims treated as empty");
     }
 
@@ -123,53 +128,65 @@ public class TestJwtService {
     }
 
     @Test
-    void refreshAccessToken_Success() throws Exception {
+    void verifyToken_ShouldReuseCachedVerification() {
         // Given
-        String username = "testUser";
-        TokenPair tokenPair = jwtService.generateTokenPair(username);
-
-        // Access the private getSignKey() method using reflection
-        Method getSignKeyMethod = jwtService.getClass().getDeclaredMethod("getSignKey");
-        getSignKeyMethod.setAccessible(true);
-        Key signKey = (Key) getSignKeyMethod.invoke(jwtService);
+        String accessToken = jwtService.generateTokenPair(principal("cachedUser")).accessToken();
 
         // When
-        String newAccessToken = jwtService.refreshAccessToken(tokenPair.refreshToken());
+        VerifiedToken first = jwtService.verifyToken(accessToken);
+        VerifiedToken second = jwtService.verifyToken(accessToken);
 
         // Then
-        assertNotNull(newAccessToken, "The new access token should not be null");
-        Claims newClaims = Jwts.parserBuilder()
-                .setSigningKey(signKey)
-                .build()
-                .parseClaimsJws(newAccessToken)
-                .getBody();
-        assertEquals(username, newClaims.getSubject(), "New access token subject should match username");
-        assertTrue(newClaims.getExpiration().after(new Date()), "New access token should not be expired");
+        assertEquals("cachedUser", first.username(), "Verified token subject should match username");
+        assertSame(first, second, "A repeated token should be served from the verification cache");
     }
 
     @Test
-    void refreshAccessToken_ShouldFailWhenRefreshTokenExpired() throws Exception {
+    void verifyToken_ShouldRejectTamperedToken() {
         // Given
-        String username = "testUser";
+        String accessToken = jwtService.generateTokenPair(principal("tamperedUser")).accessToken();
+        String tampered = accessToken.substring(0, accessToken.length() - 2)
+                + (accessToken.endsWith("AA") ? "BB" : "AA");
 
-        Date now = new Date();
-        Date expiredDate = new Date(now.getTime() - 1000);
+        // When & Then
+        assertThrows(JwtException.class, () -> jwtService.verifyToken(tampered));
+    }
 
+    @Test
+    void verifyToken_ShouldRejectTokenWithoutExpiration() throws Exception {
+        // Given
         Method getSignKeyMethod = jwtService.getClass().getDeclaredMethod("getSignKey");
         getSignKeyMethod.setAccessible(true);
         Key signKey = (Key) getSignKeyMethod.invoke(jwtService);
-
-        String expiredRefreshToken = Jwts.builder()
-                .setSubject(username)
-                .setIssuedAt(now)
-                .setExpiration(expiredDate)
+        String token = Jwts.builder()
+                .setSubject("foreverUser")
+                .setIssuedAt(new Date())
                 .signWith(signKey, SignatureAlgorithm.HS256)
                 .compact();
 
         // When & Then
-        Exception exception = assertThrows(JwtException.class, () -> {
-            jwtService.refreshAccessToken(expiredRefreshToken);
-        });
-        assertEquals("Refresh token has expired", exception.getMessage(), "Exception message should match");
+        Exception exception = assertThrows(JwtException.class, () -> jwtService.verifyToken(token));
+        assertEquals("Token has no expiration", exception.getMessage(), "Exception message should match");
+    }
+
+    @Test
+    void generateTokenPair_ForPrincipal_ShouldCarryUserIdAndRole() {
+        // Given
+        UserPrincipal principal = new UserPrincipal(7L, "claimsUser", null, Role.USER);
+
+        // When
+        TokenPair tokenPair = jwtService.generateTokenPair(principal);
+        VerifiedToken access = jwtService.verifyToken(tokenPair.accessToken());
+        VerifiedToken refresh = jwtService.verifyToken(tokenPair.refreshToken());
+
+        // Then
+        assertEquals(7L, access.userId(), "Access token should carry the user id");
+        assertEquals(Role.USER, access.role(), "Access token should carry the role");
+        assertEquals(7L, refresh.userId(), "Refresh token should carry the user id");
+        assertEquals(Role.USER, refresh.role(), "Refresh token should carry the role");
+    }
+
+    private static UserPrincipal principal(String username) {
+        return new UserPrincipal(1L, username, null, Role.USER);
     }
-}
\ No newline at end of file
+}
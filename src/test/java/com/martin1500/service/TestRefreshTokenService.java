@@ -0,0 +1,113 @@
+package com.martin1500.service;
+
+import com.martin1500.dto.TokenPair;
+import com.martin1500.model.RevokedToken;
+import com.martin1500.model.User;
+import com.martin1500.model.util.Role;
+import com.martin1500.repository.RevokedTokenRepository;
+import com.martin1500.repository.UserRepository;
+import com.martin1500.security.TokenRevocationService;
+import com.martin1500.security.UserPrincipal;
+import com.martin1500.security.VerifiedToken;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class TestRefreshTokenService {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private UserPrincipal principal;
+
+    @BeforeEach
+    void setUp() {
+        String username = "refreshUser" + System.nanoTime();
+        User user = userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@gmail.com")
+                .password("password123")
+                .role(Role.USER)
+                .build());
+        principal = UserPrincipal.from(user);
+    }
+
+    @Test
+    void rotate_ShouldIssueNewPairInSameFamily() {
+        TokenPair issued = refreshTokenService.issue(principal);
+
+        TokenPair rotated = refreshTokenService.rotate(issued.refreshToken());
+
+        VerifiedToken original = jwtService.verifyToken(issued.refreshToken());
+        VerifiedToken next = jwtService.verifyToken(rotated.refreshToken());
+        assertNotEquals(original.tokenId(), next.tokenId());
+        assertEquals(original.familyId(), next.familyId());
+        assertEquals(principal.id(), jwtService.verifyToken(rotated.accessToken()).userId());
+    }
+
+    @Test
+    void rotate_ShouldRevokeFamilyWhenRefreshTokenIsReplayed() {
+        TokenPair issued = refreshTokenService.issue(principal);
+        TokenPair rotated = refreshTokenService.rotate(issued.refreshToken());
+
+        assertThrows(JwtException.class, () -> refreshTokenService.rotate(issued.refreshToken()));
+
+        assertThrows(JwtException.class, () -> refreshTokenService.rotate(rotated.refreshToken()),
+                "The successor issued before the replay must be revoked too");
+        String familyId = jwtService.verifyToken(rotated.accessToken()).familyId();
+        assertTrue(tokenRevocationService.isRevoked(familyId));
+    }
+
+    @Test
+    void logout_ShouldRevokeAccessTokensOfTheFamily() {
+        TokenPair issued = refreshTokenService.issue(principal);
+        String familyId = jwtService.verifyToken(issued.accessToken()).familyId();
+        assertFalse(tokenRevocationService.isRevoked(familyId));
+
+        refreshTokenService.logout(issued.refreshToken());
+
+        assertTrue(tokenRevocationService.isRevoked(familyId));
+        tokenRevocationService.rebuild();
+        assertTrue(tokenRevocationService.isRevoked(familyId), "Revocations must survive a filter rebuild");
+        assertThrows(JwtException.class, () -> refreshTokenService.rotate(issued.refreshToken()));
+    }
+
+    @Test
+    void sync_ShouldPickUpRevocationsFromOtherInstances() {
+        // Saved straight to the table, as another instance would
+        String familyId = "elsewhere" + System.nanoTime();
+        revokedTokenRepository.save(new RevokedToken(familyId, Instant.now().plus(1, ChronoUnit.DAYS), Instant.now()));
+        assertFalse(tokenRevocationService.isRevoked(familyId));
+
+        tokenRevocationService.sync();
+
+        assertTrue(tokenRevocationService.isRevoked(familyId));
+    }
+
+    @Test
+    void rotate_ShouldRejectAccessToken() {
+        TokenPair issued = refreshTokenService.issue(principal);
+
+        assertThrows(JwtException.class, () -> refreshTokenService.rotate(issued.accessToken()));
+    }
+}
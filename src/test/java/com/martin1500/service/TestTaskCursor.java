@@ -0,0 +1,74 @@
+package com.martin1500.service;
+
+import com.martin1500.dto.TaskDTO;
+import com.martin1500.exception.InvalidCursorException;
+import com.martin1500.exception.InvalidSortException;
+import com.martin1500.model.util.Priority;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestTaskCursor {
+
+    private static final Sort DUE_DATE_ORDER = TaskSortKey.normalize(Sort.unsorted());
+
+    @Test
+    void decode_ShouldRestoreEncodedKeyset() {
+        TaskDTO task = TaskDTO.builder().id(42L).dueDate(LocalDate.of(2030, 5, 17)).build();
+        KeysetScrollPosition decoded = TaskCursor.decode(TaskCursor.encode(task, DUE_DATE_ORDER), DUE_DATE_ORDER);
+
+        assertEquals(LocalDate.of(2030, 5, 17), decoded.getKeys().get("dueDate"));
+        assertEquals(42L, decoded.getKeys().get("id"));
+        assertEquals(ScrollPosition.Direction.FORWARD, decoded.getDirection());
+    }
+
+    @Test
+    void decode_ShouldRestoreKeysInSortOrder() {
+        Sort sort = TaskSortKey.normalize(Sort.by(Sort.Order.desc("priority"), Sort.Order.asc("createdAt")));
+        TaskDTO task = TaskDTO.builder().id(7L).priority(Priority.HIGH)
+                .createdAt(LocalDateTime.of(2030, 5, 17, 9, 30, 15)).build();
+
+        KeysetScrollPosition decoded = TaskCursor.decode(TaskCursor.encode(task, sort), sort);
+
+        assertEquals(List.of("priority", "createdAt", "id"), List.copyOf(decoded.getKeys().keySet()));
+        assertEquals(Priority.HIGH, decoded.getKeys().get("priority"));
+        assertEquals(LocalDateTime.of(2030, 5, 17, 9, 30, 15), decoded.getKeys().get("createdAt"));
+        assertEquals(7L, decoded.getKeys().get("id"));
+    }
+
+    @Test
+    void decode_ShouldStartFromTheBeginningWithoutCursor() {
+        assertTrue(TaskCursor.decode(null, DUE_DATE_ORDER).isInitial());
+        assertTrue(TaskCursor.decode("", DUE_DATE_ORDER).isInitial());
+    }
+
+    @Test
+    void decode_ShouldRejectMalformedCursors() {
+        assertThrows(InvalidCursorException.class, () -> TaskCursor.decode("not base64!", DUE_DATE_ORDER));
+        assertThrows(InvalidCursorException.class, () -> TaskCursor.decode("MjAzMC0wNS0xNw", DUE_DATE_ORDER));
+        assertThrows(InvalidCursorException.class, () -> TaskCursor.decode("eWVzdGVyZGF5LDQy", DUE_DATE_ORDER));
+    }
+
+    @Test
+    void decode_ShouldRejectCursorFromAnotherSort() {
+        TaskDTO task = TaskDTO.builder().id(42L).dueDate(LocalDate.of(2030, 5, 17)).build();
+        Sort byPriority = TaskSortKey.normalize(Sort.by("priority"));
+
+        assertThrows(InvalidCursorException.class,
+                () -> TaskCursor.decode(TaskCursor.encode(task, DUE_DATE_ORDER), byPriority));
+    }
+
+    @Test
+    void normalize_ShouldAppendIdAndRejectUnknownProperties() {
+        assertEquals(Sort.by(Sort.Order.desc("priority"), Sort.Order.asc("id")),
+                TaskSortKey.normalize(Sort.by(Sort.Order.desc("priority"))));
+        assertThrows(InvalidSortException.class, () -> TaskSortKey.normalize(Sort.by("comments")));
+    }
+}
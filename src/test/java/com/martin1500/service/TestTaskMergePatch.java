@@ -0,0 +1,138 @@
+package com.martin1500.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.martin1500.dto.TaskDTO;
+import com.martin1500.exception.InvalidPatchException;
+import com.martin1500.model.Project;
+import com.martin1500.model.Task;
+import com.martin1500.model.User;
+import com.martin1500.model.util.Priority;
+import com.martin1500.model.util.Role;
+import com.martin1500.model.util.Status;
+import com.martin1500.repository.ProjectRepository;
+import com.martin1500.repository.TaskRepository;
+import com.martin1500.repository.UserRepository;
+import com.martin1500.security.UserPrincipal;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks what a merge patch writes: the changed columns only, and nothing when no value changes.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.martin1500.service.TestTaskMergePatch$CapturingStatementInspector")
+public class TestTaskMergePatch {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private User user;
+    private Task task;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder().username("patchUser").email("patchUser@gmail.com")
+                .password("password123").role(Role.USER).build());
+        Project project = projectRepository.save(Project.builder().name("Patched").build());
+        task = taskRepository.save(Task.builder().title("Task").description("Description").createdBy(user)
+                .project(project).status(Status.PENDING).priority(Priority.LOW)
+                .dueDate(LocalDate.now().minusDays(1)).comments("Comments").build());
+        UserPrincipal principal = UserPrincipal.from(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        CapturingStatementInspector.STATEMENTS.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        jdbcTemplate.update("delete from task where created_by_id = ?", user.getId());
+        jdbcTemplate.update("delete from project where id = ?", task.getProject().getId());
+        jdbcTemplate.update("delete from users where id = ?", user.getId());
+    }
+
+    @Test
+    void patchTask_ShouldWriteChangedColumnsOnly() throws Exception {
+        TaskDTO patched = taskService.patchTask(task.getId(),
+                objectMapper.readTree("{\"title\": \"Renamed\", \"description\": null, \"priority\": \"LOW\"}"), null);
+
+        assertEquals("Renamed", patched.getTitle());
+        assertNull(patched.getDescription());
+        assertEquals("Comments", patched.getComments());
+        assertEquals(task.getDueDate(), patched.getDueDate(), "An overdue task keeps its due date");
+        assertEquals(List.of("update task set description=?,title=?,updated_at=?,version=? where id=? and version=?"), updates());
+    }
+
+    @Test
+    void patchTask_ShouldNotWriteWhenNothingChanges() throws Exception {
+        TaskDTO patched = taskService.patchTask(task.getId(), objectMapper.readTree("{\"status\": \"PENDING\", \"title\": \"Task\"}"), null);
+
+        assertEquals(task.getUpdatedAt(), patched.getUpdatedAt());
+        assertEquals(List.of(), updates());
+    }
+
+    @Test
+    void patchTask_ShouldRejectInvalidPatches() throws Exception {
+        for (String patch : List.of("[]", "{\"id\": 1}", "{\"status\": null}", "{\"status\": \"DONE\"}",
+                "{\"dueDate\": \"2000-01-01\"}", "{\"projectId\": null}")) {
+            assertThrows(InvalidPatchException.class, () -> taskService.patchTask(task.getId(), objectMapper.readTree(patch), null), patch);
+        }
+        assertEquals(List.of(), updates());
+    }
+
+    @Test
+    void patchTask_ShouldPatchTaskWithoutProject() throws Exception {
+        Task detached = taskRepository.save(Task.builder().title("Detached").createdBy(user).status(Status.PENDING)
+                .priority(Priority.LOW).dueDate(LocalDate.now().plusDays(1)).build());
+
+        TaskDTO patched = taskService.patchTask(detached.getId(), objectMapper.readTree("{\"priority\": \"HIGH\"}"), null);
+
+        assertEquals(Priority.HIGH, patched.getPriority());
+        assertNull(patched.getProjectId());
+    }
+
+    private static List<String> updates() {
+        return CapturingStatementInspector.STATEMENTS.stream()
+                .filter(sql -> sql.startsWith("update"))
+                .toList();
+    }
+
+    public static class CapturingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
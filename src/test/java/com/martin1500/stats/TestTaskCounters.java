@@ -0,0 +1,110 @@
+package com.martin1500.stats;
+
+import com.martin1500.event.TaskSnapshot;
+import com.martin1500.model.util.Priority;
+import com.martin1500.model.util.Status;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestTaskCounters {
+
+    private static final long USER = 1L;
+
+    private final TaskCounters counters = new TaskCounters();
+
+    @Test
+    void add_ShouldCountPerUserAndPerProject() {
+        counters.add(task(USER, 10L, Status.PENDING, Priority.LOW), 1);
+        counters.add(task(USER, 10L, Status.PENDING, Priority.LOW), 1);
+        counters.add(task(USER, 20L, Status.COMPLETED, Priority.HIGH), 1);
+        counters.add(task(USER, null, null, Priority.HIGH), 1);
+
+        TaskCounts all = counters.counts(USER, null);
+        assertEquals(2, all.get(Status.PENDING, Priority.LOW));
+        assertEquals(1, all.get(Status.COMPLETED, Priority.HIGH));
+        assertEquals(4, all.total());
+        assertEquals(2, counters.counts(USER, 10L).total());
+        assertEquals(0, counters.counts(2L, null).total());
+    }
+
+    @Test
+    void add_ShouldNotLoseConcurrentChanges() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        TaskSnapshot pending = task(USER, 10L, Status.PENDING, Priority.MEDIUM);
+                        TaskSnapshot started = task(USER, 10L, Status.IN_PROGRESS, Priority.MEDIUM);
+                        counters.add(pending, 1);
+                        counters.add(pending, -1);
+                        counters.add(started, 1);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        TaskCounts counts = counters.counts(USER, 10L);
+        assertEquals(0, counts.get(Status.PENDING, Priority.MEDIUM));
+        assertEquals(80_000, counts.get(Status.IN_PROGRESS, Priority.MEDIUM));
+    }
+
+    @Test
+    void reconcile_ShouldCorrectDriftButSkipCountsChangedMeanwhile() {
+        counters.add(task(USER, 10L, Status.PENDING, Priority.LOW), 1);
+        counters.add(task(2L, 30L, Status.PENDING, Priority.LOW), 1);
+        Map<TaskCounters.Scope, Long> before = counters.snapshot();
+        counters.add(task(2L, 30L, Status.PENDING, Priority.LOW), 1);
+
+        boolean complete = counters.reconcile(before, List.of(
+                new TaskCount(USER, 10L, Status.PENDING, Priority.LOW, 3L, 0L),
+                new TaskCount(USER, 20L, Status.IN_PROGRESS, Priority.HIGH, 1L, 1L),
+                new TaskCount(2L, 30L, Status.PENDING, Priority.LOW, 1L, 0L)));
+
+        assertFalse(complete);
+        assertFalse(counters.isReady());
+        assertEquals(4, counters.counts(USER, null).total());
+        assertEquals(3, counters.counts(USER, 10L).get(Status.PENDING, Priority.LOW));
+        assertEquals(1, counters.counts(USER, 20L).get(Status.IN_PROGRESS, Priority.HIGH));
+        assertEquals(2, counters.counts(2L, 30L).total(), "Changed during the read, left for the next round");
+
+        assertTrue(counters.reconcile(counters.snapshot(), List.of()));
+        assertTrue(counters.isReady());
+        assertEquals(0, counters.counts(2L, null).total());
+    }
+
+    @Test
+    void reconcile_ShouldSkipCountsChangedAndChangedBackMeanwhile() {
+        counters.add(task(USER, 10L, Status.PENDING, Priority.LOW), 1);
+        Map<TaskCounters.Scope, Long> before = counters.snapshot();
+        // Created and deleted again during the read: the count is back where it was, but the
+        // database may have seen the task
+        counters.add(task(USER, 10L, Status.PENDING, Priority.LOW), 1);
+        counters.add(task(USER, 10L, Status.PENDING, Priority.LOW), -1);
+
+        boolean complete = counters.reconcile(before, List.of(
+                new TaskCount(USER, 10L, Status.PENDING, Priority.LOW, 2L, 0L)));
+
+        assertFalse(complete);
+        assertEquals(1, counters.counts(USER, 10L).total(), "Changed during the read, left for the next round");
+    }
+
+    private static TaskSnapshot task(long createdById, Long projectId, Status status, Priority priority) {
+        return new TaskSnapshot(1L, createdById, projectId, "Task", null, null, status, priority, LocalDate.now());
+    }
+}